@@ -0,0 +1,145 @@
+package com.ronaimate.dispatch.client;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.common.utils.Utils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ronaimate.dispatch.load.IndexDistribution;
+
+/**
+ * Stock lookups of a fleet of dispatch instances, each with its own availability cache, for orders of Zipf
+ * distributed items. With {@code ORDER} routing an order reaches any instance, as from {@code order.created} keyed by
+ * order; with {@code ITEM} routing it reaches the instance that owns the partition of its item, as from the topic of
+ * the item-affinity repartitioning stage ({@code kafka.repartition}).
+ *
+ * <p>Every cache miss is one stock service call, counted instead of made. Besides the lookup throughput, JMH reports
+ * the {@code lookups} and {@code stockCalls} rates, and each iteration prints the hit ratio and the stock service
+ * calls per 1000 orders, which do not depend on the speed of the machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemAffinityBenchmark {
+
+	public enum Routing {
+		ORDER, ITEM
+	}
+
+	@Param({ "ORDER", "ITEM" })
+	private Routing routing;
+
+	@Param({ "8" })
+	private int instances;
+
+	/**
+	 * Partitions of the repartitioned topic, spread evenly over the instances.
+	 */
+	@Param({ "24" })
+	private int partitions;
+
+	@Param({ "1000000" })
+	private int items;
+
+	@Param({ "1.0" })
+	private double zipfExponent;
+
+	/**
+	 * {@code dispatch.stockCache.maximumSize} of each instance.
+	 */
+	@Param({ "10000" })
+	private long cacheSize;
+
+	private long loads;
+
+	private StockAvailabilityCache[] caches;
+
+	private IndexDistribution distribution;
+
+	private String[] itemNames;
+
+	private int[] itemInstances;
+
+	private SplittableRandom random;
+
+	@Setup
+	public void setUp() {
+		final StockCacheSettings settings = new StockCacheSettings(true, cacheSize, Duration.ofSeconds(30),
+				Duration.ofSeconds(5), Duration.ofSeconds(20));
+		caches = new StockAvailabilityCache[instances];
+		for (int instance = 0; instance < instances; instance++) {
+			caches[instance] = new StockAvailabilityCache(settings, item -> {
+				loads++;
+				return "true";
+			}, bulk -> {
+				loads++;
+				return bulk.stream().collect(Collectors.toMap(item -> item, item -> "true"));
+			});
+		}
+		distribution = IndexDistribution.zipf(items, zipfExponent);
+		itemNames = new String[items];
+		itemInstances = new int[items];
+		for (int index = 0; index < items; index++) {
+			itemNames[index] = "item-" + index;
+			// the partition the producer's default partitioner picks for the item key
+			final int partition = Utils.toPositive(Utils.murmur2(itemNames[index].getBytes(StandardCharsets.UTF_8)))
+					% partitions;
+			itemInstances[index] = partition % instances;
+		}
+		random = new SplittableRandom(42);
+	}
+
+	@Benchmark
+	public String lookup(final Counters counters) {
+		final int index = distribution.next(random);
+		final int instance = routing == Routing.ITEM ? itemInstances[index] : random.nextInt(instances);
+		final long loadsBefore = loads;
+		final String available = caches[instance].get(itemNames[index]);
+		counters.lookups++;
+		counters.stockCalls += loads - loadsBefore;
+		return available;
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+
+		public long lookups;
+
+		public long stockCalls;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			lookups = 0;
+			stockCalls = 0;
+		}
+
+		@TearDown(Level.Iteration)
+		public void print() {
+			System.out.printf("%nhit ratio %.3f, %.1f stock calls per 1000 orders%n",
+					1 - (double) stockCalls / lookups, 1000.0 * stockCalls / lookups);
+		}
+
+	}
+
+}
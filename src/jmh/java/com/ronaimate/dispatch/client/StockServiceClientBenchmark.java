@@ -0,0 +1,83 @@
+package com.ronaimate.dispatch.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Round trip time of single and bulk availability lookups against a WireMock stock service on localhost, without
+ * the availability cache. The stubs answer immediately, so the result is the client and HTTP overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockServiceClientBenchmark {
+
+	private static final List<String> BULK_ITEMS = IntStream.range(0, 10).mapToObj(i -> "item-" + i).toList();
+
+	private WireMockServer wireMockServer;
+
+	private StockServiceClient stockServiceClient;
+
+	@Setup
+	public void setUp() {
+		wireMockServer = new WireMockServer(options().dynamicPort());
+		wireMockServer.start();
+		wireMockServer.stubFor(get(urlEqualTo("/api/stock?item=my-item"))
+				.willReturn(aResponse().withStatus(200).withBody("true")));
+		wireMockServer.stubFor(get(urlEqualTo("/api/stock/bulk?" + BULK_ITEMS.stream()
+				.map(item -> "item=" + item)
+				.collect(Collectors.joining("&"))))
+				.willReturn(aResponse().withStatus(200)
+						.withHeader("Content-Type", "application/json")
+						.withBody(BULK_ITEMS.stream()
+								.map(item -> "\"" + item + "\":\"true\"")
+								.collect(Collectors.joining(",", "{", "}")))));
+
+		final String endpoint = "http://localhost:" + wireMockServer.port() + "/api/stock";
+		stockServiceClient = new StockServiceClient(new RestTemplate(), endpoint, StockCacheSettings.disabled(),
+				StockBulkSettings.query(endpoint + "/bulk"));
+	}
+
+	@TearDown
+	public void tearDown() {
+		stockServiceClient.destroy();
+		wireMockServer.stop();
+	}
+
+	@Benchmark
+	public String checkAvailability() {
+		return stockServiceClient.checkAvailability("my-item");
+	}
+
+	@Benchmark
+	public Map<String, String> checkAvailabilityBulk() {
+		return stockServiceClient.checkAvailability(BULK_ITEMS);
+	}
+
+}
@@ -0,0 +1,166 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.messages.OrderCreated;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Orders per second from {@code order.created} to {@code order.dispatched} through the whole application, running
+ * against an embedded broker and a WireMock stock service, in each listener mode. Every invocation publishes a burst
+ * of orders and waits until all of them have been dispatched. The application runs with its default settings, so
+ * the availability cache answers most stock lookups.
+ * <p>
+ * {@code logging} selects the log output of the application: {@code off} logs warnings only, {@code console} is
+ * the default synchronous console logging at info level, and {@code async} the {@code async-logging} profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(DispatchEndToEndBenchmark.ORDERS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DispatchEndToEndBenchmark {
+
+	static final int ORDERS = 200;
+
+	private static final String ORDER_CREATED_TOPIC = "order.created";
+
+	private static final String ORDER_DISPATCHED_TOPIC = "order.dispatched";
+
+	private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+	@Param({ "record", "batch", "parallel" })
+	private String mode;
+
+	@Param({ "off", "console", "async" })
+	private String logging;
+
+	private EmbeddedKafkaBroker broker;
+
+	private WireMockServer wireMockServer;
+
+	private ConfigurableApplicationContext context;
+
+	private KafkaMessageListenerContainer<String, byte[]> dispatchedContainer;
+
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	private final AtomicLong dispatched = new AtomicLong();
+
+	@Setup
+	public void setUp() throws Exception {
+		broker = new EmbeddedKafkaBroker(1, true, 1, ORDER_CREATED_TOPIC, ORDER_DISPATCHED_TOPIC,
+				"dispatch.tracking");
+		broker.afterPropertiesSet();
+
+		wireMockServer = new WireMockServer(options().dynamicPort());
+		wireMockServer.start();
+		wireMockServer.stubFor(get(urlEqualTo("/api/stock?item=my-item"))
+				.willReturn(aResponse().withStatus(200).withBody("true")));
+		wireMockServer.stubFor(get(urlPathEqualTo("/api/stock/bulk"))
+				.willReturn(aResponse().withStatus(200)
+						.withHeader("Content-Type", "application/json")
+						.withBody("{\"my-item\":\"true\"}")));
+
+		final String stockServiceEndpoint = "http://localhost:" + wireMockServer.port() + "/api/stock";
+		final List<String> args = new ArrayList<>(List.of("--kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+				"--kafka.listener.mode=" + mode,
+				"--dispatch.stockServiceEndpoint=" + stockServiceEndpoint,
+				"--dispatch.stockBulk.endpoint=" + stockServiceEndpoint + "/bulk"));
+		if (!"off".equals(logging)) {
+			// the application's own configuration instead of the warnings only logback.xml of the benchmarks
+			args.add("--logging.config=classpath:logback-spring.xml");
+		}
+		if ("async".equals(logging)) {
+			args.add("--spring.profiles.active=async-logging");
+		}
+		context = new SpringApplicationBuilder(DispatchConfiguration.class)
+				.web(WebApplicationType.NONE)
+				.run(args.toArray(String[]::new));
+		kafkaTemplate = context.getBean(KafkaTemplate.class);
+
+		final Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("DispatchEndToEndBenchmark", "false",
+				broker);
+		consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+		final ContainerProperties containerProperties = new ContainerProperties(ORDER_DISPATCHED_TOPIC);
+		containerProperties.setMessageListener((MessageListener<String, byte[]>) record -> dispatched.incrementAndGet());
+		dispatchedContainer = new KafkaMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(consumerProps,
+				new StringDeserializer(), new ByteArrayDeserializer()), containerProperties);
+		dispatchedContainer.start();
+
+		ContainerTestUtils.waitForAssignment(dispatchedContainer, 1);
+		ContainerTestUtils.waitForAssignment(
+				context.getBean(KafkaListenerEndpointRegistry.class).getListenerContainer("orderConsumerClient"), 1);
+	}
+
+	@TearDown
+	public void tearDown() {
+		dispatchedContainer.stop();
+		context.close();
+		wireMockServer.stop();
+		broker.destroy();
+	}
+
+	@Benchmark
+	public void dispatch() throws InterruptedException {
+		final long target = dispatched.get() + ORDERS;
+		for (int i = 0; i < ORDERS; i++) {
+			kafkaTemplate.send(ORDER_CREATED_TOPIC, UUID.randomUUID().toString(),
+					new OrderCreated(UUID.randomUUID(), "my-item"));
+		}
+		kafkaTemplate.flush();
+
+		final long deadline = System.nanoTime() + TIMEOUT_NANOS;
+		while (dispatched.get() < target) {
+			if (System.nanoTime() > deadline) {
+				throw new IllegalStateException("Dispatched " + (dispatched.get() - target + ORDERS) + " of "
+						+ ORDERS + " orders within " + TimeUnit.NANOSECONDS.toSeconds(TIMEOUT_NANOS) + " s");
+			}
+			Thread.sleep(1);
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.ronaimate.dispatch.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Draws indexes in {@code [0, size)}, either uniformly or following Zipf's law, where index {@code k} is drawn with a
+ * probability proportional to {@code 1 / (k + 1)^exponent}, so a few hot indexes receive most of the draws.
+ */
+public final class IndexDistribution {
+
+	private final int size;
+
+	private final double[] cumulative;
+
+	private IndexDistribution(final int size, final double[] cumulative) {
+		this.size = size;
+		this.cumulative = cumulative;
+	}
+
+	static IndexDistribution uniform(final int size) {
+		if (size < 1) {
+			throw new IllegalArgumentException("size must be positive: " + size);
+		}
+		return new IndexDistribution(size, null);
+	}
+
+	public static IndexDistribution zipf(final int size, final double exponent) {
+		if (size < 1) {
+			throw new IllegalArgumentException("size must be positive: " + size);
+		}
+		final double[] cumulative = new double[size];
+		double sum = 0;
+		for (int k = 0; k < size; k++) {
+			sum += 1 / Math.pow(k + 1, exponent);
+			cumulative[k] = sum;
+		}
+		for (int k = 0; k < size; k++) {
+			cumulative[k] /= sum;
+		}
+		return new IndexDistribution(size, cumulative);
+	}
+
+	/**
+	 * @param name {@code uniform} or {@code zipf}
+	 */
+	static IndexDistribution of(final String name, final int size, final double exponent) {
+		return switch (name.toLowerCase(Locale.ROOT)) {
+			case "uniform" -> uniform(size);
+			case "zipf" -> zipf(size, exponent);
+			default -> throw new IllegalArgumentException("Unknown distribution " + name + ", expected uniform or zipf");
+		};
+	}
+
+	public int next(final RandomGenerator random) {
+		if (cumulative == null) {
+			return random.nextInt(size);
+		}
+		final int index = Arrays.binarySearch(cumulative, random.nextDouble());
+		return Math.min(index >= 0 ? index : -index - 1, size - 1);
+	}
+
+	int size() {
+		return size;
+	}
+
+}
@@ -0,0 +1,259 @@
+package com.ronaimate.dispatch.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.handler.OrderCreatedReactiveHandler;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.messages.OrderDispatched;
+import com.ronaimate.dispatch.serialization.DispatchMessageDeserializer;
+
+/**
+ * Publishes {@code OrderCreated} records to {@code order.created} at a fixed rate and reports the end to end
+ * latency until the matching {@code OrderDispatched} arrives on {@code order.dispatched}, correlated by orderId. The
+ * application runs against an embedded broker and a {@link StockServiceStub} with the given latency and error
+ * rate; see {@link LoadSettings} for the {@code --load.*} settings. Every other argument is passed to the
+ * application, so any listener mode or feature can be put under load, for example
+ * {@code --kafka.listener.mode=batch}.
+ *
+ * <p>Orders are published on a fixed schedule, and latency is measured from the time an order was due to be
+ * published rather than the time it was, so a generator that falls behind still counts the delay it could not
+ * generate. Progress and the latency of the last interval are printed every report interval, and the latency
+ * percentiles and peak thread count of the whole run at the end; run with
+ * {@code ./gradlew loadTest -Pload.args="..."}.
+ */
+public final class LoadGenerator {
+
+	private static final String ORDER_CREATED_TOPIC = "order.created";
+
+	private static final String ORDER_DISPATCHED_TOPIC = "order.dispatched";
+
+	private static final String LISTENER_ID = "orderConsumerClient";
+
+	private final LoadSettings settings;
+
+	private final IndexDistribution keys;
+
+	private final IndexDistribution items;
+
+	private final Random random = new Random();
+
+	private final Map<UUID, Long> pendingSince = new ConcurrentHashMap<>();
+
+	private final Recorder latencyMicros = new Recorder(3);
+
+	private final Histogram totalLatencyMicros = new Histogram(3);
+
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	private final AtomicLong sent = new AtomicLong();
+
+	private final AtomicLong dispatched = new AtomicLong();
+
+	private volatile long lastDispatchedNanos;
+
+	private LoadGenerator(final LoadSettings settings) {
+		this.settings = settings;
+		this.keys = settings.keys() > 0
+				? IndexDistribution.of(settings.keyDistribution(), settings.keys(), settings.zipfExponent())
+				: null;
+		this.items = IndexDistribution.of(settings.itemDistribution(), settings.items(), settings.zipfExponent());
+	}
+
+	public static void main(final String[] args) throws Exception {
+		new LoadGenerator(LoadSettings.parse(args)).run();
+	}
+
+	private void run() throws Exception {
+		final EmbeddedKafkaBroker broker = new EmbeddedKafkaBroker(1, true, settings.partitions(),
+				ORDER_CREATED_TOPIC, ORDER_DISPATCHED_TOPIC, "dispatch.tracking");
+		broker.afterPropertiesSet();
+		final StockServiceStub stockService = new StockServiceStub(settings.stockLatency(),
+				settings.stockErrorRate());
+		stockService.start();
+		final ConfigurableApplicationContext context = new SpringApplicationBuilder(DispatchConfiguration.class)
+				.web(WebApplicationType.NONE)
+				.run(applicationArgs(broker, stockService));
+		final KafkaMessageListenerContainer<String, Object> dispatchedContainer = dispatchedContainer(broker);
+		final DefaultKafkaProducerFactory<String, Object> producerFactory = producerFactory(broker);
+		final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+		try {
+			dispatchedContainer.start();
+			ContainerTestUtils.waitForAssignment(dispatchedContainer, settings.partitions());
+			final MessageListenerContainer listenerContainer = context.getBean(KafkaListenerEndpointRegistry.class)
+					.getListenerContainer(LISTENER_ID);
+			if (listenerContainer != null) {
+				ContainerTestUtils.waitForAssignment(listenerContainer, settings.partitions());
+			}
+			for (final OrderCreatedReactiveHandler handler : context.getBeansOfType(OrderCreatedReactiveHandler.class)
+					.values()) {
+				while (handler.assignment().size() < settings.partitions()) {
+					TimeUnit.MILLISECONDS.sleep(10);
+				}
+			}
+
+			System.out.printf("Publishing %.0f orders/s for %s, %s, %d %s items, %s stock latency, %.1f%% stock "
+							+ "errors%n", settings.rate(), settings.duration(),
+					keys == null ? "a key per order" : keys.size() + " " + settings.keyDistribution() + " keys",
+					items.size(), settings.itemDistribution(), settings.stockLatency(),
+					settings.stockErrorRate() * 100);
+			threads.resetPeakThreadCount();
+			final long startNanos = System.nanoTime();
+			final long intervalNanos = settings.reportInterval().toNanos();
+			reporter.scheduleAtFixedRate(() -> report(startNanos), intervalNanos, intervalNanos,
+					TimeUnit.NANOSECONDS);
+			publish(new KafkaTemplate<>(producerFactory), startNanos);
+			drain();
+			reporter.shutdownNow();
+			report(startNanos);
+			summary(startNanos);
+		} finally {
+			reporter.shutdownNow();
+			producerFactory.destroy();
+			dispatchedContainer.stop();
+			context.close();
+			stockService.stop();
+			broker.destroy();
+		}
+	}
+
+	private void publish(final KafkaTemplate<String, Object> kafkaTemplate, final long startNanos) {
+		final double periodNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+		final long orders = (long) (settings.duration().toNanos() / periodNanos);
+		for (long i = 0; i < orders; i++) {
+			final long dueNanos = startNanos + (long) (i * periodNanos);
+			long waitNanos;
+			while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(waitNanos);
+			}
+			final UUID orderId = UUID.randomUUID();
+			final String key = keys == null ? UUID.randomUUID().toString() : "key-" + keys.next(random);
+			pendingSince.put(orderId, dueNanos);
+			kafkaTemplate.send(ORDER_CREATED_TOPIC, key, new OrderCreated(orderId, "item-" + items.next(random)));
+			sent.incrementAndGet();
+		}
+		kafkaTemplate.flush();
+	}
+
+	private void drain() throws InterruptedException {
+		final long deadline = System.nanoTime() + settings.drainTimeout().toNanos();
+		while (!pendingSince.isEmpty() && System.nanoTime() < deadline) {
+			TimeUnit.MILLISECONDS.sleep(10);
+		}
+	}
+
+	private void onDispatched(final Object message) {
+		if (message instanceof OrderDispatched orderDispatched) {
+			final Long since = pendingSince.remove(orderDispatched.orderId());
+			if (since != null) {
+				final long nowNanos = System.nanoTime();
+				latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(nowNanos - since));
+				lastDispatchedNanos = nowNanos;
+				dispatched.incrementAndGet();
+			}
+		}
+	}
+
+	private synchronized void report(final long startNanos) {
+		final Histogram interval = latencyMicros.getIntervalHistogram();
+		totalLatencyMicros.add(interval);
+		System.out.printf("%6ds sent %d dispatched %d pending %d | last interval %d dispatched, p50 %s p99 %s "
+						+ "max %s%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos), sent.get(),
+				dispatched.get(), pendingSince.size(), interval.getTotalCount(),
+				millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+				millis(interval.getMaxValue()));
+	}
+
+	private synchronized void summary(final long startNanos) {
+		final double seconds = (lastDispatchedNanos - startNanos) / 1e9;
+		System.out.printf("%nSent %d orders, dispatched %d, not dispatched within %s: %d%n", sent.get(),
+				dispatched.get(), settings.drainTimeout(), pendingSince.size());
+		System.out.printf("Throughput %.0f orders/s%n", seconds > 0 ? dispatched.get() / seconds : 0);
+		System.out.printf("Threads peak %d, live %d, including the broker and the stock service stub%n",
+				threads.getPeakThreadCount(), threads.getThreadCount());
+		System.out.printf("End to end latency p50 %s p90 %s p99 %s p99.9 %s max %s%n",
+				millis(totalLatencyMicros.getValueAtPercentile(50)),
+				millis(totalLatencyMicros.getValueAtPercentile(90)),
+				millis(totalLatencyMicros.getValueAtPercentile(99)),
+				millis(totalLatencyMicros.getValueAtPercentile(99.9)),
+				millis(totalLatencyMicros.getMaxValue()));
+	}
+
+	/**
+	 * The broker and stock service endpoints, unless they are among the arguments already, followed by the
+	 * arguments.
+	 */
+	private String[] applicationArgs(final EmbeddedKafkaBroker broker, final StockServiceStub stockService) {
+		final List<String> args = new ArrayList<>();
+		addUnlessPresent(args, "--kafka.bootstrap-servers=", broker.getBrokersAsString());
+		addUnlessPresent(args, "--dispatch.stockServiceEndpoint=", stockService.endpoint());
+		addUnlessPresent(args, "--dispatch.stockBulk.endpoint=", stockService.bulkEndpoint());
+		args.addAll(settings.applicationArgs());
+		return args.toArray(String[]::new);
+	}
+
+	private void addUnlessPresent(final List<String> args, final String prefix, final String value) {
+		if (settings.applicationArgs().stream().noneMatch(arg -> arg.startsWith(prefix))) {
+			args.add(prefix + value);
+		}
+	}
+
+	private KafkaMessageListenerContainer<String, Object> dispatchedContainer(final EmbeddedKafkaBroker broker) {
+		final Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("LoadGenerator", "false", broker);
+		consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+		consumerProps.put(JsonDeserializer.TRUSTED_PACKAGES, OrderDispatched.class.getPackageName());
+		final DispatchMessageDeserializer valueDeserializer = new DispatchMessageDeserializer();
+		valueDeserializer.configure(consumerProps, false);
+		final ContainerProperties containerProperties = new ContainerProperties(ORDER_DISPATCHED_TOPIC);
+		containerProperties.setMessageListener(
+				(MessageListener<String, Object>) record -> onDispatched(record.value()));
+		return new KafkaMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(consumerProps,
+				new StringDeserializer(), valueDeserializer), containerProperties);
+	}
+
+	private static DefaultKafkaProducerFactory<String, Object> producerFactory(final EmbeddedKafkaBroker broker) {
+		final Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+		producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+		return new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new JsonSerializer<>());
+	}
+
+	private static String millis(final long micros) {
+		return String.format("%.1f ms", micros / 1000.0);
+	}
+
+}
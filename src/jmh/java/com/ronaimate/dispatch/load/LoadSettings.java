@@ -0,0 +1,74 @@
+package com.ronaimate.dispatch.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Settings of a {@link LoadGenerator} run, read from {@code --load.<name>=<value>} arguments.
+ *
+ * @param rate orders published per second
+ * @param duration how long orders are published
+ * @param drainTimeout how long to wait for the last orders to be dispatched once publishing stops
+ * @param reportInterval how often progress and the latency of the last interval are printed
+ * @param partitions partitions of {@code order.created} and the other topics on the embedded broker
+ * @param keys distinct record keys, 0 for a new key per order
+ * @param keyDistribution {@code uniform} or {@code zipf} choice among the keys
+ * @param items distinct items ordered
+ * @param itemDistribution {@code uniform} or {@code zipf} choice among the items
+ * @param zipfExponent exponent of the {@code zipf} distributions, higher makes the hot keys and items hotter
+ * @param stockLatency median latency of the stock service stub, 0 to answer immediately
+ * @param stockErrorRate fraction of stock service calls answered with 503
+ * @param applicationArgs the other arguments, passed on to the application
+ */
+record LoadSettings(double rate, Duration duration, Duration drainTimeout, Duration reportInterval, int partitions,
+		int keys, String keyDistribution, int items, String itemDistribution, double zipfExponent,
+		Duration stockLatency, double stockErrorRate, List<String> applicationArgs) {
+
+	private static final String PREFIX = "--load.";
+
+	static LoadSettings parse(final String[] args) {
+		final Map<String, String> settings = new HashMap<>();
+		final List<String> applicationArgs = new ArrayList<>();
+		for (final String arg : args) {
+			final int separator = arg.indexOf('=');
+			if (arg.startsWith(PREFIX) && separator > 0) {
+				settings.put(arg.substring(PREFIX.length(), separator), arg.substring(separator + 1));
+			} else {
+				applicationArgs.add(arg);
+			}
+		}
+		final LoadSettings loadSettings = new LoadSettings(
+				Double.parseDouble(remove(settings, "rate", "500")),
+				duration(remove(settings, "duration", "60s")),
+				duration(remove(settings, "drainTimeout", "30s")),
+				duration(remove(settings, "reportInterval", "10s")),
+				Integer.parseInt(remove(settings, "partitions", "3")),
+				Integer.parseInt(remove(settings, "keys", "0")),
+				remove(settings, "keyDistribution", "uniform"),
+				Integer.parseInt(remove(settings, "items", "1000")),
+				remove(settings, "itemDistribution", "zipf"),
+				Double.parseDouble(remove(settings, "zipfExponent", "1.0")),
+				duration(remove(settings, "stockLatency", "5ms")),
+				Double.parseDouble(remove(settings, "stockErrorRate", "0")),
+				List.copyOf(applicationArgs));
+		if (!settings.isEmpty()) {
+			throw new IllegalArgumentException("Unknown settings " + settings.keySet());
+		}
+		return loadSettings;
+	}
+
+	private static String remove(final Map<String, String> settings, final String name, final String defaultValue) {
+		final String value = settings.remove(name);
+		return value != null ? value : defaultValue;
+	}
+
+	private static Duration duration(final String value) {
+		return DurationStyle.detectAndParse(value);
+	}
+
+}
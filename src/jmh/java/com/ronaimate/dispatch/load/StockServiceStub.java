@@ -0,0 +1,111 @@
+package com.ronaimate.dispatch.load;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.RequestMethod;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * WireMock stock service that reports every item as available, on {@code /api/stock?item=<item>} and, as a JSON
+ * object by item, on {@code /api/stock/bulk} with either request shape. Responses are delayed by a log-normal
+ * latency around the given median, and the given fraction of them is a 503 instead.
+ */
+final class StockServiceStub {
+
+	private static final double LATENCY_SIGMA = 0.5;
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private final WireMockServer wireMockServer;
+
+	StockServiceStub(final Duration latency, final double errorRate) {
+		wireMockServer = new WireMockServer(options().dynamicPort()
+				.containerThreads(64)
+				.extensions(new AvailabilityTransformer(latency, errorRate)));
+	}
+
+	void start() {
+		wireMockServer.start();
+		wireMockServer.stubFor(any(urlPathMatching("/api/stock(/bulk)?")).willReturn(aResponse().withStatus(200)));
+	}
+
+	void stop() {
+		wireMockServer.stop();
+	}
+
+	String endpoint() {
+		return "http://localhost:" + wireMockServer.port() + "/api/stock";
+	}
+
+	String bulkEndpoint() {
+		return endpoint() + "/bulk";
+	}
+
+	private static final class AvailabilityTransformer extends ResponseDefinitionTransformer {
+
+		private final Duration latency;
+
+		private final double errorRate;
+
+		private AvailabilityTransformer(final Duration latency, final double errorRate) {
+			this.latency = latency;
+			this.errorRate = errorRate;
+		}
+
+		@Override
+		public ResponseDefinition transform(final Request request, final ResponseDefinition responseDefinition,
+				final FileSource files, final Parameters parameters) {
+			final ResponseDefinitionBuilder response = ResponseDefinitionBuilder.like(responseDefinition);
+			if (!latency.isZero()) {
+				response.withLogNormalRandomDelay(latency.toMillis(), LATENCY_SIGMA);
+			}
+			if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+				return response.withStatus(503).withBody("Service unavailable").build();
+			}
+			if (!request.getUrl().startsWith("/api/stock/bulk")) {
+				return response.withBody("true").build();
+			}
+			return response.withHeader("Content-Type", "application/json")
+					.withBody(bulkItems(request).stream()
+							.map(item -> "\"" + item + "\":\"true\"")
+							.collect(Collectors.joining(",", "{", "}")))
+					.build();
+		}
+
+		@Override
+		public String getName() {
+			return "stock-availability";
+		}
+
+		private static List<String> bulkItems(final Request request) {
+			if (request.getMethod() != RequestMethod.POST) {
+				return request.queryParameter("item").values();
+			}
+			try {
+				return Arrays.asList(OBJECT_MAPPER.readValue(request.getBody(), String[].class));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+	}
+
+}
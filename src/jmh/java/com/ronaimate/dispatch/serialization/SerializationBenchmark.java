@@ -0,0 +1,126 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparing;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.messages.OrderDispatched;
+
+/**
+ * Serialization and deserialization time of the dispatch messages in JSON, by Spring's {@link JsonSerializer} and
+ * {@link JsonDeserializer} and by the streaming {@link DispatchJsonCodec}, and in the binary dispatch format. The
+ * bytes on the wire of each format, value plus type header, are printed once per trial. Run with {@code -prof gc}
+ * to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "OrderCreated", "DispatchPreparing", "OrderDispatched", "DispatchCompleted" })
+	private String messageType;
+
+	private Object message;
+
+	private final JsonSerializer<Object> springJsonSerializer = new JsonSerializer<>();
+
+	private final JsonDeserializer<Object> springJsonDeserializer = new JsonDeserializer<>();
+
+	private final DispatchJsonSerializer jsonSerializer = new DispatchJsonSerializer();
+
+	private final DispatchBinarySerializer binarySerializer = new DispatchBinarySerializer();
+
+	private final DispatchMessageDeserializer deserializer = new DispatchMessageDeserializer();
+
+	private byte[] json;
+
+	private Headers jsonHeaders;
+
+	private byte[] binary;
+
+	@Setup
+	public void setUp() {
+		message = switch (messageType) {
+			case "OrderCreated" -> new OrderCreated(UUID.randomUUID(), "my-item");
+			case "DispatchPreparing" -> new DispatchPreparing(UUID.randomUUID());
+			case "OrderDispatched" -> new OrderDispatched(UUID.randomUUID(), UUID.randomUUID(),
+					"Dispatched: my-item");
+			case "DispatchCompleted" -> new DispatchCompleted(UUID.randomUUID(), "2024-01-01");
+			default -> throw new IllegalArgumentException(messageType);
+		};
+		final Map<String, Object> configs = Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.ronaimate.dispatch.messages",
+				JsonDeserializer.REMOVE_TYPE_INFO_HEADERS, false);
+		springJsonDeserializer.configure(configs, false);
+		deserializer.configure(configs, false);
+
+		jsonHeaders = new RecordHeaders();
+		json = jsonSerializer.serialize("topic", jsonHeaders, message);
+		binary = binarySerializer.serialize("topic", message);
+
+		System.out.printf("%n%s bytes on the wire: json %d (value %d + headers %d), binary %d%n", messageType,
+				json.length + headerBytes(jsonHeaders), json.length, headerBytes(jsonHeaders), binary.length);
+	}
+
+	@Benchmark
+	public byte[] springJsonSerialize() {
+		return springJsonSerializer.serialize("topic", new RecordHeaders(), message);
+	}
+
+	@Benchmark
+	public Object springJsonDeserialize() {
+		return springJsonDeserializer.deserialize("topic", jsonHeaders, json);
+	}
+
+	@Benchmark
+	public byte[] jsonSerialize() {
+		return jsonSerializer.serialize("topic", new RecordHeaders(), message);
+	}
+
+	@Benchmark
+	public Object jsonDeserialize() {
+		return deserializer.deserialize("topic", jsonHeaders, json);
+	}
+
+	@Benchmark
+	public byte[] binarySerialize() {
+		return binarySerializer.serialize("topic", message);
+	}
+
+	@Benchmark
+	public Object binaryDeserialize() {
+		return deserializer.deserialize("topic", jsonHeaders, binary);
+	}
+
+	private static int headerBytes(final Headers headers) {
+		int bytes = 0;
+		for (final Header header : headers) {
+			bytes += header.key().getBytes(StandardCharsets.UTF_8).length + header.value().length;
+		}
+		return bytes;
+	}
+
+}
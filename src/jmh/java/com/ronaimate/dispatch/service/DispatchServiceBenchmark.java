@@ -0,0 +1,105 @@
+package com.ronaimate.dispatch.service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.web.client.RestTemplate;
+
+import com.ronaimate.dispatch.client.StockBulkSettings;
+import com.ronaimate.dispatch.client.StockCacheSettings;
+import com.ronaimate.dispatch.client.StockServiceClient;
+import com.ronaimate.dispatch.dedup.ProcessedOrders;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Time {@link DispatchService#process(String, OrderCreated)} spends on its own, with a stock service that always
+ * answers available and a {@link KafkaTemplate} whose sends complete immediately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchServiceBenchmark {
+
+	@Param({ "false", "true" })
+	private boolean pipelineSends;
+
+	@Param({ "SEPARATE", "COMBINED" })
+	private TrackingMode trackingMode;
+
+	private DispatchService dispatchService;
+
+	private OrderCreated orderCreated;
+
+	@Setup
+	public void setUp(final Blackhole blackhole) {
+		dispatchService = new DispatchService(new StubKafkaTemplate(blackhole), new StubStockServiceClient(),
+				new DispatchMetrics(new SimpleMeterRegistry()), ProcessedOrders.disabled(), trackingMode,
+				pipelineSends);
+		orderCreated = new OrderCreated(UUID.randomUUID(), "my-item");
+	}
+
+	@Benchmark
+	public void process() throws Exception {
+		dispatchService.process("key", orderCreated);
+	}
+
+	private static class StubKafkaTemplate extends KafkaTemplate<String, Object> {
+
+		private static final CompletableFuture<SendResult<String, Object>> SENT =
+				CompletableFuture.completedFuture(null);
+
+		private final Blackhole blackhole;
+
+		StubKafkaTemplate(final Blackhole blackhole) {
+			super(new DefaultKafkaProducerFactory<>(Map.of()));
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public CompletableFuture<SendResult<String, Object>> send(final String topic, final String key,
+				final Object data) {
+			// keeps the JIT from eliminating the outbound events
+			blackhole.consume(data);
+			return SENT;
+		}
+
+	}
+
+	private static class StubStockServiceClient extends StockServiceClient {
+
+		StubStockServiceClient() {
+			super(new RestTemplate(), "http://localhost/api/stock", StockCacheSettings.disabled(),
+					StockBulkSettings.query("http://localhost/api/stock"));
+		}
+
+		@Override
+		public String checkAvailability(final String item) {
+			return "true";
+		}
+
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.ronaimate.dispatch.admin;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.ronaimate.dispatch.handler.InFlightRecords;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runtime control of the {@code order.created} listener containers of this instance, on the web server port:
+ *
+ * <ul>
+ * <li>{@code GET /admin/listeners} and {@code GET /admin/listeners/{id}} - state of the containers, with the assigned
+ * partitions, whether they are paused and their records in flight</li>
+ * <li>{@code PUT /admin/listeners/{id}/concurrency?value=n} - restarts the container with {@code n} consumer
+ * threads; the consumer group rebalances, and partitions paused through this endpoint are resumed. With static
+ * membership, the partitions of consumer threads dropped by a lower concurrency wait for
+ * {@code kafka.membership.session-timeout} before they are reassigned</li>
+ * <li>{@code POST /admin/listeners/{id}/partitions/{partition}/pause} and {@code .../resume} - pauses or resumes the
+ * partition of the container's topics while it is assigned to this instance; the consumer applies it once its
+ * current poll returns</li>
+ * </ul>
+ *
+ * <p>The endpoints are not authenticated, so they are only registered with {@code dispatch.admin.enabled=true}, which
+ * is meant for instances whose web server port is reachable from trusted hosts alone.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/admin/listeners")
+@ConditionalOnProperty(name = "dispatch.admin.enabled", havingValue = "true")
+public class ListenerAdminController {
+
+	private static final String LISTENER_ID_PREFIX = "orderConsumerClient";
+
+	private final KafkaListenerEndpointRegistry registry;
+
+	private final InFlightRecords inFlightRecords;
+
+	public ListenerAdminController(final KafkaListenerEndpointRegistry registry,
+			final InFlightRecords inFlightRecords) {
+		this.registry = registry;
+		this.inFlightRecords = inFlightRecords;
+	}
+
+	@GetMapping
+	public List<ListenerStatus> listeners() {
+		return registry.getListenerContainers().stream()
+				.filter(container -> isOrderListener(container.getListenerId()))
+				.sorted(Comparator.comparing(MessageListenerContainer::getListenerId))
+				.map(this::status)
+				.toList();
+	}
+
+	@GetMapping("/{id}")
+	public ListenerStatus listener(@PathVariable final String id) {
+		return status(container(id));
+	}
+
+	@PutMapping("/{id}/concurrency")
+	public ListenerStatus concurrency(@PathVariable final String id, @RequestParam final int value) {
+		if (value < 1) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Concurrency must be at least 1: " + value);
+		}
+		if (!(container(id) instanceof ConcurrentMessageListenerContainer<?, ?> container)) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, "Listener " + id + " has no concurrency");
+		}
+		synchronized (container) {
+			final boolean running = container.isRunning();
+			log.warn("Changing the concurrency of {} from {} to {}", id, container.getConcurrency(), value);
+			// the concurrency of a container takes effect when it starts
+			if (running) {
+				container.stop();
+			}
+			container.setConcurrency(value);
+			if (running) {
+				container.start();
+			}
+		}
+		return status(container);
+	}
+
+	@PostMapping("/{id}/partitions/{partition}/pause")
+	public ListenerStatus pause(@PathVariable final String id, @PathVariable final int partition) {
+		final MessageListenerContainer container = container(id);
+		for (final TopicPartition topicPartition : assigned(container, partition)) {
+			log.warn("Pausing {} of {}", topicPartition, id);
+			container.pausePartition(topicPartition);
+		}
+		return status(container);
+	}
+
+	@PostMapping("/{id}/partitions/{partition}/resume")
+	public ListenerStatus resume(@PathVariable final String id, @PathVariable final int partition) {
+		final MessageListenerContainer container = container(id);
+		for (final TopicPartition topicPartition : assigned(container, partition)) {
+			log.warn("Resuming {} of {}", topicPartition, id);
+			container.resumePartition(topicPartition);
+		}
+		return status(container);
+	}
+
+	private MessageListenerContainer container(final String id) {
+		final MessageListenerContainer container = isOrderListener(id) ? registry.getListenerContainer(id) : null;
+		if (container == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No order.created listener " + id);
+		}
+		return container;
+	}
+
+	private static boolean isOrderListener(final String id) {
+		return id != null && id.startsWith(LISTENER_ID_PREFIX);
+	}
+
+	private static List<TopicPartition> assigned(final MessageListenerContainer container, final int partition) {
+		final List<TopicPartition> assigned = assignedPartitions(container).stream()
+				.filter(topicPartition -> topicPartition.partition() == partition)
+				.toList();
+		if (assigned.isEmpty()) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+					"Partition " + partition + " is not assigned to " + container.getListenerId() + " here");
+		}
+		return assigned;
+	}
+
+	private ListenerStatus status(final MessageListenerContainer container) {
+		final List<ListenerStatus.PartitionStatus> partitions = assignedPartitions(container).stream()
+				.sorted(Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition))
+				.map(partition -> new ListenerStatus.PartitionStatus(partition.topic(), partition.partition(),
+						isPaused(container, partition), inFlightRecords.get(partition)))
+				.toList();
+		return new ListenerStatus(container.getListenerId(), container.isRunning(), container.isPauseRequested(),
+				container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent
+						? concurrent.getConcurrency()
+						: 1,
+				partitions);
+	}
+
+	/**
+	 * Whether the partition has been asked to pause; a concurrent container passes the request to the child container
+	 * the partition is assigned to.
+	 */
+	private static boolean isPaused(final MessageListenerContainer container, final TopicPartition partition) {
+		if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) {
+			return concurrent.getContainers().stream().anyMatch(child -> isPaused(child, partition));
+		}
+		return container.isPartitionPauseRequested(partition);
+	}
+
+	private static Collection<TopicPartition> assignedPartitions(final MessageListenerContainer container) {
+		final Collection<TopicPartition> assigned = container.getAssignedPartitions();
+		return assigned == null ? List.of() : assigned;
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.ronaimate.dispatch.admin;
+
+import java.util.List;
+
+/**
+ * State of a listener container as reported by the {@link ListenerAdminController}.
+ *
+ * @param id the listener id
+ * @param running whether the container is running
+ * @param paused whether the whole container has been asked to pause
+ * @param concurrency consumer threads of the container, 1 for a container without concurrency
+ * @param partitions the partitions assigned to the container on this instance
+ */
+public record ListenerStatus(String id, boolean running, boolean paused, int concurrency,
+		List<PartitionStatus> partitions) {
+
+	/**
+	 * @param paused whether the partition has been asked to pause
+	 * @param inFlight records of the partition handed to the listener and not yet processed
+	 */
+	public record PartitionStatus(String topic, int partition, boolean paused, int inFlight) {
+
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.ronaimate.dispatch.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.ronaimate.exception.RetryableException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Non-blocking variant of {@link StockServiceClient} on the pooled {@code stockServiceWebClient}. Server errors and
+ * connection failures complete the returned future with a {@link RetryableException}, like the blocking client.
+ */
+@Slf4j
+@Component
+public class AsyncStockServiceClient {
+
+	private final WebClient webClient;
+
+	private final String stockServiceEndpoint;
+
+	public AsyncStockServiceClient(WebClient stockServiceWebClient,
+			@Value("${dispatch.stockServiceEndpoint}") String stockServiceEndpoint) {
+		this.webClient = stockServiceWebClient;
+		this.stockServiceEndpoint = stockServiceEndpoint;
+	}
+
+	public CompletableFuture<String> checkAvailability(final String item) {
+		return webClient.get()
+				.uri(stockServiceEndpoint + "?item=" + item)
+				.retrieve()
+				.bodyToMono(String.class)
+				.onErrorMap(this::toRetryable)
+				.toFuture();
+	}
+
+	private Throwable toRetryable(final Throwable throwable) {
+		if (throwable instanceof WebClientResponseException e && e.getStatusCode().is5xxServerError()) {
+			log.error("Server exception error code: {}", e.getStatusCode(), e);
+			return new RetryableException(e);
+		}
+		if (throwable instanceof WebClientRequestException e) {
+			log.error("Resource access exception.", e);
+			return new RetryableException(e);
+		}
+		log.error("Exception thrown: {}", throwable.getClass().getName(), throwable);
+		return throwable;
+	}
+
+}
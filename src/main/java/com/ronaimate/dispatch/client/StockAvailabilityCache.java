@@ -0,0 +1,104 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded availability cache per item. Concurrent lookups of an item that is not cached share a single load, and
+ * entries older than {@link StockCacheSettings#refreshAfter()} are reloaded in the background on read.
+ * Failed loads are not cached. The cache statistics are registered as the {@code cache.*} meters of the
+ * {@value #CACHE_NAME} cache.
+ */
+public class StockAvailabilityCache implements MeterBinder {
+
+	static final String CACHE_NAME = "stockAvailability";
+
+	private final LoadingCache<String, String> cache;
+
+	public StockAvailabilityCache(final StockCacheSettings settings, final Function<String, String> loader,
+			final Function<Set<String>, Map<String, String>> bulkLoader) {
+		this(settings, loader, bulkLoader, Ticker.systemTicker(), ForkJoinPool.commonPool());
+	}
+
+	StockAvailabilityCache(final StockCacheSettings settings, final Function<String, String> loader,
+			final Function<Set<String>, Map<String, String>> bulkLoader, final Ticker ticker,
+			final Executor executor) {
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(settings.maximumSize())
+				.expireAfter(new AvailabilityExpiry(settings.ttl(), settings.negativeTtl()))
+				.refreshAfterWrite(settings.refreshAfter())
+				.ticker(ticker)
+				.executor(executor)
+				.recordStats()
+				.build(new CacheLoader<>() {
+
+					@Override
+					public String load(final String item) {
+						return loader.apply(item);
+					}
+
+					@Override
+					public Map<String, String> loadAll(final Set<? extends String> items) {
+						return bulkLoader.apply(Set.copyOf(items));
+					}
+
+				});
+	}
+
+	public String get(final String item) {
+		return cache.get(item);
+	}
+
+	/**
+	 * Returns the cached availability of the items, loading all missing ones with one bulk load.
+	 */
+	public Map<String, String> getAll(final Set<String> items) {
+		return cache.getAll(items);
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+	}
+
+	private record AvailabilityExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, String> {
+
+		@Override
+		public long expireAfterCreate(final String item, final String available, final long currentTime) {
+			return (Boolean.parseBoolean(available) ? ttl : negativeTtl).toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(final String item, final String available, final long currentTime,
+				final long currentDuration) {
+			return expireAfterCreate(item, available, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(final String item, final String available, final long currentTime,
+				final long currentDuration) {
+			return currentDuration;
+		}
+
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.ronaimate.dispatch.client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import com.ronaimate.dispatch.topic.TopicFollower;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Availability per item read from the compacted {@link StockSnapshotSettings#topic()}, so lookups of known items are
+ * answered from memory instead of by the stock service. A record with a null value removes its item.
+ *
+ * <p>The snapshot is a readiness gate: as a {@link TopicFollower}, orders are not consumed before it has caught up
+ * with the topic, and startup fails if it has not within {@link StockSnapshotSettings#restoreTimeout()}. Restore
+ * progress is exposed as the gauge {@code dispatch.stock.snapshot.restore.remaining}, the number of items as
+ * {@code dispatch.stock.snapshot.items}. If its consumer fails the snapshot is cleared, so lookups fall back to the
+ * stock service rather than being answered from a stale snapshot.
+ */
+@Slf4j
+public class StockAvailabilitySnapshot extends TopicFollower implements MeterBinder {
+
+	private final Map<String, String> availability = new ConcurrentHashMap<>();
+
+	public StockAvailabilitySnapshot(final StockSnapshotSettings settings,
+			final Supplier<Consumer<String, String>> consumerFactory) {
+		super("Stock snapshot", settings.enabled(), settings.topic(), settings.restoreTimeout(), consumerFactory);
+	}
+
+	public static StockAvailabilitySnapshot disabled() {
+		return new StockAvailabilitySnapshot(StockSnapshotSettings.disabled(), () -> {
+			throw new IllegalStateException("Stock snapshot is disabled");
+		});
+	}
+
+	/**
+	 * The availability of the item, null if the snapshot does not know it.
+	 */
+	public String get(final String item) {
+		return availability.get(item);
+	}
+
+	public int size() {
+		return availability.size();
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		Gauge.builder("dispatch.stock.snapshot.items", this, StockAvailabilitySnapshot::size)
+				.description("Items in the local stock availability snapshot")
+				.register(registry);
+		Gauge.builder("dispatch.stock.snapshot.restore.remaining", this, StockAvailabilitySnapshot::restoreRemaining)
+				.description("Records left to restore the stock availability snapshot, -1 before the restore started")
+				.register(registry);
+	}
+
+	@Override
+	protected void apply(final ConsumerRecord<String, String> record) {
+		if (record.key() == null) {
+			return;
+		}
+		if (record.value() == null) {
+			availability.remove(record.key());
+		} else {
+			availability.put(record.key(), record.value());
+		}
+	}
+
+	@Override
+	protected void onFailure() {
+		log.warn("Clearing the stock snapshot, lookups fall back to the stock service");
+		availability.clear();
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of bulk availability lookups.
+ *
+ * @param requestShape how a set of items is sent to the stock service
+ * @param endpoint the bulk lookup endpoint
+ * @param batching when true single-item lookups of concurrent callers are collected into bulk requests
+ * @param maxItems the number of distinct items that triggers a bulk request
+ * @param maxWait how long the first lookup of a window waits for more items
+ * @param maxConcurrentRequests the number of bulk requests of collected windows in flight at once
+ */
+public record StockBulkSettings(RequestShape requestShape, String endpoint, boolean batching, int maxItems,
+		Duration maxWait, int maxConcurrentRequests) {
+
+	public enum RequestShape {
+
+		/**
+		 * {@code GET {endpoint}?item=a&item=b}
+		 */
+		QUERY,
+
+		/**
+		 * {@code POST {endpoint}} with a JSON array of items as the body.
+		 */
+		POST
+
+	}
+
+	public static StockBulkSettings query(final String endpoint) {
+		return new StockBulkSettings(RequestShape.QUERY, endpoint, false, 0, Duration.ZERO, 1);
+	}
+
+}
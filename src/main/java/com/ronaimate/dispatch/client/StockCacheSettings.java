@@ -0,0 +1,21 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of the stock availability cache in front of the stock service.
+ *
+ * @param enabled when false every lookup goes to the stock service
+ * @param maximumSize maximum number of cached items
+ * @param ttl how long an available item is served from the cache
+ * @param negativeTtl how long an unavailable item is served from the cache
+ * @param refreshAfter age after which a read triggers a background reload while the cached value is still served
+ */
+public record StockCacheSettings(boolean enabled, long maximumSize, Duration ttl, Duration negativeTtl,
+		Duration refreshAfter) {
+
+	public static StockCacheSettings disabled() {
+		return new StockCacheSettings(false, 0L, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+	}
+
+}
@@ -0,0 +1,56 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+/**
+ * Waits out an open {@link StockCircuitBreaker} before retrying a record, without using up the retry attempts of the
+ * wrapped {@link BackOff}: a record that fails while the stock service is unavailable is retried once the circuit
+ * lets calls through again instead of being dead-lettered after a few quick attempts.
+ *
+ * <p>A record is given up on once {@code maxElapsed} has passed since its first failure, so a record that keeps
+ * failing while the circuit keeps opening again is dead-lettered rather than retried forever.
+ */
+public class StockCircuitBackOff implements BackOff {
+
+	private final BackOff backOff;
+
+	private final StockCircuitBreaker circuitBreaker;
+
+	private final long maxElapsedNanos;
+
+	private final LongSupplier nanoClock;
+
+	public StockCircuitBackOff(final BackOff backOff, final StockCircuitBreaker circuitBreaker,
+			final Duration maxElapsed) {
+		this(backOff, circuitBreaker, maxElapsed, System::nanoTime);
+	}
+
+	StockCircuitBackOff(final BackOff backOff, final StockCircuitBreaker circuitBreaker, final Duration maxElapsed,
+			final LongSupplier nanoClock) {
+		this.backOff = backOff;
+		this.circuitBreaker = circuitBreaker;
+		this.maxElapsedNanos = maxElapsed.toNanos();
+		this.nanoClock = nanoClock;
+	}
+
+	@Override
+	public BackOffExecution start() {
+		final BackOffExecution execution = backOff.start();
+		final long startNanos = nanoClock.getAsLong();
+		return () -> {
+			final long remainingNanos = maxElapsedNanos - (nanoClock.getAsLong() - startNanos);
+			if (remainingNanos <= 0) {
+				return BackOffExecution.STOP;
+			}
+			if (circuitBreaker.state() == StockCircuitBreaker.State.CLOSED) {
+				return execution.nextBackOff();
+			}
+			return Math.min(circuitBreaker.retryAfter().toMillis(), Duration.ofNanos(remainingNanos).toMillis());
+		};
+	}
+
+}
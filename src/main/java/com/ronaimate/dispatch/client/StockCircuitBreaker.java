@@ -0,0 +1,217 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+import com.ronaimate.exception.StockServiceUnavailableException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count based circuit breaker of stock service calls. The circuit opens once
+ * {@link StockCircuitBreakerSettings#failureRateThreshold()} percent of the last
+ * {@link StockCircuitBreakerSettings#slidingWindowSize()} calls failed, and calls are then rejected with a
+ * {@link StockServiceUnavailableException} without reaching the stock service. After
+ * {@link StockCircuitBreakerSettings#openDuration()} the circuit is half open and lets a single trial call through,
+ * which closes the circuit when it succeeds and opens it again when it fails.
+ *
+ * <p>The state is exposed as the gauge {@code dispatch.stock.circuit.state}, 1 for the current state and 0 for the
+ * others, tagged {@code state=closed|open|half_open}.
+ */
+@Slf4j
+public class StockCircuitBreaker implements MeterBinder {
+
+	/**
+	 * How long a call rejected while the trial call of a half open circuit is in flight should wait.
+	 */
+	static final Duration HALF_OPEN_RETRY_AFTER = Duration.ofMillis(100);
+
+	public enum State {
+
+		CLOSED, OPEN, HALF_OPEN
+
+	}
+
+	/**
+	 * Notified on every state change, on the thread whose call caused it. A trial call given back with
+	 * {@link #releasePermission()} is not a state change.
+	 */
+	public interface Listener {
+
+		void onStateChange(State state);
+
+	}
+
+	private final StockCircuitBreakerSettings settings;
+
+	private final LongSupplier nanoClock;
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	private final boolean[] window;
+
+	private int windowIndex;
+
+	private int calls;
+
+	private int failures;
+
+	private State state = State.CLOSED;
+
+	private long openUntilNanos;
+
+	public StockCircuitBreaker(final StockCircuitBreakerSettings settings) {
+		this(settings, System::nanoTime);
+	}
+
+	StockCircuitBreaker(final StockCircuitBreakerSettings settings, final LongSupplier nanoClock) {
+		this.settings = settings;
+		this.nanoClock = nanoClock;
+		this.window = new boolean[settings.slidingWindowSize()];
+	}
+
+	public void addListener(final Listener listener) {
+		listeners.add(listener);
+	}
+
+	public Duration openDuration() {
+		return settings.openDuration();
+	}
+
+	public synchronized State state() {
+		return state;
+	}
+
+	/**
+	 * Lets a call through or rejects it.
+	 *
+	 * @throws StockServiceUnavailableException while the circuit is open, or half open with the trial call in
+	 * flight
+	 */
+	public void acquirePermission() {
+		if (!settings.enabled()) {
+			return;
+		}
+		synchronized (this) {
+			if (state == State.CLOSED) {
+				return;
+			}
+			if (state == State.HALF_OPEN) {
+				throw new StockServiceUnavailableException(HALF_OPEN_RETRY_AFTER);
+			}
+			final long remainingNanos = openUntilNanos - nanoClock.getAsLong();
+			if (remainingNanos > 0) {
+				throw new StockServiceUnavailableException(Duration.ofNanos(remainingNanos));
+			}
+			transition(State.HALF_OPEN);
+		}
+	}
+
+	/**
+	 * Gives back the permission of a call that was not made, so a half open circuit lets the next call through as
+	 * its trial call.
+	 */
+	public void releasePermission() {
+		if (!settings.enabled()) {
+			return;
+		}
+		synchronized (this) {
+			if (state == State.HALF_OPEN) {
+				// open duration already passed, the next acquirePermission() starts a new trial
+				state = State.OPEN;
+			}
+		}
+	}
+
+	public void onSuccess() {
+		if (!settings.enabled()) {
+			return;
+		}
+		synchronized (this) {
+			if (state == State.HALF_OPEN) {
+				transition(State.CLOSED);
+			} else if (state == State.CLOSED) {
+				record(false);
+			}
+		}
+	}
+
+	/**
+	 * Records a failed call.
+	 *
+	 * @return true if the circuit is open after this failure
+	 */
+	public boolean onFailure() {
+		if (!settings.enabled()) {
+			return false;
+		}
+		synchronized (this) {
+			if (state == State.HALF_OPEN) {
+				transition(State.OPEN);
+			} else if (state == State.CLOSED) {
+				record(true);
+				if (calls >= settings.minimumCalls()
+						&& failures * 100 >= settings.failureRateThreshold() * calls) {
+					transition(State.OPEN);
+				}
+			}
+			return state == State.OPEN;
+		}
+	}
+
+	/**
+	 * How long a rejected call should wait before it is tried again.
+	 */
+	public synchronized Duration retryAfter() {
+		return state == State.OPEN
+				? Duration.ofNanos(Math.max(0, openUntilNanos - nanoClock.getAsLong()))
+				: HALF_OPEN_RETRY_AFTER;
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		for (final State gaugeState : State.values()) {
+			Gauge.builder("dispatch.stock.circuit.state", this, breaker -> breaker.state() == gaugeState ? 1 : 0)
+					.description("State of the stock service circuit breaker")
+					.tag("state", gaugeState.name().toLowerCase(Locale.ROOT))
+					.register(registry);
+		}
+	}
+
+	private void record(final boolean failed) {
+		if (calls == window.length) {
+			if (window[windowIndex]) {
+				failures--;
+			}
+		} else {
+			calls++;
+		}
+		window[windowIndex] = failed;
+		if (failed) {
+			failures++;
+		}
+		windowIndex = (windowIndex + 1) % window.length;
+	}
+
+	private void transition(final State newState) {
+		if (newState == State.OPEN) {
+			openUntilNanos = nanoClock.getAsLong() + settings.openDuration().toNanos();
+		}
+		if (newState != State.HALF_OPEN) {
+			calls = 0;
+			failures = 0;
+			windowIndex = 0;
+		}
+		log.warn("Stock service circuit {} -> {}", state, newState);
+		state = newState;
+		listeners.forEach(listener -> listener.onStateChange(newState));
+	}
+
+}
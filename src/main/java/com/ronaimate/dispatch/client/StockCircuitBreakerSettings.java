@@ -0,0 +1,21 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of the circuit breaker in front of the stock service.
+ *
+ * @param enabled when false every call goes to the stock service
+ * @param slidingWindowSize number of most recent calls the failure rate is computed over
+ * @param minimumCalls calls needed in the window before the circuit can open
+ * @param failureRateThreshold percentage of failed calls in the window that opens the circuit
+ * @param openDuration how long the circuit stays open before a single trial call is let through
+ */
+public record StockCircuitBreakerSettings(boolean enabled, int slidingWindowSize, int minimumCalls,
+		int failureRateThreshold, Duration openDuration) {
+
+	public static StockCircuitBreakerSettings disabled() {
+		return new StockCircuitBreakerSettings(false, 1, 1, 100, Duration.ZERO);
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.ronaimate.dispatch.client;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.ronaimate.exception.RetryableException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Limits concurrent stock service calls to a limit that adapts to the observed latency, additive increase and
+ * multiplicative decrease (AIMD). A call that fails or takes longer than
+ * {@link StockLimiterSettings#latencyThreshold()} shrinks the limit by 10%; a call that succeeds in time while at
+ * least half of the limit is in use grows it by {@code 1 / limit}, about one per round of calls. Callers over the
+ * limit wait for a permit, so a slowing stock service holds back new calls instead of receiving more of them.
+ *
+ * <p>The limit and the calls in flight are exposed as the gauges {@code dispatch.stock.concurrency.limit} and
+ * {@code dispatch.stock.concurrency.in.flight}.
+ */
+public class StockConcurrencyLimiter implements MeterBinder {
+
+	static final double BACKOFF_RATIO = 0.9;
+
+	private final StockLimiterSettings settings;
+
+	private final long latencyThresholdNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition permitReleased = lock.newCondition();
+
+	private double limit;
+
+	private int inFlight;
+
+	public StockConcurrencyLimiter(final StockLimiterSettings settings) {
+		this.settings = settings;
+		this.latencyThresholdNanos = settings.latencyThreshold().toNanos();
+		this.limit = settings.initialLimit();
+	}
+
+	/**
+	 * Waits until a call is within the limit and counts it as in flight.
+	 *
+	 * @throws RetryableException if the caller is interrupted while waiting
+	 */
+	public void acquire() {
+		if (!settings.enabled()) {
+			return;
+		}
+		lock.lock();
+		try {
+			while (inFlight >= (int) limit) {
+				permitReleased.await();
+			}
+			inFlight++;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RetryableException("Interrupted while waiting for a stock service call permit");
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Releases the permit of a completed call and adapts the limit to its outcome.
+	 */
+	public void release(final long latencyNanos, final boolean failed) {
+		if (!settings.enabled()) {
+			return;
+		}
+		lock.lock();
+		try {
+			if (failed || latencyNanos > latencyThresholdNanos) {
+				limit = Math.max(settings.minLimit(), limit * BACKOFF_RATIO);
+			} else if (inFlight * 2 >= limit) {
+				limit = Math.min(settings.maxLimit(), limit + 1 / limit);
+			}
+			inFlight--;
+			permitReleased.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int limit() {
+		lock.lock();
+		try {
+			return (int) limit;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int inFlight() {
+		lock.lock();
+		try {
+			return inFlight;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		Gauge.builder("dispatch.stock.concurrency.limit", this, StockConcurrencyLimiter::limit)
+				.description("Concurrent stock service calls currently allowed")
+				.register(registry);
+		Gauge.builder("dispatch.stock.concurrency.in.flight", this, StockConcurrencyLimiter::inFlight)
+				.description("Stock service calls in flight")
+				.register(registry);
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of the adaptive concurrency limit of stock service calls.
+ *
+ * @param enabled when false calls are not limited
+ * @param initialLimit concurrent calls allowed at startup
+ * @param minLimit lower bound of the limit
+ * @param maxLimit upper bound of the limit
+ * @param latencyThreshold calls slower than this shrink the limit like failed calls
+ */
+public record StockLimiterSettings(boolean enabled, int initialLimit, int minLimit, int maxLimit,
+		Duration latencyThreshold) {
+
+	public static StockLimiterSettings disabled() {
+		return new StockLimiterSettings(false, 1, 1, 1, Duration.ZERO);
+	}
+
+}
@@ -0,0 +1,193 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.ronaimate.exception.RetryableException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects single-item availability lookups of concurrent callers into bulk lookups. A window is flushed when it
+ * holds {@code maxItems} distinct items or {@code maxWait} after its first lookup, whichever comes first. Lookups of
+ * the same item within a window share one result, so the number of bulk calls follows the number of distinct items
+ * per window rather than the number of callers.
+ *
+ * <p>The scheduler thread only hands due windows over; their bulk lookups run on up to {@code maxConcurrentRequests}
+ * flush threads, so a slow bulk request does not hold back the windows after it. Windows beyond that wait in line for
+ * a flush thread.
+ *
+ * <p>Closing the batcher fails the lookups of the open window and of the windows still waiting for a flush thread with
+ * a {@link RetryableException}, as it does every lookup submitted afterwards.
+ */
+@Slf4j
+public class StockLookupBatcher implements AutoCloseable {
+
+	private final int maxItems;
+
+	private final Duration maxWait;
+
+	private final Function<Set<String>, Map<String, String>> bulkLookup;
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "stock-lookup-batcher");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final ExecutorService flushExecutor;
+
+	private Map<String, CompletableFuture<String>> window = new LinkedHashMap<>();
+
+	private boolean closed;
+
+	public StockLookupBatcher(final int maxItems, final Duration maxWait, final int maxConcurrentRequests,
+			final Function<Set<String>, Map<String, String>> bulkLookup) {
+		this.maxItems = maxItems;
+		this.maxWait = maxWait;
+		this.bulkLookup = bulkLookup;
+		final AtomicInteger flushThreads = new AtomicInteger();
+		final ThreadPoolExecutor flushPool = new ThreadPoolExecutor(maxConcurrentRequests, maxConcurrentRequests,
+				1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+					final Thread thread = new Thread(runnable,
+							"stock-lookup-flush-" + flushThreads.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				});
+		flushPool.allowCoreThreadTimeOut(true);
+		this.flushExecutor = flushPool;
+	}
+
+	/**
+	 * Looks up the availability of an item as part of the current window, blocking until its bulk lookup completed.
+	 */
+	public String lookup(final String item) {
+		try {
+			return submit(item).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+
+	public CompletableFuture<String> submit(final String item) {
+		final CompletableFuture<String> result;
+		final Map<String, CompletableFuture<String>> full;
+		synchronized (this) {
+			if (closed) {
+				return CompletableFuture.failedFuture(closedException());
+			}
+			final boolean firstInWindow = window.isEmpty();
+			result = window.computeIfAbsent(item, key -> new CompletableFuture<>());
+			if (window.size() >= maxItems) {
+				full = window;
+				window = new LinkedHashMap<>();
+			} else {
+				full = null;
+				if (firstInWindow) {
+					final Map<String, CompletableFuture<String>> scheduled = window;
+					executor.schedule(() -> flushIfCurrent(scheduled), maxWait.toNanos(), TimeUnit.NANOSECONDS);
+				}
+			}
+		}
+		if (full != null) {
+			handOver(full);
+		}
+		return result;
+	}
+
+	@Override
+	public void close() {
+		final Map<String, CompletableFuture<String>> open;
+		synchronized (this) {
+			closed = true;
+			open = window;
+			window = new LinkedHashMap<>();
+		}
+		executor.shutdownNow();
+		fail(open);
+		// bulk lookups in progress are interrupted and complete their lookups themselves
+		for (final Runnable queued : flushExecutor.shutdownNow()) {
+			if (queued instanceof Flush flush) {
+				fail(flush.lookups);
+			}
+		}
+	}
+
+	private void flushIfCurrent(final Map<String, CompletableFuture<String>> scheduled) {
+		synchronized (this) {
+			if (window != scheduled) {
+				// already flushed because it filled up
+				return;
+			}
+			window = new LinkedHashMap<>();
+		}
+		handOver(scheduled);
+	}
+
+	private void handOver(final Map<String, CompletableFuture<String>> lookups) {
+		try {
+			flushExecutor.execute(new Flush(lookups));
+		} catch (RejectedExecutionException e) {
+			// closed in the meantime
+			fail(lookups);
+		}
+	}
+
+	private void fail(final Map<String, CompletableFuture<String>> lookups) {
+		final RetryableException closedException = closedException();
+		lookups.values().forEach(result -> result.completeExceptionally(closedException));
+	}
+
+	private static RetryableException closedException() {
+		return new RetryableException("Stock lookup batcher closed");
+	}
+
+	private void flush(final Map<String, CompletableFuture<String>> lookups) {
+		log.debug("Bulk stock lookup of {} items", lookups.size());
+		try {
+			final Map<String, String> availability = bulkLookup.apply(lookups.keySet());
+			lookups.forEach((item, result) -> {
+				final String available = availability.get(item);
+				if (available != null) {
+					result.complete(available);
+				} else {
+					result.completeExceptionally(new IllegalStateException("No availability returned for " + item));
+				}
+			});
+		} catch (RuntimeException e) {
+			lookups.values().forEach(result -> result.completeExceptionally(e));
+		}
+	}
+
+	private final class Flush implements Runnable {
+
+		private final Map<String, CompletableFuture<String>> lookups;
+
+		private Flush(final Map<String, CompletableFuture<String>> lookups) {
+			this.lookups = lookups;
+		}
+
+		@Override
+		public void run() {
+			flush(lookups);
+		}
+
+	}
+
+}
@@ -1,6 +1,20 @@
 package com.ronaimate.dispatch.client;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -8,29 +22,177 @@ import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.ronaimate.exception.RetryableException;
+import com.ronaimate.exception.StockServiceUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Blocking client of the stock service. Items in the {@link StockAvailabilitySnapshot} are answered from it without
+ * a request. Every request passes the {@link StockCircuitBreaker} and the {@link StockConcurrencyLimiter}: while the
+ * circuit is open requests fail fast with a {@link StockServiceUnavailableException}, which is also thrown for the
+ * failure that opens the circuit. The optional {@link StockAvailabilityCache} is registered with the meter
+ * registry through this client.
+ */
 @Slf4j
 @Component
-public class StockServiceClient {
+public class StockServiceClient implements DisposableBean, MeterBinder {
+
+	private static final ParameterizedTypeReference<Map<String, String>> AVAILABILITY_BY_ITEM =
+			new ParameterizedTypeReference<>() {
+			};
 
 	private final RestTemplate restTemplate;
 
 	@Value("${dispatch.stockServiceEndpoint}")
 	private final String stockServiceEndpoint;
 
+	private final StockBulkSettings bulkSettings;
+
+	private final StockLookupBatcher batcher;
+
+	private final StockAvailabilityCache cache;
+
+	private final StockCircuitBreaker circuitBreaker;
+
+	private final StockConcurrencyLimiter concurrencyLimiter;
+
+	private final StockAvailabilitySnapshot snapshot;
+
+	public StockServiceClient(RestTemplate restTemplate, String stockServiceEndpoint,
+			StockCacheSettings cacheSettings, StockBulkSettings bulkSettings) {
+		this(restTemplate, stockServiceEndpoint, cacheSettings, bulkSettings,
+				new StockCircuitBreaker(StockCircuitBreakerSettings.disabled()),
+				new StockConcurrencyLimiter(StockLimiterSettings.disabled()), StockAvailabilitySnapshot.disabled());
+	}
+
+	@Autowired
 	public StockServiceClient(RestTemplate restTemplate,
-			@Value("${dispatch.stockServiceEndpoint}") String stockServiceEndpoint) {
+			@Value("${dispatch.stockServiceEndpoint}") String stockServiceEndpoint,
+			StockCacheSettings cacheSettings,
+			StockBulkSettings bulkSettings,
+			StockCircuitBreaker circuitBreaker,
+			StockConcurrencyLimiter concurrencyLimiter,
+			StockAvailabilitySnapshot snapshot) {
 		this.restTemplate = restTemplate;
 		this.stockServiceEndpoint = stockServiceEndpoint;
+		this.bulkSettings = bulkSettings;
+		this.circuitBreaker = circuitBreaker;
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.snapshot = snapshot;
+		this.batcher = bulkSettings.batching()
+				? new StockLookupBatcher(bulkSettings.maxItems(), bulkSettings.maxWait(),
+						bulkSettings.maxConcurrentRequests(), this::fetchAvailability)
+				: null;
+		this.cache = cacheSettings.enabled()
+				? new StockAvailabilityCache(cacheSettings, this::lookup, this::fetchAvailability)
+				: null;
 	}
 
 	public String checkAvailability(final String item) {
+		final String snapshotAvailability = snapshot.get(item);
+		if (snapshotAvailability != null) {
+			return snapshotAvailability;
+		}
+		return cache != null ? cache.get(item) : lookup(item);
+	}
+
+	/**
+	 * Looks up the availability of several items with a single bulk request. Items the stock service does not know
+	 * are missing from the result.
+	 */
+	public Map<String, String> checkAvailability(final Collection<String> items) {
+		final Map<String, String> availability = new HashMap<>();
+		final Set<String> unknownItems = new LinkedHashSet<>();
+		for (final String item : items) {
+			final String snapshotAvailability = snapshot.get(item);
+			if (snapshotAvailability != null) {
+				availability.put(item, snapshotAvailability);
+			} else {
+				unknownItems.add(item);
+			}
+		}
+		if (!unknownItems.isEmpty()) {
+			availability.putAll(cache != null ? cache.getAll(unknownItems) : fetchAvailability(unknownItems));
+		}
+		return availability;
+	}
+
+	/**
+	 * Hit, miss, load and eviction counters of the availability cache, empty when the cache is disabled.
+	 */
+	public Optional<CacheStats> cacheStats() {
+		return Optional.ofNullable(cache).map(StockAvailabilityCache::stats);
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		if (cache != null) {
+			cache.bindTo(registry);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (batcher != null) {
+			batcher.close();
+		}
+	}
+
+	private String lookup(final String item) {
+		return batcher != null ? batcher.lookup(item) : fetchAvailability(item);
+	}
+
+	private String fetchAvailability(final String item) {
+		return call(() -> restTemplate.getForEntity(stockServiceEndpoint + "?item=" + item, String.class));
+	}
+
+	private Map<String, String> fetchAvailability(final Set<String> items) {
+		return call(() -> switch (bulkSettings.requestShape()) {
+			case QUERY -> restTemplate.exchange(bulkSettings.endpoint() + "?" + items.stream()
+					.map(item -> "item=" + item)
+					.collect(Collectors.joining("&")), HttpMethod.GET, null, AVAILABILITY_BY_ITEM);
+			case POST -> restTemplate.exchange(bulkSettings.endpoint(), HttpMethod.POST, new HttpEntity<>(items),
+					AVAILABILITY_BY_ITEM);
+		});
+	}
+
+	private <T> T call(final Supplier<ResponseEntity<T>> request) {
+		circuitBreaker.acquirePermission();
+		try {
+			concurrencyLimiter.acquire();
+		} catch (RuntimeException e) {
+			// the call is not made, a half open circuit must not wait for its outcome
+			circuitBreaker.releasePermission();
+			throw e;
+		}
+		final long startNanos = System.nanoTime();
+		try {
+			final T result = send(request);
+			concurrencyLimiter.release(System.nanoTime() - startNanos, false);
+			circuitBreaker.onSuccess();
+			return result;
+		} catch (RetryableException e) {
+			concurrencyLimiter.release(System.nanoTime() - startNanos, true);
+			if (circuitBreaker.onFailure()) {
+				throw new StockServiceUnavailableException(circuitBreaker.retryAfter(), e);
+			}
+			throw e;
+		} catch (RuntimeException e) {
+			// the stock service answered, the request itself was rejected
+			concurrencyLimiter.release(System.nanoTime() - startNanos, false);
+			circuitBreaker.onSuccess();
+			throw e;
+		}
+	}
+
+	private <T> T send(final Supplier<ResponseEntity<T>> request) {
 		try {
-			ResponseEntity<String> response =
-					restTemplate.getForEntity(stockServiceEndpoint + "?item=" + item, String.class);
+			ResponseEntity<T> response = request.get();
 			if (response.getStatusCode() != HttpStatusCode.valueOf(200)) {
 				throw new RuntimeException("error " + response.getStatusCode());
 			}
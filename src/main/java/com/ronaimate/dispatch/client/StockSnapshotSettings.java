@@ -0,0 +1,18 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+
+/**
+ * Settings of the local stock availability snapshot.
+ *
+ * @param enabled when false every lookup goes to the stock service
+ * @param topic compacted topic of availability per item, keyed by item
+ * @param restoreTimeout how long startup waits for the snapshot to catch up before it fails
+ */
+public record StockSnapshotSettings(boolean enabled, String topic, Duration restoreTimeout) {
+
+	public static StockSnapshotSettings disabled() {
+		return new StockSnapshotSettings(false, null, Duration.ZERO);
+	}
+
+}
@@ -1,88 +1,629 @@
 package com.ronaimate.dispatch.config;
 
+import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Properties;
+import java.util.regex.Pattern;
 
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
+import org.apache.kafka.clients.consumer.RoundRobinAssignor;
+import org.apache.kafka.clients.consumer.StickyAssignor;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
 import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.StringUtils;
 import org.springframework.util.backoff.FixedBackOff;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
 
+import com.ronaimate.dispatch.client.StockAvailabilitySnapshot;
+import com.ronaimate.dispatch.client.StockBulkSettings;
+import com.ronaimate.dispatch.client.StockCacheSettings;
+import com.ronaimate.dispatch.client.StockCircuitBackOff;
+import com.ronaimate.dispatch.client.StockCircuitBreaker;
+import com.ronaimate.dispatch.client.StockCircuitBreakerSettings;
+import com.ronaimate.dispatch.client.StockConcurrencyLimiter;
+import com.ronaimate.dispatch.client.StockLimiterSettings;
+import com.ronaimate.dispatch.client.StockSnapshotSettings;
+import com.ronaimate.dispatch.dedup.ProcessedOrderLog;
+import com.ronaimate.dispatch.dedup.ProcessedOrderSettings;
+import com.ronaimate.dispatch.dedup.ProcessedOrders;
+import com.ronaimate.dispatch.handler.CatchUpSwitcher;
+import com.ronaimate.dispatch.handler.InFlightDrainer;
+import com.ronaimate.dispatch.handler.InFlightRecords;
+import com.ronaimate.dispatch.metrics.ConsumerGroupLag;
+import com.ronaimate.dispatch.metrics.ConsumerLagMetricsReporter;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.metrics.RetryCountingBackOff;
+import com.ronaimate.dispatch.repartition.OrderKeyHeader;
+import com.ronaimate.dispatch.serialization.DispatchBinarySerializer;
+import com.ronaimate.dispatch.serialization.DispatchJsonSerializer;
+import com.ronaimate.dispatch.serialization.DispatchMessageDeserializer;
+import com.ronaimate.dispatch.service.DispatchService;
 import com.ronaimate.exception.NotRetryableException;
 import com.ronaimate.exception.RetryableException;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
 
 @ComponentScan(basePackages = { "com.ronaimate" })
 @Configuration
+@EnableConfigurationProperties(DispatchKafkaProperties.class)
 public class DispatchConfiguration {
 
 	private static String TRUSTED_PACKAGES = "com.ronaimate.dispatch.messages";
 
 	@Bean
 	public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory(
-			final ConsumerFactory<String, Object> consumerFactory, final KafkaTemplate<String, Object> kafkaTemplate) {
+			final ConsumerFactory<String, Object> consumerFactory, final KafkaTemplate<String, Object> kafkaTemplate,
+			final DeadLetterPublishingRecoverer recoverer, final BackOff retryBackOff,
+			final DispatchKafkaProperties properties, final InFlightRecords inFlightRecords,
+			final InFlightDrainer inFlightDrainer,
+			final ObjectProvider<KafkaTransactionManager<String, Object>> transactionManager) {
+		return listenerContainerFactory(consumerFactory, kafkaTemplate, recoverer, retryBackOff, properties,
+				inFlightRecords, inFlightDrainer, transactionManager,
+				"batch".equals(properties.getListener().getMode()));
+	}
+
+	/**
+	 * Container factory of {@link com.ronaimate.dispatch.handler.OrderCreatedCatchUpHandler}: a batch listener whose
+	 * consumers use the {@code kafka.catch-up.consumer} settings, with the same error handling as the other listeners.
+	 * Its transactions and dead letters go through the catch-up producer, which its listener sends with.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "kafka.catch-up.enabled", havingValue = "true")
+	public ConcurrentKafkaListenerContainerFactory<String, Object> catchUpKafkaListenerContainerFactory(
+			final ConsumerFactory<String, Object> consumerFactory,
+			@Qualifier("catchUpKafkaTemplate") final KafkaTemplate<String, Object> catchUpKafkaTemplate,
+			final DispatchMetrics metrics, final BackOff retryBackOff, final DispatchKafkaProperties properties,
+			final InFlightRecords inFlightRecords, final InFlightDrainer inFlightDrainer,
+			@Qualifier("catchUpKafkaTransactionManager")
+			final ObjectProvider<KafkaTransactionManager<String, Object>> catchUpTransactionManager) {
+		if (!"record".equals(properties.getListener().getMode())) {
+			throw new IllegalStateException("kafka.catch-up requires kafka.listener.mode=record");
+		}
+		final ConcurrentKafkaListenerContainerFactory<String, Object> factory = listenerContainerFactory(
+				consumerFactory, catchUpKafkaTemplate, deadLetterRecoverer(catchUpKafkaTemplate, metrics, properties),
+				retryBackOff, properties, inFlightRecords, inFlightDrainer, catchUpTransactionManager, true);
+		final Map<String, Object> consumerConfigs = new HashMap<>();
+		putConsumerSettings(consumerConfigs, properties.getCatchUp().getConsumer());
+		final Properties consumerProperties = new Properties();
+		// the container only takes over overrides given as strings
+		consumerConfigs.forEach((name, value) -> consumerProperties.setProperty(name, String.valueOf(value)));
+		factory.setContainerCustomizer(container -> container.getContainerProperties()
+				.setKafkaConsumerProperties(consumerProperties));
+		return factory;
+	}
+
+	private static ConcurrentKafkaListenerContainerFactory<String, Object> listenerContainerFactory(
+			final ConsumerFactory<String, Object> consumerFactory, final KafkaTemplate<String, Object> kafkaTemplate,
+			final DeadLetterPublishingRecoverer recoverer, final BackOff retryBackOff,
+			final DispatchKafkaProperties properties, final InFlightRecords inFlightRecords,
+			final InFlightDrainer inFlightDrainer,
+			final ObjectProvider<KafkaTransactionManager<String, Object>> transactionManager, final boolean batch) {
 
 		final ConcurrentKafkaListenerContainerFactory<String, Object> factory =
 				new ConcurrentKafkaListenerContainerFactory<>();
 		factory.setConsumerFactory(consumerFactory);
+		factory.setBatchListener(batch);
+		factory.setConcurrency(properties.getListener().getConcurrency());
+		factory.getContainerProperties().setAckMode(properties.getListener().getAckMode());
+		setShutdown(factory, properties.getMembership(), inFlightDrainer);
+		factory.setRecordInterceptor(inFlightRecords);
+		factory.setBatchInterceptor(inFlightRecords);
 
-		final DefaultErrorHandler
-				errorHandler =
-				new DefaultErrorHandler(new DeadLetterPublishingRecoverer(kafkaTemplate), new FixedBackOff(100L, 3L));
+		final DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, retryBackOff);
 		errorHandler.addRetryableExceptions(RetryableException.class);
 		errorHandler.addNotRetryableExceptions(NotRetryableException.class);
 
 		factory.setCommonErrorHandler(errorHandler);
+
+		transactionManager.ifAvailable(kafkaTransactionManager -> {
+			// The outbound events and the consumed offsets are committed in one transaction per listener call: one
+			// per record in record mode, one per poll in batch mode. Failed records are retried and dead-lettered
+			// after the rollback, and the DLT publication commits the offset of the failed record with it.
+			factory.getContainerProperties().setTransactionManager(kafkaTransactionManager);
+			final DefaultAfterRollbackProcessor<String, Object> afterRollbackProcessor =
+					new DefaultAfterRollbackProcessor<>(recoverer, retryBackOff, kafkaTemplate, true);
+			afterRollbackProcessor.addRetryableExceptions(RetryableException.class);
+			afterRollbackProcessor.addNotRetryableExceptions(NotRetryableException.class);
+			factory.setAfterRollbackProcessor(afterRollbackProcessor);
+		});
+		return factory;
+	}
+
+	/**
+	 * Container factory of {@link com.ronaimate.dispatch.handler.OrderCreatedParallelHandler}. The handler
+	 * acknowledges records in offset order once they have been dispatched, and the container commits the acknowledged
+	 * offsets while it keeps polling.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "kafka.listener.mode", havingValue = "parallel")
+	public ConcurrentKafkaListenerContainerFactory<String, Object> parallelKafkaListenerContainerFactory(
+			final ConsumerFactory<String, Object> consumerFactory, final DispatchKafkaProperties properties,
+			final InFlightDrainer inFlightDrainer,
+			final ObjectProvider<KafkaTransactionManager<String, Object>> transactionManager) {
+		if (transactionManager.getIfAvailable() != null) {
+			throw new IllegalStateException("kafka.listener.mode=parallel does not support kafka.transactions");
+		}
+		final ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+				new ConcurrentKafkaListenerContainerFactory<>();
+		factory.setConsumerFactory(consumerFactory);
+		factory.setConcurrency(properties.getListener().getConcurrency());
+		factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+		setShutdown(factory, properties.getMembership(), inFlightDrainer);
 		return factory;
 	}
 
+	/**
+	 * A stopping container's consumers finish the record in hand rather than the rest of their poll, which the next
+	 * owner of the partitions redelivers, and drain the records in flight before committing.
+	 */
+	private static void setShutdown(final ConcurrentKafkaListenerContainerFactory<String, Object> factory,
+			final DispatchKafkaProperties.Membership membership, final InFlightDrainer inFlightDrainer) {
+		factory.getContainerProperties().setConsumerRebalanceListener(inFlightDrainer);
+		factory.getContainerProperties().setStopImmediate(true);
+		factory.getContainerProperties().setShutdownTimeout(membership.getShutdownTimeout().toMillis());
+	}
+
+	@Bean
+	public InFlightDrainer inFlightDrainer(final InFlightRecords inFlightRecords,
+			final DispatchKafkaProperties properties) {
+		return new InFlightDrainer(inFlightRecords, properties.getMembership().getDrainTimeout());
+	}
+
+	/**
+	 * Dead letters of the repartitioned topic go to {@code order.created.DLT} under their order key, as if they had
+	 * failed on {@code order.created}.
+	 */
+	@Bean
+	public DeadLetterPublishingRecoverer recoverer(final KafkaTemplate<String, Object> kafkaTemplate,
+			final DispatchMetrics metrics, final DispatchKafkaProperties properties) {
+		return deadLetterRecoverer(kafkaTemplate, metrics, properties);
+	}
+
+	private static DeadLetterPublishingRecoverer deadLetterRecoverer(final KafkaTemplate<String, Object> kafkaTemplate,
+			final DispatchMetrics metrics, final DispatchKafkaProperties properties) {
+		final DispatchKafkaProperties.Repartition repartition = properties.getRepartition();
+		return new DeadLetterPublishingRecoverer(kafkaTemplate,
+				(record, exception) -> deadLetterDestination(record, repartition)) {
+
+			@Override
+			public void accept(final ConsumerRecord<?, ?> record, final Consumer<?, ?> consumer,
+					final Exception exception) {
+				super.accept(record, consumer, exception);
+				metrics.deadLetter();
+			}
+
+			@Override
+			protected ProducerRecord<Object, Object> createProducerRecord(final ConsumerRecord<?, ?> record,
+					final TopicPartition topicPartition, final Headers headers, final byte[] key, final byte[] value) {
+				final ProducerRecord<Object, Object> deadLetter =
+						super.createProducerRecord(record, topicPartition, headers, key, value);
+				final Header orderKey = record.headers().lastHeader(OrderKeyHeader.NAME);
+				if (orderKey == null) {
+					return deadLetter;
+				}
+				return new ProducerRecord<>(deadLetter.topic(), deadLetter.partition(), deadLetter.timestamp(),
+						OrderKeyHeader.orderKey(null, orderKey.value()), deadLetter.value(), deadLetter.headers());
+			}
+
+		};
+	}
+
+	private static TopicPartition deadLetterDestination(final ConsumerRecord<?, ?> record,
+			final DispatchKafkaProperties.Repartition repartition) {
+		if (repartition.isEnabled() && record.topic().equals(repartition.getTopic())) {
+			// any partition, as order.created.DLT need not have as many partitions as the repartitioned topic
+			return new TopicPartition("order.created.DLT", -1);
+		}
+		return new TopicPartition(record.topic() + ".DLT", record.partition());
+	}
+
+	/**
+	 * Without {@code kafka.repartition.partitions} the repartitioned topic gets as many partitions as
+	 * {@code order.created}, looked up at startup; startup fails if that lookup does.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "kafka.repartition.enabled", havingValue = "true")
+	public NewTopic orderCreatedByItemTopic(final DispatchKafkaProperties properties, final KafkaAdmin kafkaAdmin) {
+		final DispatchKafkaProperties.Repartition repartition = properties.getRepartition();
+		final int partitions = repartition.getPartitions() > 0
+				? repartition.getPartitions()
+				: partitionCount(kafkaAdmin, "order.created");
+		return TopicBuilder.name(repartition.getTopic())
+				.partitions(partitions)
+				.replicas(repartition.getReplicationFactor())
+				.build();
+	}
+
+	private static int partitionCount(final KafkaAdmin kafkaAdmin, final String topic) {
+		try {
+			return kafkaAdmin.describeTopics(topic).get(topic).partitions().size();
+		} catch (KafkaException e) {
+			throw new IllegalStateException("Cannot look up the partitions of " + topic
+					+ " for the repartitioned topic, set kafka.repartition.partitions", e);
+		}
+	}
+
+	/**
+	 * Three retries 100ms apart. While the stock service circuit is open, records wait for it instead and keep their
+	 * attempts, for up to {@code dispatch.stockCircuitBreaker.maxRetryElapsed} after their first failure.
+	 */
 	@Bean
-	public ConsumerFactory<String, Object> consumerFactory(
-			@Value("${kafka.bootstrap-servers}") final String bootstrapServers) {
+	public BackOff retryBackOff(final DispatchMetrics metrics, final StockCircuitBreaker stockCircuitBreaker,
+			@Value("${dispatch.stockCircuitBreaker.maxRetryElapsed:5m}") final Duration maxRetryElapsed) {
+		return new StockCircuitBackOff(new RetryCountingBackOff(new FixedBackOff(100L, 3L), metrics),
+				stockCircuitBreaker, maxRetryElapsed);
+	}
+
+	/**
+	 * The consumer client metrics are registered with the {@link MeterRegistry}, and the records lag of every
+	 * assigned partition is reported as {@code dispatch.consumer.lag} by the {@link ConsumerLagMetricsReporter}.
+	 */
+	@Bean
+	public ConsumerFactory<String, Object> consumerFactory(final DispatchKafkaProperties properties,
+			final MeterRegistry meterRegistry) {
 		final Map<String, Object> config = new HashMap<>();
-		config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+		config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getBootstrapServers());
 		config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-		config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+		config.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, DispatchMessageDeserializer.class);
 		config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
 		config.put(JsonDeserializer.TRUSTED_PACKAGES, TRUSTED_PACKAGES);
-		return new DefaultKafkaConsumerFactory<>(config);
+		putConsumerSettings(config, properties.getConsumer());
+		putMembershipSettings(config, properties.getMembership());
+		config.put(ConsumerConfig.METRIC_REPORTER_CLASSES_CONFIG, ConsumerLagMetricsReporter.class.getName());
+		config.put(ConsumerLagMetricsReporter.METER_REGISTRY_CONFIG, meterRegistry);
+		if (properties.getTransactions().isEnabled()) {
+			config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+		}
+		final DefaultKafkaConsumerFactory<String, Object> consumerFactory = new DefaultKafkaConsumerFactory<>(config);
+		consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+		return consumerFactory;
 	}
 
 	@Bean
+	@Primary
 	public KafkaTemplate<String, Object> kafkaTemplate(final ProducerFactory<String, Object> producerFactory) {
 		return new KafkaTemplate<>(producerFactory);
 	}
 
 	@Bean
-	public ProducerFactory<String, Object> producerFactory(
-			@Value("${kafka.bootstrap-servers}") final String bootstrapServers) {
+	@Primary
+	public ProducerFactory<String, Object> producerFactory(final DispatchKafkaProperties properties,
+			final MeterRegistry meterRegistry) {
+		return producerFactory(properties, properties.getProducer(),
+				properties.getTransactions().getTransactionIdPrefix(), meterRegistry);
+	}
+
+	/**
+	 * Producer of the catch-up profile, with the {@code kafka.catch-up.producer} settings. The
+	 * {@link com.ronaimate.dispatch.handler.OrderCreatedCatchUpHandler} sends with it, so the catch-up settings never
+	 * reach the producer of the other listeners and components.
+	 */
+	@Bean
+	@ConditionalOnProperty(name = "kafka.catch-up.enabled", havingValue = "true")
+	public ProducerFactory<String, Object> catchUpProducerFactory(final DispatchKafkaProperties properties,
+			final MeterRegistry meterRegistry) {
+		return producerFactory(properties, properties.getCatchUp().getProducer(),
+				properties.getTransactions().getTransactionIdPrefix() + "catch-up-", meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "kafka.catch-up.enabled", havingValue = "true")
+	public KafkaTemplate<String, Object> catchUpKafkaTemplate(
+			@Qualifier("catchUpProducerFactory") final ProducerFactory<String, Object> catchUpProducerFactory) {
+		return new KafkaTemplate<>(catchUpProducerFactory);
+	}
+
+	private static ProducerFactory<String, Object> producerFactory(final DispatchKafkaProperties properties,
+			final DispatchKafkaProperties.Producer producer, final String transactionIdPrefix,
+			final MeterRegistry meterRegistry) {
 		Map<String, Object> config = new HashMap<>();
-		config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-		config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+		config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getBootstrapServers());
 		config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-		return new DefaultKafkaProducerFactory<>(config);
+		config.putAll(producerSettings(producer));
+		final DefaultKafkaProducerFactory<String, Object> producerFactory =
+				new DefaultKafkaProducerFactory<>(config, null, valueSerializer(properties.getSerialization()));
+		if (properties.getTransactions().isEnabled()) {
+			producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+		}
+		producerFactory.addListener(new MicrometerProducerListener<>(meterRegistry));
+		return producerFactory;
+	}
+
+	private static void putConsumerSettings(final Map<String, Object> config,
+			final DispatchKafkaProperties.Consumer consumer) {
+		config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, consumer.getMaxPollRecords());
+		config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, consumer.getFetchMinBytes());
+		config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, consumer.getFetchMaxWaitMs());
+		config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, consumer.getMaxPartitionFetchBytes());
+	}
+
+	/**
+	 * With a static {@code group.instance.id}, the listener containers append the index of each consumer thread.
+	 */
+	private static void putMembershipSettings(final Map<String, Object> config,
+			final DispatchKafkaProperties.Membership membership) {
+		config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, membership.getAssignors().stream()
+				.map(DispatchConfiguration::assignor)
+				.toList());
+		config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, (int) membership.getSessionTimeout().toMillis());
+		if (StringUtils.hasText(membership.getGroupInstanceId())) {
+			config.put(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, membership.getGroupInstanceId());
+		}
+	}
+
+	private static String assignor(final String name) {
+		return switch (name) {
+			case "cooperative-sticky" -> CooperativeStickyAssignor.class.getName();
+			case "sticky" -> StickyAssignor.class.getName();
+			case "range" -> RangeAssignor.class.getName();
+			case "round-robin" -> RoundRobinAssignor.class.getName();
+			default -> throw new IllegalArgumentException("Unknown kafka.membership.assignors entry: " + name);
+		};
+	}
+
+	private static Map<String, Object> producerSettings(final DispatchKafkaProperties.Producer producer) {
+		return Map.of(ProducerConfig.LINGER_MS_CONFIG, producer.getLingerMs(),
+				ProducerConfig.BATCH_SIZE_CONFIG, producer.getBatchSize(),
+				ProducerConfig.COMPRESSION_TYPE_CONFIG, producer.getCompressionType(),
+				ProducerConfig.ACKS_CONFIG, producer.getAcks(),
+				ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, producer.getMaxInFlight());
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "kafka.catch-up.enabled", havingValue = "true")
+	public CatchUpSwitcher catchUpSwitcher(final DispatchKafkaProperties properties,
+			final ConsumerGroupLag orderCreatedGroupLag, final KafkaListenerEndpointRegistry registry) {
+		return new CatchUpSwitcher(properties.getCatchUp(), orderCreatedGroupLag, registry);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "kafka.catch-up.enabled", havingValue = "true")
+	public ConsumerGroupLag orderCreatedGroupLag(final KafkaAdmin kafkaAdmin,
+			final DispatchKafkaProperties properties) {
+		return new ConsumerGroupLag(AdminClient.create(kafkaAdmin.getConfigurationProperties()),
+				"dispatch.order.created.consumer", properties.getRepartition().sourceTopic(), Duration.ofSeconds(10));
+	}
+
+	/**
+	 * JSON for every topic except those listed in {@code kafka.serialization.binary-topics}. Consumers read both
+	 * formats, so a topic can be switched once its consumers run this version.
+	 */
+	static Serializer<Object> valueSerializer(final DispatchKafkaProperties.Serialization serialization) {
+		final Map<Pattern, Serializer<?>> byTopic = new LinkedHashMap<>();
+		for (final String topic : serialization.getBinaryTopics()) {
+			byTopic.put(Pattern.compile(Pattern.quote(topic)), new DispatchBinarySerializer());
+		}
+		return new DelegatingByTopicSerializer(byTopic, new DispatchJsonSerializer());
+	}
+
+	/**
+	 * Creates the topics the application declares, such as the retry topics, on the configured cluster.
+	 */
+	@Bean
+	public KafkaAdmin kafkaAdmin(final DispatchKafkaProperties properties) {
+		return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getBootstrapServers()));
+	}
+
+	@Bean
+	@Primary
+	@ConditionalOnProperty(name = "kafka.transactions.enabled", havingValue = "true")
+	public KafkaTransactionManager<String, Object> kafkaTransactionManager(
+			final ProducerFactory<String, Object> producerFactory) {
+		return new KafkaTransactionManager<>(producerFactory);
+	}
+
+	@Bean
+	@ConditionalOnExpression("${kafka.transactions.enabled:false} and ${kafka.catch-up.enabled:false}")
+	public KafkaTransactionManager<String, Object> catchUpKafkaTransactionManager(
+			@Qualifier("catchUpProducerFactory") final ProducerFactory<String, Object> catchUpProducerFactory) {
+		return new KafkaTransactionManager<>(catchUpProducerFactory);
+	}
+
+	@Bean
+	public RestTemplate restTemplate(
+			@Value("${dispatch.stockClient.connectTimeout:2s}") final Duration connectTimeout,
+			@Value("${dispatch.stockClient.readTimeout:5s}") final Duration readTimeout) {
+		final SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout((int) connectTimeout.toMillis());
+		requestFactory.setReadTimeout((int) readTimeout.toMillis());
+		return new RestTemplate(requestFactory);
+	}
+
+	@Bean(destroyMethod = "dispose")
+	public ConnectionProvider stockServiceConnectionProvider(
+			@Value("${dispatch.stockClient.maxConnections:50}") final int maxConnections,
+			@Value("${dispatch.stockClient.keepAlive:30s}") final Duration keepAlive) {
+		return ConnectionProvider.builder("stock-service")
+				.maxConnections(maxConnections)
+				.maxIdleTime(keepAlive)
+				.build();
+	}
+
+	@Bean
+	public WebClient stockServiceWebClient(final ConnectionProvider stockServiceConnectionProvider,
+			@Value("${dispatch.stockClient.connectTimeout:2s}") final Duration connectTimeout,
+			@Value("${dispatch.stockClient.readTimeout:5s}") final Duration readTimeout,
+			@Value("${dispatch.stockClient.http2:false}") final boolean http2) {
+		final HttpClient httpClient = HttpClient.create(stockServiceConnectionProvider)
+				.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+				.responseTimeout(readTimeout)
+				.protocol(http2
+						? new HttpProtocol[] { HttpProtocol.H2C, HttpProtocol.HTTP11 }
+						: new HttpProtocol[] { HttpProtocol.HTTP11 });
+		return WebClient.builder()
+				.clientConnector(new ReactorClientHttpConnector(httpClient))
+				.build();
+	}
+
+	@Bean
+	public StockCacheSettings stockCacheSettings(
+			@Value("${dispatch.stockCache.enabled:false}") final boolean enabled,
+			@Value("${dispatch.stockCache.maximumSize:10000}") final long maximumSize,
+			@Value("${dispatch.stockCache.ttl:30s}") final Duration ttl,
+			@Value("${dispatch.stockCache.negativeTtl:5s}") final Duration negativeTtl,
+			@Value("${dispatch.stockCache.refreshAfter:20s}") final Duration refreshAfter) {
+		return new StockCacheSettings(enabled, maximumSize, ttl, negativeTtl, refreshAfter);
+	}
+
+	@Bean
+	public StockBulkSettings stockBulkSettings(
+			@Value("${dispatch.stockBulk.requestShape:QUERY}") final StockBulkSettings.RequestShape requestShape,
+			@Value("${dispatch.stockBulk.endpoint:${dispatch.stockServiceEndpoint}}") final String endpoint,
+			@Value("${dispatch.stockBulk.batching:false}") final boolean batching,
+			@Value("${dispatch.stockBulk.maxItems:50}") final int maxItems,
+			@Value("${dispatch.stockBulk.maxWait:5ms}") final Duration maxWait,
+			@Value("${dispatch.stockBulk.maxConcurrentRequests:4}") final int maxConcurrentRequests) {
+		return new StockBulkSettings(requestShape, endpoint, batching, maxItems, maxWait, maxConcurrentRequests);
+	}
+
+	@Bean
+	public StockCircuitBreaker stockCircuitBreaker(
+			@Value("${dispatch.stockCircuitBreaker.enabled:false}") final boolean enabled,
+			@Value("${dispatch.stockCircuitBreaker.slidingWindowSize:20}") final int slidingWindowSize,
+			@Value("${dispatch.stockCircuitBreaker.minimumCalls:10}") final int minimumCalls,
+			@Value("${dispatch.stockCircuitBreaker.failureRateThreshold:50}") final int failureRateThreshold,
+			@Value("${dispatch.stockCircuitBreaker.openDuration:10s}") final Duration openDuration) {
+		return new StockCircuitBreaker(new StockCircuitBreakerSettings(enabled, slidingWindowSize, minimumCalls,
+				failureRateThreshold, openDuration));
+	}
+
+	@Bean
+	public StockConcurrencyLimiter stockConcurrencyLimiter(
+			@Value("${dispatch.stockLimiter.enabled:false}") final boolean enabled,
+			@Value("${dispatch.stockLimiter.initialLimit:20}") final int initialLimit,
+			@Value("${dispatch.stockLimiter.minLimit:1}") final int minLimit,
+			@Value("${dispatch.stockLimiter.maxLimit:200}") final int maxLimit,
+			@Value("${dispatch.stockLimiter.latencyThreshold:500ms}") final Duration latencyThreshold) {
+		return new StockConcurrencyLimiter(new StockLimiterSettings(enabled, initialLimit, minLimit, maxLimit,
+				latencyThreshold));
+	}
+
+	/**
+	 * Reads the snapshot topic without a consumer group: every instance keeps the whole snapshot.
+	 */
+	@Bean
+	public StockAvailabilitySnapshot stockAvailabilitySnapshot(final DispatchKafkaProperties properties,
+			@Value("${dispatch.stockSnapshot.enabled:false}") final boolean enabled,
+			@Value("${dispatch.stockSnapshot.topic:stock.availability}") final String topic,
+			@Value("${dispatch.stockSnapshot.restoreTimeout:2m}") final Duration restoreTimeout) {
+		return new StockAvailabilitySnapshot(new StockSnapshotSettings(enabled, topic, restoreTimeout),
+				topicFollowerConsumerFactory(properties)::createConsumer);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "dispatch.stockSnapshot.enabled", havingValue = "true")
+	public NewTopic stockAvailabilityTopic(
+			@Value("${dispatch.stockSnapshot.topic:stock.availability}") final String topic) {
+		return TopicBuilder.name(topic).compact().build();
 	}
 
 	@Bean
-	public RestTemplate restTemplate() {
-		return new RestTemplate();
+	public ProcessedOrderSettings processedOrderSettings(
+			@Value("${dispatch.dedup.enabled:false}") final boolean enabled,
+			@Value("${dispatch.dedup.window:1h}") final Duration window,
+			@Value("${dispatch.dedup.maximumSize:1000000}") final int maximumSize,
+			@Value("${dispatch.dedup.topic:}") final String topic,
+			@Value("${dispatch.dedup.restoreTimeout:2m}") final Duration restoreTimeout) {
+		return new ProcessedOrderSettings(enabled, window, maximumSize, topic, restoreTimeout);
+	}
+
+	@Bean
+	public ProcessedOrders processedOrders(final ProcessedOrderSettings processedOrderSettings) {
+		return new ProcessedOrders(processedOrderSettings);
+	}
+
+	/**
+	 * Reads the processed orders topic without a consumer group: every instance remembers the orders of all.
+	 */
+	@Bean
+	@ConditionalOnExpression("${dispatch.dedup.enabled:false} and '${dispatch.dedup.topic:}' != ''")
+	public ProcessedOrderLog processedOrderLog(final ProcessedOrderSettings processedOrderSettings,
+			final ProcessedOrders processedOrders, final KafkaTemplate<String, Object> kafkaTemplate,
+			final DispatchKafkaProperties properties) {
+		return new ProcessedOrderLog(processedOrderSettings, processedOrders, kafkaTemplate,
+				DispatchService.APPLICATION_ID.toString(), topicFollowerConsumerFactory(properties)::createConsumer);
+	}
+
+	/**
+	 * Compacted by order id, and processed orders older than two windows are deleted.
+	 */
+	@Bean
+	@ConditionalOnExpression("${dispatch.dedup.enabled:false} and '${dispatch.dedup.topic:}' != ''")
+	public NewTopic processedOrdersTopic(final ProcessedOrderSettings processedOrderSettings) {
+		return TopicBuilder.name(processedOrderSettings.topic())
+				.config(TopicConfig.CLEANUP_POLICY_CONFIG,
+						TopicConfig.CLEANUP_POLICY_COMPACT + "," + TopicConfig.CLEANUP_POLICY_DELETE)
+				.config(TopicConfig.RETENTION_MS_CONFIG,
+						String.valueOf(2 * processedOrderSettings.window().toMillis()))
+				.build();
+	}
+
+	private static DefaultKafkaConsumerFactory<String, String> topicFollowerConsumerFactory(
+			final DispatchKafkaProperties properties) {
+		final Map<String, Object> config = new HashMap<>();
+		config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getBootstrapServers());
+		config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+		if (properties.getTransactions().isEnabled()) {
+			config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+		}
+		return new DefaultKafkaConsumerFactory<>(config);
 	}
 
 }
@@ -0,0 +1,294 @@
+package com.ronaimate.dispatch.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Kafka client and listener container settings, bound from {@code kafka.*}. The defaults match the Kafka client
+ * defaults except where noted in {@code application.yml}; the {@code low-latency} and {@code high-throughput}
+ * profiles override them as a set.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "kafka")
+public class DispatchKafkaProperties {
+
+	private String bootstrapServers;
+
+	private final Listener listener = new Listener();
+
+	private final Consumer consumer = new Consumer();
+
+	private final Producer producer = new Producer();
+
+	private final Transactions transactions = new Transactions();
+
+	private final Serialization serialization = new Serialization();
+
+	private final RetryTopics retryTopics = new RetryTopics();
+
+	private final CatchUp catchUp = new CatchUp();
+
+	private final Membership membership = new Membership();
+
+	private final Repartition repartition = new Repartition();
+
+	@Getter
+	@Setter
+	public static class Listener {
+
+		/**
+		 * record, batch, parallel or reactive.
+		 */
+		private String mode = "record";
+
+		/**
+		 * Consumer threads of each listener container; more than the partition count leaves threads idle.
+		 */
+		private int concurrency = 1;
+
+		/**
+		 * Commit mode of the record and batch listeners; the parallel listener always acknowledges manually.
+		 */
+		private ContainerProperties.AckMode ackMode = ContainerProperties.AckMode.BATCH;
+
+		private final Parallel parallel = new Parallel();
+
+		private final Reactive reactive = new Reactive();
+
+	}
+
+	@Getter
+	@Setter
+	public static class Parallel {
+
+		private int lanes = 256;
+
+		private boolean virtualThreads = true;
+
+		private int maxInFlight = 1000;
+
+	}
+
+	@Getter
+	@Setter
+	public static class Reactive {
+
+		/**
+		 * Orders of a partition dispatched concurrently; orders of the same key are still dispatched one at a time.
+		 */
+		private int maxConcurrency = 64;
+
+		/**
+		 * How often the offsets of dispatched orders are committed.
+		 */
+		private Duration commitInterval = Duration.ofMillis(100);
+
+		/**
+		 * First delay before the receiver is subscribed again after it failed, doubled up to
+		 * {@link #maxRestartBackoff} while it keeps failing.
+		 */
+		private Duration restartBackoff = Duration.ofSeconds(1);
+
+		private Duration maxRestartBackoff = Duration.ofMinutes(1);
+
+	}
+
+	@Getter
+	@Setter
+	public static class Consumer {
+
+		private int maxPollRecords = 500;
+
+		private int fetchMinBytes = 1;
+
+		private int fetchMaxWaitMs = 500;
+
+		private int maxPartitionFetchBytes = 1048576;
+
+	}
+
+	@Getter
+	@Setter
+	public static class Producer {
+
+		private int lingerMs = 0;
+
+		private int batchSize = 16384;
+
+		private String compressionType = "none";
+
+		private String acks = "all";
+
+		private int maxInFlight = 5;
+
+	}
+
+	@Getter
+	@Setter
+	public static class Transactions {
+
+		private boolean enabled = false;
+
+		private String transactionIdPrefix = "dispatch-tx-";
+
+	}
+
+	@Getter
+	@Setter
+	public static class Serialization {
+
+		/**
+		 * Topics whose values are produced in the binary dispatch format instead of JSON.
+		 */
+		private List<String> binaryTopics = new ArrayList<>();
+
+	}
+
+	@Getter
+	@Setter
+	public static class RetryTopics {
+
+		/**
+		 * Retry failed records from delayed retry topics instead of in-line; record mode without transactions only.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Deliveries of a record including the first one; every retry comes from the next retry topic.
+		 */
+		private int attempts = 4;
+
+		/**
+		 * Delay of the first retry topic, multiplied by {@code multiplier} for each further one up to
+		 * {@code maxDelay}.
+		 */
+		private Duration initialDelay = Duration.ofSeconds(1);
+
+		private double multiplier = 10;
+
+		private Duration maxDelay = Duration.ofMinutes(5);
+
+		/**
+		 * Partitions and replication factor of {@code order.created}, its retry topics and its DLT, which are created
+		 * at startup if missing.
+		 */
+		private int partitions = 1;
+
+		private short replicationFactor = -1;
+
+	}
+
+	@Getter
+	@Setter
+	public static class CatchUp {
+
+		/**
+		 * Switch to the catch-up listener while the consumer group lags behind {@code order.created}; record mode
+		 * only.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Lag of the consumer group, summed over the partitions of {@code order.created}, from which the catch-up
+		 * profile is switched to.
+		 */
+		private long enterLag = 10000;
+
+		/**
+		 * Lag up to which the low-latency profile is switched back to; the gap to {@code enterLag} keeps the profiles
+		 * from flapping.
+		 */
+		private long exitLag = 1000;
+
+		private Duration checkInterval = Duration.ofSeconds(5);
+
+		/**
+		 * Least time spent in a profile before switching again.
+		 */
+		private Duration minDuration = Duration.ofMinutes(1);
+
+		/**
+		 * Consumer settings of the catch-up listener.
+		 */
+		private final Consumer consumer = new Consumer();
+
+		/**
+		 * Producer settings while catching up; the {@code kafka.producer} settings apply again once caught up.
+		 */
+		private final Producer producer = new Producer();
+
+	}
+
+	@Getter
+	@Setter
+	public static class Membership {
+
+		/**
+		 * Partition assignors of the consumers, in order of preference: {@code cooperative-sticky}, {@code sticky},
+		 * {@code range} or {@code round-robin}.
+		 */
+		private List<String> assignors = new ArrayList<>(List.of("cooperative-sticky"));
+
+		/**
+		 * Static {@code group.instance.id} of this instance, to which each consumer thread appends {@code -n}; empty
+		 * for dynamic membership.
+		 */
+		private String groupInstanceId = "";
+
+		/**
+		 * How long the group waits for a static member that has stopped before its partitions are reassigned.
+		 */
+		private Duration sessionTimeout = Duration.ofSeconds(45);
+
+		/**
+		 * How long a consumer waits for the records in flight of its revoked partitions before their offsets are
+		 * committed, on rebalance and on shutdown.
+		 */
+		private Duration drainTimeout = Duration.ofSeconds(10);
+
+		/**
+		 * How long stopping a listener container waits for its consumers to finish the record in hand, drain and
+		 * commit.
+		 */
+		private Duration shutdownTimeout = Duration.ofSeconds(25);
+
+	}
+
+	@Getter
+	@Setter
+	public static class Repartition {
+
+		/**
+		 * Re-key {@code order.created} by item onto {@code topic} and dispatch from there, so each instance looks up
+		 * the stock of a stable subset of items; not with {@code kafka.retry-topics}.
+		 */
+		private boolean enabled = false;
+
+		private String topic = "order.created.by-item";
+
+		/**
+		 * Partitions and replication factor of {@code topic}, which is created at startup if missing. -1 partitions
+		 * takes the partition count of {@code order.created}, -1 replicas the broker's default.
+		 */
+		private int partitions = -1;
+
+		private short replicationFactor = -1;
+
+		/**
+		 * Topic the {@code order.created} listeners dispatch from.
+		 */
+		public String sourceTopic() {
+			return enabled ? topic : "order.created";
+		}
+
+	}
+
+}
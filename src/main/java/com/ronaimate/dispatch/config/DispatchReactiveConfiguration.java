@@ -0,0 +1,59 @@
+package com.ronaimate.dispatch.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.sender.SenderOptions;
+
+/**
+ * Reactive Kafka clients of {@link com.ronaimate.dispatch.handler.OrderCreatedReactiveHandler}, active when
+ * {@code kafka.listener.mode} is {@code reactive}. They take their settings from the consumer and producer factories
+ * of the listener containers and the {@code KafkaTemplate}, so the {@code kafka.consumer.*}, {@code kafka.producer.*}
+ * and {@code kafka.serialization.*} settings apply to them as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "kafka.listener.mode", havingValue = "reactive")
+public class DispatchReactiveConfiguration {
+
+	static final String GROUP_ID = "dispatch.order.created.consumer";
+
+	/**
+	 * Offsets are committed every {@code kafka.listener.reactive.commit-interval}, up to the last acknowledged
+	 * record of each partition.
+	 */
+	@Bean
+	public ReceiverOptions<String, Object> orderCreatedReceiverOptions(
+			final ConsumerFactory<String, Object> consumerFactory, final DispatchKafkaProperties properties,
+			final ObjectProvider<KafkaTransactionManager<String, Object>> transactionManager) {
+		if (transactionManager.getIfAvailable() != null) {
+			throw new IllegalStateException("kafka.listener.mode=reactive does not support kafka.transactions");
+		}
+		final Map<String, Object> config = new HashMap<>(consumerFactory.getConfigurationProperties());
+		config.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
+		config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+		return ReceiverOptions.<String, Object>create(config)
+				.commitInterval(properties.getListener().getReactive().getCommitInterval())
+				.subscription(List.of(properties.getRepartition().sourceTopic()));
+	}
+
+	@Bean
+	public ReactiveKafkaProducerTemplate<String, Object> reactiveKafkaProducer(
+			final ProducerFactory<String, Object> producerFactory, final DispatchKafkaProperties properties) {
+		return new ReactiveKafkaProducerTemplate<>(SenderOptions.<String, Object>create(
+						producerFactory.getConfigurationProperties())
+				.withValueSerializer(DispatchConfiguration.valueSerializer(properties.getSerialization())));
+	}
+
+}
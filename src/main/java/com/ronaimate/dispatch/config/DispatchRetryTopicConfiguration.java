@@ -0,0 +1,157 @@
+package com.ronaimate.dispatch.config;
+
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicComponentFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import org.springframework.kafka.retrytopic.RetryTopicNamesProviderFactory;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.kafka.retrytopic.SuffixingRetryTopicNamesProviderFactory;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.exception.NotRetryableException;
+
+/**
+ * Non-blocking retries of {@code order.created}, active when {@code kafka.retry-topics.enabled} is true. A record
+ * that fails with a retryable exception is published to the next retry topic, {@code order.created-retry-1s},
+ * {@code order.created-retry-10s} and so on, and consumed from there once its delay has passed, so the records
+ * behind it in the partition are not held up. Records whose retries are exhausted, and records failing with a
+ * {@link NotRetryableException}, are published to {@code order.created.DLT}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "kafka.retry-topics.enabled", havingValue = "true")
+public class DispatchRetryTopicConfiguration extends RetryTopicConfigurationSupport {
+
+	static final String DLT_SUFFIX = ".DLT";
+
+	private static final Pattern RETRY_SUFFIX = Pattern.compile("(-retry-)(\\d+)(.*)");
+
+	private final DispatchMetrics metrics;
+
+	public DispatchRetryTopicConfiguration(final DispatchMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Bean
+	public RetryTopicConfiguration orderCreatedRetryTopics(final KafkaTemplate<String, Object> kafkaTemplate,
+			final DispatchKafkaProperties properties,
+			final ObjectProvider<KafkaTransactionManager<String, Object>> transactionManager) {
+		if (!"record".equals(properties.getListener().getMode())) {
+			throw new IllegalStateException("kafka.retry-topics requires kafka.listener.mode=record");
+		}
+		if (transactionManager.getIfAvailable() != null) {
+			throw new IllegalStateException("kafka.retry-topics does not support kafka.transactions");
+		}
+		if (properties.getRepartition().isEnabled()) {
+			throw new IllegalStateException("kafka.retry-topics does not support kafka.repartition");
+		}
+		final DispatchKafkaProperties.RetryTopics retryTopics = properties.getRetryTopics();
+		return RetryTopicConfigurationBuilder.newInstance()
+				.includeTopic("order.created")
+				.listenerFactory("kafkaListenerContainerFactory")
+				.maxAttempts(retryTopics.getAttempts())
+				.exponentialBackoff(retryTopics.getInitialDelay().toMillis(), retryTopics.getMultiplier(),
+						retryTopics.getMaxDelay().toMillis())
+				.notRetryOn(NotRetryableException.class)
+				.traversingCauses()
+				.dltSuffix(DLT_SUFFIX)
+				.autoCreateTopicsWith(retryTopics.getPartitions(), retryTopics.getReplicationFactor())
+				.create(kafkaTemplate);
+	}
+
+	/**
+	 * Resumes the partitions of the retry topics once the delay of their next record has passed.
+	 */
+	@Bean
+	public RetryTopicSchedulerWrapper retryTopicScheduler() {
+		final ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+		scheduler.setThreadNamePrefix("retry-topic-");
+		return new RetryTopicSchedulerWrapper(scheduler);
+	}
+
+	/**
+	 * Every publication to a retry topic is counted as a retry and every publication to the DLT as a dead letter.
+	 */
+	@Override
+	protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+		return factory -> factory.setDeadLetterPublisherCreator((templateResolver, destinationResolver) ->
+				new DeadLetterPublishingRecoverer(templateResolver, counting(destinationResolver)));
+	}
+
+	private BiFunction<ConsumerRecord<?, ?>, Exception, TopicPartition> counting(
+			final BiFunction<ConsumerRecord<?, ?>, Exception, TopicPartition> destinationResolver) {
+		return (record, exception) -> {
+			final TopicPartition destination = destinationResolver.apply(record, exception);
+			if (destination != null) {
+				if (destination.topic().endsWith(DLT_SUFFIX)) {
+					metrics.deadLetter();
+				} else {
+					metrics.retry();
+				}
+			}
+			return destination;
+		};
+	}
+
+	@Override
+	protected RetryTopicComponentFactory createComponentFactory() {
+		return new RetryTopicComponentFactory() {
+
+			@Override
+			public RetryTopicNamesProviderFactory retryTopicNamesProviderFactory() {
+				return properties -> new SuffixingRetryTopicNamesProviderFactory.SuffixingRetryTopicNamesProvider(
+						properties) {
+
+					@Override
+					public String getTopicName(final String topic) {
+						return topic + topicSuffix(properties.suffix());
+					}
+
+				};
+			}
+
+		};
+	}
+
+	/**
+	 * Names a retry topic after its delay in the largest whole unit, {@code -retry-1s} instead of
+	 * {@code -retry-1000}.
+	 */
+	static String topicSuffix(final String suffix) {
+		final Matcher matcher = RETRY_SUFFIX.matcher(suffix);
+		if (!matcher.matches()) {
+			return suffix;
+		}
+		return matcher.group(1) + delay(Long.parseLong(matcher.group(2))) + matcher.group(3);
+	}
+
+	private static String delay(final long delayMs) {
+		if (delayMs > 0 && delayMs % 3_600_000 == 0) {
+			return delayMs / 3_600_000 + "h";
+		}
+		if (delayMs > 0 && delayMs % 60_000 == 0) {
+			return delayMs / 60_000 + "m";
+		}
+		if (delayMs > 0 && delayMs % 1_000 == 0) {
+			return delayMs / 1_000 + "s";
+		}
+		return delayMs + "ms";
+	}
+
+}
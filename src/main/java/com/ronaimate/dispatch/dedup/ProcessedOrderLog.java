@@ -0,0 +1,88 @@
+package com.ronaimate.dispatch.dedup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.ronaimate.dispatch.topic.TopicFollower;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the orders processed by this instance to {@link ProcessedOrderSettings#topic()}, keyed by order id, and
+ * remembers the orders published by every instance. On startup the topic is restored from one window ago, so orders
+ * redelivered after a restart or to another instance after a rebalance are still recognised.
+ *
+ * <p>Processed orders are published with the {@code kafkaTemplate}, so with {@code kafka.transactions} enabled they
+ * are committed in the same transaction as the events of the order.
+ */
+@Slf4j
+public class ProcessedOrderLog extends TopicFollower implements ProcessedOrders.Listener {
+
+	private final ProcessedOrderSettings settings;
+
+	private final ProcessedOrders processedOrders;
+
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+
+	private final String processedById;
+
+	public ProcessedOrderLog(final ProcessedOrderSettings settings, final ProcessedOrders processedOrders,
+			final KafkaTemplate<String, Object> kafkaTemplate, final String processedById,
+			final Supplier<Consumer<String, String>> consumerFactory) {
+		super("Processed orders", settings.persistent(), settings.topic(), settings.restoreTimeout(),
+				consumerFactory);
+		this.settings = settings;
+		this.processedOrders = processedOrders;
+		this.kafkaTemplate = kafkaTemplate;
+		this.processedById = processedById;
+		processedOrders.addListener(this);
+	}
+
+	@Override
+	public void onProcessed(final UUID orderId) {
+		kafkaTemplate.send(settings.topic(), orderId.toString(), processedById)
+				.whenComplete((result, failure) -> {
+					if (failure != null) {
+						log.warn("Publishing processed orderId {} failed: {}", orderId, failure.getMessage());
+					}
+				});
+	}
+
+	@Override
+	protected void apply(final ConsumerRecord<String, String> record) {
+		if (record.key() == null) {
+			return;
+		}
+		try {
+			processedOrders.remember(UUID.fromString(record.key()));
+		} catch (IllegalArgumentException e) {
+			log.warn("Skipping processed order record with key {} at offset {}", record.key(), record.offset());
+		}
+	}
+
+	/**
+	 * Restores from the first record of the last window; partitions without one start at their end.
+	 */
+	@Override
+	protected void seekToStart(final Consumer<String, String> consumer, final List<TopicPartition> partitions) {
+		final long windowStart = System.currentTimeMillis() - settings.window().toMillis();
+		final Map<TopicPartition, Long> timestamps = new HashMap<>();
+		partitions.forEach(partition -> timestamps.put(partition, windowStart));
+		final Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(timestamps);
+		final Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+		for (final TopicPartition partition : partitions) {
+			final OffsetAndTimestamp offset = offsets.get(partition);
+			consumer.seek(partition, offset != null ? offset.offset() : endOffsets.get(partition));
+		}
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.ronaimate.dispatch.dedup;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, time-windowed set of order ids. Ids are kept as pairs of longs in open addressing tables, so an id costs
+ * 16 bytes plus the free slots of the table rather than a {@link UUID} object and a hash map node.
+ *
+ * <p>Ids are added to the current of two generations. A generation is current for {@code window}, after which it
+ * becomes the previous one and the generation before it is dropped, so an id is remembered for at least
+ * {@code window} and at most twice as long. A generation that reaches {@code maximumSize} ids is rotated early,
+ * so the set holds at most twice {@code maximumSize} ids. Both tables are allocated up front at a load factor of 0.7:
+ * about 46 MB for a {@code maximumSize} of one million, where a {@code HashSet<UUID>} of one million ids takes
+ * about 72 MB.
+ */
+public class ProcessedOrderSet {
+
+	private static final double LOAD_FACTOR = 0.7;
+
+	private final long windowNanos;
+
+	private final int maximumSize;
+
+	private final LongSupplier nanoClock;
+
+	private Generation current;
+
+	private Generation previous;
+
+	private long currentSinceNanos;
+
+	public ProcessedOrderSet(final Duration window, final int maximumSize) {
+		this(window, maximumSize, System::nanoTime);
+	}
+
+	ProcessedOrderSet(final Duration window, final int maximumSize, final LongSupplier nanoClock) {
+		this.windowNanos = window.toNanos();
+		this.maximumSize = maximumSize;
+		this.nanoClock = nanoClock;
+		this.current = new Generation(maximumSize);
+		this.previous = new Generation(maximumSize);
+		this.currentSinceNanos = nanoClock.getAsLong();
+	}
+
+	public synchronized boolean contains(final UUID id) {
+		expire();
+		final long msb = id.getMostSignificantBits();
+		final long lsb = id.getLeastSignificantBits();
+		return current.contains(msb, lsb) || previous.contains(msb, lsb);
+	}
+
+	/**
+	 * Adds the id unless it is in the set already.
+	 *
+	 * @return true if the id was added
+	 */
+	public synchronized boolean add(final UUID id) {
+		expire();
+		final long msb = id.getMostSignificantBits();
+		final long lsb = id.getLeastSignificantBits();
+		if (current.contains(msb, lsb) || previous.contains(msb, lsb)) {
+			return false;
+		}
+		if (current.size == maximumSize) {
+			rotate();
+		}
+		current.add(msb, lsb);
+		return true;
+	}
+
+	public synchronized int size() {
+		return current.size + previous.size;
+	}
+
+	/**
+	 * Bytes held by the tables of both generations.
+	 */
+	public long tableBytes() {
+		return 2L * current.ids.length * Long.BYTES;
+	}
+
+	private void expire() {
+		final long elapsed = nanoClock.getAsLong() - currentSinceNanos;
+		if (elapsed >= 2 * windowNanos) {
+			current.clear();
+			previous.clear();
+			currentSinceNanos = nanoClock.getAsLong();
+		} else if (elapsed >= windowNanos) {
+			rotate();
+		}
+	}
+
+	private void rotate() {
+		final Generation dropped = previous;
+		dropped.clear();
+		previous = current;
+		current = dropped;
+		currentSinceNanos = nanoClock.getAsLong();
+	}
+
+	/**
+	 * Linear probing table of (most, least significant bits) pairs. The nil UUID marks a free slot and is tracked on
+	 * its own.
+	 */
+	private static final class Generation {
+
+		private final long[] ids;
+
+		private final int slots;
+
+		private int size;
+
+		private boolean containsNil;
+
+		Generation(final int maximumSize) {
+			this.slots = Math.max(2, (int) Math.ceil(maximumSize / LOAD_FACTOR));
+			this.ids = new long[2 * slots];
+		}
+
+		boolean contains(final long msb, final long lsb) {
+			if (msb == 0 && lsb == 0) {
+				return containsNil;
+			}
+			for (int slot = slot(msb, lsb); ; slot = slot + 1 == slots ? 0 : slot + 1) {
+				final long slotMsb = ids[2 * slot];
+				final long slotLsb = ids[2 * slot + 1];
+				if (slotMsb == msb && slotLsb == lsb) {
+					return true;
+				}
+				if (slotMsb == 0 && slotLsb == 0) {
+					return false;
+				}
+			}
+		}
+
+		void add(final long msb, final long lsb) {
+			size++;
+			if (msb == 0 && lsb == 0) {
+				containsNil = true;
+				return;
+			}
+			int slot = slot(msb, lsb);
+			while (ids[2 * slot] != 0 || ids[2 * slot + 1] != 0) {
+				slot = slot + 1 == slots ? 0 : slot + 1;
+			}
+			ids[2 * slot] = msb;
+			ids[2 * slot + 1] = lsb;
+		}
+
+		void clear() {
+			if (size > 0) {
+				Arrays.fill(ids, 0L);
+				size = 0;
+				containsNil = false;
+			}
+		}
+
+		private int slot(final long msb, final long lsb) {
+			long hash = msb * 31 + lsb;
+			hash ^= hash >>> 33;
+			hash *= 0xff51afd7ed558ccdL;
+			hash ^= hash >>> 33;
+			return (int) (((hash >>> 32) * slots) >>> 32);
+		}
+
+	}
+
+}
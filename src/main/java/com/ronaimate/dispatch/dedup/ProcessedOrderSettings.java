@@ -0,0 +1,25 @@
+package com.ronaimate.dispatch.dedup;
+
+import java.time.Duration;
+
+/**
+ * Settings of the deduplication of processed orders.
+ *
+ * @param enabled when false every delivered order is processed
+ * @param window how long a processed order is remembered at least
+ * @param maximumSize processed orders remembered per window; older ones are forgotten early beyond it
+ * @param topic compacted topic processed orders are published to and restored from on startup, none when empty
+ * @param restoreTimeout how long startup waits for the topic to be restored before it fails
+ */
+public record ProcessedOrderSettings(boolean enabled, Duration window, int maximumSize, String topic,
+		Duration restoreTimeout) {
+
+	public static ProcessedOrderSettings disabled() {
+		return new ProcessedOrderSettings(false, Duration.ZERO, 0, "", Duration.ZERO);
+	}
+
+	public boolean persistent() {
+		return enabled && topic != null && !topic.isEmpty();
+	}
+
+}
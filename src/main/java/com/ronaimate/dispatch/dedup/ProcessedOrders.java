@@ -0,0 +1,106 @@
+package com.ronaimate.dispatch.dedup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Order ids that have been processed within the {@link ProcessedOrderSettings#window()}, so orders delivered again
+ * after a rebalance or a retry are skipped before their stock lookup instead of being dispatched twice. Ids are
+ * kept in a {@link ProcessedOrderSet} in memory and, when a topic is configured, published to it by the
+ * {@link ProcessedOrderLog}, which restores them on startup and shares them between instances.
+ *
+ * <p>The number of remembered orders is exposed as the gauge {@code dispatch.processed.orders}.
+ */
+public class ProcessedOrders implements MeterBinder {
+
+	/**
+	 * Notified of every order marked as processed by this instance.
+	 */
+	public interface Listener {
+
+		void onProcessed(UUID orderId);
+
+	}
+
+	private final ProcessedOrderSet set;
+
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+	public ProcessedOrders(final ProcessedOrderSettings settings) {
+		this.set = settings.enabled() ? new ProcessedOrderSet(settings.window(), settings.maximumSize()) : null;
+	}
+
+	public static ProcessedOrders disabled() {
+		return new ProcessedOrders(ProcessedOrderSettings.disabled());
+	}
+
+	public boolean isEnabled() {
+		return set != null;
+	}
+
+	public void addListener(final Listener listener) {
+		listeners.add(listener);
+	}
+
+	public boolean isProcessed(final UUID orderId) {
+		return set != null && set.contains(orderId);
+	}
+
+	/**
+	 * Within a transaction, such as a listener transaction with {@code kafka.transactions} enabled, the order is only
+	 * remembered once the transaction commits, so an order whose events are rolled back is dispatched again when it
+	 * is redelivered. The listeners are notified right away, so a publication joins the transaction.
+	 */
+	public void markProcessed(final UUID orderId) {
+		if (set == null) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()
+				&& TransactionSynchronizationManager.isActualTransactionActive()) {
+			if (!set.contains(orderId)) {
+				listeners.forEach(listener -> listener.onProcessed(orderId));
+				TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+					@Override
+					public void afterCommit() {
+						set.add(orderId);
+					}
+
+				});
+			}
+			return;
+		}
+		if (set.add(orderId)) {
+			listeners.forEach(listener -> listener.onProcessed(orderId));
+		}
+	}
+
+	/**
+	 * Remembers an order processed elsewhere, without notifying the listeners.
+	 */
+	void remember(final UUID orderId) {
+		if (set != null) {
+			set.add(orderId);
+		}
+	}
+
+	public int size() {
+		return set != null ? set.size() : 0;
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		Gauge.builder("dispatch.processed.orders", this, ProcessedOrders::size)
+				.description("Processed order ids remembered for deduplication")
+				.register(registry);
+	}
+
+}
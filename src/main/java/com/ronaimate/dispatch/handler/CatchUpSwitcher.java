@@ -0,0 +1,219 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import com.ronaimate.dispatch.config.DispatchKafkaProperties;
+import com.ronaimate.dispatch.metrics.ConsumerGroupLag;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Switches the consumption of {@code order.created} between the low-latency {@link OrderCreatedHandler} and the
+ * high-throughput {@link OrderCreatedCatchUpHandler} by the lag of the consumer group, checked every
+ * {@code kafka.catch-up.check-interval}. The catch-up profile is switched to once the lag reaches
+ * {@code kafka.catch-up.enter-lag}, and the low-latency profile back once it is down to
+ * {@code kafka.catch-up.exit-lag}, but not before {@code kafka.catch-up.min-duration} in a profile.
+ *
+ * <p>A switch stops the listener container of one profile, which waits for its current listener call, and starts the
+ * container of the other profile, which joins the consumer group in its place. Each profile sends with its own
+ * producer, the catch-up one with the {@code kafka.catch-up.producer} settings. A stopped container does not keep its
+ * partition pauses, so no switch is made while a container or a partition of either profile is paused, by the
+ * {@link StockCircuitPauser} or the listener admin endpoint; it is made at the first check after they are resumed.
+ *
+ * <p>The profile is exposed as the gauge {@code dispatch.listener.profile}, 1 for the current profile and 0 for the
+ * other, the switches to a profile as {@code dispatch.listener.profile.switches}, both tagged
+ * {@code profile=low_latency|catch_up}, and the last lag checked as {@code dispatch.listener.group.lag}.
+ */
+@Slf4j
+public class CatchUpSwitcher implements SmartLifecycle, MeterBinder {
+
+	public enum Profile {
+
+		LOW_LATENCY, CATCH_UP
+
+	}
+
+	private static final String LISTENER_ID = "orderConsumerClient";
+
+	private static final String CATCH_UP_LISTENER_ID = OrderCreatedCatchUpHandler.LISTENER_ID;
+
+	private final DispatchKafkaProperties.CatchUp settings;
+
+	private final ConsumerGroupLag groupLag;
+
+	private final KafkaListenerEndpointRegistry registry;
+
+	private final LongSupplier nanoClock;
+
+	private final AtomicLongArray switches = new AtomicLongArray(Profile.values().length);
+
+	private ScheduledExecutorService executor;
+
+	private ScheduledFuture<?> scheduledCheck;
+
+	private volatile Profile profile = Profile.LOW_LATENCY;
+
+	private volatile long lastLag;
+
+	private long switchedNanos;
+
+	public CatchUpSwitcher(final DispatchKafkaProperties.CatchUp settings, final ConsumerGroupLag groupLag,
+			final KafkaListenerEndpointRegistry registry) {
+		this(settings, groupLag, registry, System::nanoTime);
+	}
+
+	CatchUpSwitcher(final DispatchKafkaProperties.CatchUp settings, final ConsumerGroupLag groupLag,
+			final KafkaListenerEndpointRegistry registry, final LongSupplier nanoClock) {
+		this.settings = settings;
+		this.groupLag = groupLag;
+		this.registry = registry;
+		this.nanoClock = nanoClock;
+		this.switchedNanos = nanoClock.getAsLong();
+	}
+
+	public Profile profile() {
+		return profile;
+	}
+
+	@Override
+	public synchronized void start() {
+		executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final Thread thread = new Thread(runnable, "catch-up-switcher");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final long intervalMillis = settings.getCheckInterval().toMillis();
+		scheduledCheck = executor.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+			scheduledCheck = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return scheduledCheck != null;
+	}
+
+	/**
+	 * Starts after the listener containers and stops before them, so it never switches while they start or stop.
+	 */
+	@Override
+	public int getPhase() {
+		return AbstractMessageListenerContainer.DEFAULT_PHASE + 1;
+	}
+
+	/**
+	 * Reads the lag of the consumer group and switches the profile if it calls for it; the profile is kept when the
+	 * lag cannot be read.
+	 */
+	void check() {
+		final long lag;
+		try {
+			lag = groupLag.lag();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		} catch (Exception e) {
+			log.warn("Could not read the consumer group lag, keeping the {} profile: {}", profile, e.toString());
+			return;
+		}
+		lastLag = lag;
+		if (nanoClock.getAsLong() - switchedNanos < settings.getMinDuration().toNanos()) {
+			return;
+		}
+		try {
+			if (profile == Profile.LOW_LATENCY && lag >= settings.getEnterLag()) {
+				switchTo(Profile.CATCH_UP, lag);
+			} else if (profile == Profile.CATCH_UP && lag <= settings.getExitLag()) {
+				switchTo(Profile.LOW_LATENCY, lag);
+			}
+		} catch (RuntimeException e) {
+			log.error("Switching the listener profile failed", e);
+		}
+	}
+
+	@Override
+	public void bindTo(final MeterRegistry registry) {
+		for (final Profile gaugeProfile : Profile.values()) {
+			final String tag = gaugeProfile.name().toLowerCase(Locale.ROOT);
+			Gauge.builder("dispatch.listener.profile", this, switcher -> switcher.profile() == gaugeProfile ? 1 : 0)
+					.description("Listener profile consuming order.created")
+					.tag("profile", tag)
+					.register(registry);
+			FunctionCounter.builder("dispatch.listener.profile.switches", switches,
+							counts -> counts.get(gaugeProfile.ordinal()))
+					.description("Switches to a listener profile")
+					.tag("profile", tag)
+					.register(registry);
+		}
+		Gauge.builder("dispatch.listener.group.lag", this, switcher -> switcher.lastLag)
+				.description("Lag of the order.created consumer group at the last profile check")
+				.register(registry);
+	}
+
+	private void switchTo(final Profile newProfile, final long lag) {
+		final boolean catchUp = newProfile == Profile.CATCH_UP;
+		final MessageListenerContainer current = container(catchUp ? LISTENER_ID : CATCH_UP_LISTENER_ID);
+		final MessageListenerContainer next = container(catchUp ? CATCH_UP_LISTENER_ID : LISTENER_ID);
+		if (isPaused(current) || isPaused(next)) {
+			log.info("Consumer group lag {}, keeping the {} profile while its listener is paused", lag, profile);
+			return;
+		}
+		log.warn("Consumer group lag {}, switching listener profile {} -> {}", lag, profile, newProfile);
+		current.stop();
+		next.start();
+		profile = newProfile;
+		switchedNanos = nanoClock.getAsLong();
+		switches.incrementAndGet(newProfile.ordinal());
+	}
+
+	/**
+	 * Whether the container or one of its partitions has been asked to pause; a concurrent container passes partition
+	 * pauses to the child container the partition is assigned to.
+	 */
+	private static boolean isPaused(final MessageListenerContainer container) {
+		if (container.isPauseRequested()) {
+			return true;
+		}
+		if (container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) {
+			return concurrent.getContainers().stream().anyMatch(CatchUpSwitcher::isPaused);
+		}
+		final Collection<TopicPartition> assigned = container.getAssignedPartitions();
+		return assigned != null && assigned.stream().anyMatch(container::isPartitionPauseRequested);
+	}
+
+	private MessageListenerContainer container(final String listenerId) {
+		final MessageListenerContainer container = registry.getListenerContainer(listenerId);
+		if (container == null) {
+			throw new IllegalStateException("No listener container " + listenerId);
+		}
+		return container;
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.Collection;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebalance listener of the {@code order.created} listener containers that lets the records in flight of revoked
+ * partitions complete before the container commits the offsets of the partitions and hands them over, so their next
+ * owner does not dispatch them again. It waits at most {@code kafka.membership.drain-timeout}; records still in
+ * flight after that are redelivered to the next owner.
+ *
+ * <p>Partitions are revoked in a rebalance and when the container stops. The record and batch listeners run on the
+ * consumer thread, so they have nothing in flight by then; the records of the parallel listener are dispatched on
+ * its lanes and are waited for.
+ */
+@Slf4j
+public class InFlightDrainer implements ConsumerAwareRebalanceListener {
+
+	private static final long POLL_MILLIS = 10;
+
+	private final InFlightRecords inFlightRecords;
+
+	private final Duration drainTimeout;
+
+	public InFlightDrainer(final InFlightRecords inFlightRecords, final Duration drainTimeout) {
+		this.inFlightRecords = inFlightRecords;
+		this.drainTimeout = drainTimeout;
+	}
+
+	@Override
+	public void onPartitionsRevokedBeforeCommit(final Consumer<?, ?> consumer,
+			final Collection<TopicPartition> partitions) {
+		drain(partitions);
+	}
+
+	/**
+	 * Lost partitions already belong to another member, whose consumer has started from the last committed offsets.
+	 */
+	@Override
+	public void onPartitionsLost(final Consumer<?, ?> consumer, final Collection<TopicPartition> partitions) {
+	}
+
+	/**
+	 * Waits until the partitions have no records in flight, at most for the drain timeout.
+	 *
+	 * @return whether the partitions have been drained
+	 */
+	boolean drain(final Collection<TopicPartition> partitions) {
+		final int initial = inFlight(partitions);
+		if (initial == 0) {
+			return true;
+		}
+		final long start = System.nanoTime();
+		final long deadline = start + drainTimeout.toNanos();
+		int inFlight = initial;
+		while (inFlight > 0) {
+			if (System.nanoTime() - deadline >= 0) {
+				log.warn("Revoking {} with {} records still in flight after {}", partitions, inFlight, drainTimeout);
+				return false;
+			}
+			try {
+				Thread.sleep(POLL_MILLIS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				log.warn("Revoking {} with {} records still in flight: interrupted", partitions, inFlight);
+				return false;
+			}
+			inFlight = inFlight(partitions);
+		}
+		log.info("Drained {} records in flight of {} in {} ms", initial, partitions,
+				Duration.ofNanos(System.nanoTime() - start).toMillis());
+		return true;
+	}
+
+	private int inFlight(final Collection<TopicPartition> partitions) {
+		int inFlight = 0;
+		for (final TopicPartition partition : partitions) {
+			inFlight += inFlightRecords.get(partition);
+		}
+		return inFlight;
+	}
+
+}
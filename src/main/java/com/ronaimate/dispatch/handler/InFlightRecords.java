@@ -0,0 +1,77 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts the records of each partition that have been handed to a listener and are still being processed. As the
+ * interceptor of the record and batch listener containers it counts a record from the start of the listener call
+ * until the call returns, including retries; the parallel listener, whose calls return before the records are
+ * dispatched, counts them itself until their lane is done with them.
+ */
+@Component
+public class InFlightRecords implements RecordInterceptor<String, Object>, BatchInterceptor<String, Object> {
+
+	private final Map<TopicPartition, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+	public void add(final ConsumerRecord<?, ?> record) {
+		count(record).incrementAndGet();
+	}
+
+	public void remove(final ConsumerRecord<?, ?> record) {
+		count(record).decrementAndGet();
+	}
+
+	/**
+	 * Records in flight of the partition, 0 if none has been seen.
+	 */
+	public int get(final TopicPartition partition) {
+		final AtomicInteger count = inFlight.get(partition);
+		return count == null ? 0 : count.get();
+	}
+
+	@Override
+	public ConsumerRecord<String, Object> intercept(final ConsumerRecord<String, Object> record,
+			final Consumer<String, Object> consumer) {
+		add(record);
+		return record;
+	}
+
+	@Override
+	public void afterRecord(final ConsumerRecord<String, Object> record, final Consumer<String, Object> consumer) {
+		remove(record);
+	}
+
+	@Override
+	public ConsumerRecords<String, Object> intercept(final ConsumerRecords<String, Object> records,
+			final Consumer<String, Object> consumer) {
+		records.forEach(this::add);
+		return records;
+	}
+
+	@Override
+	public void success(final ConsumerRecords<String, Object> records, final Consumer<String, Object> consumer) {
+		records.forEach(this::remove);
+	}
+
+	@Override
+	public void failure(final ConsumerRecords<String, Object> records, final Exception exception,
+			final Consumer<String, Object> consumer) {
+		records.forEach(this::remove);
+	}
+
+	private AtomicInteger count(final ConsumerRecord<?, ?> record) {
+		return inFlight.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+				partition -> new AtomicInteger());
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs tasks on a fixed number of lanes chosen by key hash. Tasks of the same key run one at a time in submission
+ * order; tasks on different lanes run concurrently.
+ */
+@Slf4j
+public class KeyOrderedExecutor implements AutoCloseable {
+
+	private final ExecutorService[] lanes;
+
+	public KeyOrderedExecutor(final int laneCount, final ThreadFactory threadFactory) {
+		this.lanes = new ExecutorService[laneCount];
+		for (int lane = 0; lane < laneCount; lane++) {
+			lanes[lane] = Executors.newSingleThreadExecutor(threadFactory);
+		}
+	}
+
+	public static KeyOrderedExecutor virtualThreads(final int laneCount) {
+		return new KeyOrderedExecutor(laneCount, Thread.ofVirtual().name("dispatch-lane-", 0).factory());
+	}
+
+	public static KeyOrderedExecutor platformThreads(final int laneCount) {
+		return new KeyOrderedExecutor(laneCount, Thread.ofPlatform().name("dispatch-lane-", 0).daemon(true).factory());
+	}
+
+	public void execute(final String key, final Runnable task) {
+		lanes[lane(key)].execute(task);
+	}
+
+	/**
+	 * Stops accepting tasks and waits up to the timeout for queued tasks to finish.
+	 */
+	public void shutdown(final Duration timeout) throws InterruptedException {
+		for (final ExecutorService lane : lanes) {
+			lane.shutdown();
+		}
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		for (final ExecutorService lane : lanes) {
+			if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+				log.warn("Dispatch lanes did not finish within {}", timeout);
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		for (final ExecutorService lane : lanes) {
+			lane.shutdownNow();
+		}
+	}
+
+	private int lane(final String key) {
+		return key == null ? 0 : Math.floorMod(key.hashCode(), lanes.length);
+	}
+
+}
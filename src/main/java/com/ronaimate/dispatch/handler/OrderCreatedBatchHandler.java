@@ -0,0 +1,65 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.repartition.ItemRepartitionHandler;
+import com.ronaimate.dispatch.service.DispatchService;
+import com.ronaimate.exception.NotRetryableException;
+import com.ronaimate.exception.RetryableException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+
+/**
+ * Batch counterpart of {@link OrderCreatedHandler}, active when {@code kafka.listener.mode} is {@code batch}.
+ * Failures are reported as {@link BatchListenerFailedException} at the failing index so the error handler commits
+ * the records before it and retries or dead-letters only the failing one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+@ConditionalOnProperty(name = "kafka.listener.mode", havingValue = "batch")
+public class OrderCreatedBatchHandler {
+
+	private final DispatchService dispatchService;
+
+	private final DispatchMetrics metrics;
+
+	@KafkaListener(id = "orderConsumerClient",
+			topics = ItemRepartitionHandler.SOURCE_TOPIC,
+			groupId = "dispatch.order.created.consumer",
+			containerFactory = "kafkaListenerContainerFactory")
+	public void listen(final List<ConsumerRecord<String, OrderCreated>> records) {
+		log.info(PER_MESSAGE, "Received batch: size: {}", records.size());
+		try {
+			dispatchService.process(records);
+		} catch (BatchListenerFailedException e) {
+			if (e.getCause() instanceof RetryableException) {
+				log.warn("Retryable exception at index {}: {}", e.getIndex(), e.getCause().getMessage());
+				throw e;
+			}
+			log.error("NotRetryable exception at index {}: {}", e.getIndex(), e.getMessage());
+			metrics.notRetryable();
+			throw new BatchListenerFailedException("NotRetryable exception", notRetryable(e.getCause()), e.getIndex());
+		} catch (Exception e) {
+			log.error("NotRetryable exception: {}", e.getMessage());
+			metrics.notRetryable();
+			throw new NotRetryableException(e);
+		}
+	}
+
+	private static NotRetryableException notRetryable(final Throwable cause) {
+		return new NotRetryableException(cause instanceof Exception exception ? exception : new RuntimeException(cause));
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.repartition.ItemRepartitionHandler;
+import com.ronaimate.dispatch.service.DispatchService;
+
+/**
+ * Batch listener of {@code order.created} that the {@link CatchUpSwitcher} runs in place of the
+ * {@link OrderCreatedHandler} while the consumer group catches up on a backlog, with the
+ * {@code kafka.catch-up.consumer} settings. It is not started with the application. Orders are dispatched as by the
+ * {@link OrderCreatedBatchHandler}, with the outbound events sent by the catch-up producer.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.catch-up.enabled", havingValue = "true")
+public class OrderCreatedCatchUpHandler {
+
+	/**
+	 * Shares the prefix of the other {@code order.created} listeners, so the {@link StockCircuitPauser} pauses it too.
+	 */
+	public static final String LISTENER_ID = "orderConsumerClient-catch-up";
+
+	private final OrderCreatedBatchHandler batchHandler;
+
+	public OrderCreatedCatchUpHandler(final DispatchService dispatchService,
+			@Qualifier("catchUpKafkaTemplate") final KafkaTemplate<String, Object> catchUpKafkaTemplate,
+			final DispatchMetrics metrics) {
+		this.batchHandler = new OrderCreatedBatchHandler(dispatchService.sendingWith(catchUpKafkaTemplate), metrics);
+	}
+
+	@KafkaListener(id = LISTENER_ID,
+			topics = ItemRepartitionHandler.SOURCE_TOPIC,
+			groupId = "dispatch.order.created.consumer",
+			containerFactory = "catchUpKafkaListenerContainerFactory",
+			autoStartup = "false")
+	public void listen(final List<ConsumerRecord<String, OrderCreated>> records) {
+		batchHandler.listen(records);
+	}
+
+}
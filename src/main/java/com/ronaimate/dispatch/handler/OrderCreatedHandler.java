@@ -1,6 +1,6 @@
 package com.ronaimate.dispatch.handler;
 
-import org.springframework.kafka.annotation.KafkaHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
@@ -8,6 +8,9 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.repartition.ItemRepartitionHandler;
+import com.ronaimate.dispatch.repartition.OrderKeyHeader;
 import com.ronaimate.dispatch.service.DispatchService;
 import com.ronaimate.exception.NotRetryableException;
 import com.ronaimate.exception.RetryableException;
@@ -15,29 +18,38 @@ import com.ronaimate.exception.RetryableException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+
 @Slf4j
 @RequiredArgsConstructor
 @Component
-@KafkaListener(id = "orderConsumerClient",
-		topics = "order.created",
-		groupId = "dispatch.order.created.consumer",
-		containerFactory = "kafkaListenerContainerFactory")
+@ConditionalOnProperty(name = "kafka.listener.mode", havingValue = "record", matchIfMissing = true)
 public class OrderCreatedHandler {
 
 	private final DispatchService dispatchService;
 
-	@KafkaHandler
+	private final DispatchMetrics metrics;
+
+	/**
+	 * Declared on the method, as retry topics ({@code kafka.retry-topics}) only apply to method level listeners.
+	 */
+	@KafkaListener(id = "orderConsumerClient",
+			topics = ItemRepartitionHandler.SOURCE_TOPIC,
+			groupId = "dispatch.order.created.consumer",
+			containerFactory = "kafkaListenerContainerFactory")
 	public void listen(@Header(KafkaHeaders.RECEIVED_PARTITION) final int partition,
 			@Header(KafkaHeaders.RECEIVED_KEY) final String key,
+			@Header(name = OrderKeyHeader.NAME, required = false) final byte[] orderKey,
 			@Payload final OrderCreated payload) {
-		log.info("Received message: partition: {} - key: {} - payload: {}", partition, key, payload);
+		log.info(PER_MESSAGE, "Received message: partition: {} - key: {} - payload: {}", partition, key, payload);
 		try {
-			dispatchService.process(key, payload);
+			dispatchService.process(OrderKeyHeader.orderKey(key, orderKey), payload);
 		} catch (RetryableException e) {
 			log.warn("Retryable exception: {}", e.getMessage());
 			throw e;
 		} catch (Exception e) {
 			log.error("NotRetryable exception: {}", e.getMessage());
+			metrics.notRetryable();
 			throw new NotRetryableException(e);
 		}
 	}
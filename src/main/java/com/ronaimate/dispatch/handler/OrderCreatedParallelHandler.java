@@ -0,0 +1,212 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import com.ronaimate.dispatch.config.DispatchKafkaProperties;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.repartition.ItemRepartitionHandler;
+import com.ronaimate.dispatch.repartition.OrderKeyHeader;
+import com.ronaimate.dispatch.service.DispatchService;
+import com.ronaimate.exception.NotRetryableException;
+import com.ronaimate.exception.RetryableException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+
+/**
+ * Parallel counterpart of {@link OrderCreatedHandler}, active when {@code kafka.listener.mode} is {@code parallel}.
+ * Records are handed to a {@link KeyOrderedExecutor}, so orders of the same key are dispatched in order while
+ * orders of different keys in the same partition are dispatched concurrently. Completed records are acknowledged
+ * through a {@link PartitionOffsetTracker}, so the committed offset of a partition only advances past records that
+ * have been dispatched or dead-lettered.
+ *
+ * <p>Retries and dead-lettering happen on the lane, with the same back-off and exception classification as the
+ * container error handler.
+ *
+ * <p>On rebalance and shutdown, the {@link InFlightDrainer} of the container waits for the records of the revoked
+ * partitions to be dispatched before their offsets are committed.
+ *
+ * <p>The container is paused while {@code kafka.listener.parallel.max-in-flight} or more records are uncommitted
+ * and resumed once half of them have been committed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kafka.listener.mode", havingValue = "parallel")
+public class OrderCreatedParallelHandler implements ConsumerSeekAware, DisposableBean {
+
+	private static final String LISTENER_ID = "orderConsumerClient";
+
+	private final DispatchService dispatchService;
+
+	private final ConsumerRecordRecoverer recoverer;
+
+	private final BackOff retryBackOff;
+
+	private final DispatchMetrics metrics;
+
+	private final KeyOrderedExecutor executor;
+
+	private final PartitionOffsetTracker offsetTracker = new PartitionOffsetTracker();
+
+	private final InFlightRecords inFlightRecords;
+
+	private final KafkaListenerEndpointRegistry registry;
+
+	private final int maxInFlight;
+
+	private final Duration drainTimeout;
+
+	private final AtomicBoolean paused = new AtomicBoolean();
+
+	@Autowired
+	public OrderCreatedParallelHandler(final DispatchService dispatchService, final ConsumerRecordRecoverer recoverer,
+			final BackOff retryBackOff, final DispatchMetrics metrics, final KafkaListenerEndpointRegistry registry,
+			final InFlightRecords inFlightRecords, final DispatchKafkaProperties properties) {
+		this(dispatchService, recoverer, retryBackOff, metrics, registry, inFlightRecords,
+				executor(properties.getListener().getParallel()),
+				properties.getListener().getParallel().getMaxInFlight(), properties.getMembership().getDrainTimeout());
+	}
+
+	OrderCreatedParallelHandler(final DispatchService dispatchService, final ConsumerRecordRecoverer recoverer,
+			final BackOff retryBackOff, final DispatchMetrics metrics, final KafkaListenerEndpointRegistry registry,
+			final InFlightRecords inFlightRecords, final KeyOrderedExecutor executor, final int maxInFlight,
+			final Duration drainTimeout) {
+		this.dispatchService = dispatchService;
+		this.recoverer = recoverer;
+		this.retryBackOff = retryBackOff;
+		this.metrics = metrics;
+		this.registry = registry;
+		this.inFlightRecords = inFlightRecords;
+		this.executor = executor;
+		this.maxInFlight = maxInFlight;
+		this.drainTimeout = drainTimeout;
+	}
+
+	@KafkaListener(id = LISTENER_ID,
+			topics = ItemRepartitionHandler.SOURCE_TOPIC,
+			groupId = "dispatch.order.created.consumer",
+			containerFactory = "parallelKafkaListenerContainerFactory")
+	public void listen(final ConsumerRecord<String, OrderCreated> record, final Acknowledgment acknowledgment) {
+		log.info(PER_MESSAGE, "Received message: partition: {} - key: {} - payload: {}", record.partition(),
+				record.key(), record.value());
+		offsetTracker.register(record, acknowledgment);
+		inFlightRecords.add(record);
+		if (offsetTracker.pending() >= maxInFlight && paused.compareAndSet(false, true)) {
+			log.info("Pausing {}: {} records in flight", LISTENER_ID, offsetTracker.pending());
+			container().pause();
+		}
+		executor.execute(OrderKeyHeader.orderKey(record), () -> {
+			try {
+				if (dispatch(record)) {
+					offsetTracker.complete(record);
+				}
+			} catch (RuntimeException e) {
+				// Leaving the record uncompleted keeps its offset uncommitted, so it is redelivered after a restart
+				// or rebalance rather than lost.
+				log.error("Dead letter publication failed: partition: {} - offset: {}", record.partition(),
+						record.offset(), e);
+			} finally {
+				inFlightRecords.remove(record);
+			}
+			resumeIfDrained();
+		});
+	}
+
+	@Override
+	public void onPartitionsRevoked(final Collection<TopicPartition> partitions) {
+		offsetTracker.revoke(partitions);
+		resumeIfDrained();
+	}
+
+	/**
+	 * The container has stopped and drained the lanes by then; records a lane is still on get the drain timeout
+	 * once more.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		executor.shutdown(drainTimeout);
+		executor.close();
+	}
+
+	private static KeyOrderedExecutor executor(final DispatchKafkaProperties.Parallel parallel) {
+		return parallel.isVirtualThreads()
+				? KeyOrderedExecutor.virtualThreads(parallel.getLanes())
+				: KeyOrderedExecutor.platformThreads(parallel.getLanes());
+	}
+
+	private void resumeIfDrained() {
+		if (offsetTracker.pending() <= maxInFlight / 2 && paused.compareAndSet(true, false)) {
+			log.info("Resuming {}: {} records in flight", LISTENER_ID, offsetTracker.pending());
+			container().resume();
+		}
+	}
+
+	private MessageListenerContainer container() {
+		return registry.getListenerContainer(LISTENER_ID);
+	}
+
+	/**
+	 * Dispatches the record, retrying and dead-lettering it like the container error handler would.
+	 *
+	 * @return false if the lane was interrupted before the record was dispatched or dead-lettered, in which case it
+	 * must not be acknowledged
+	 */
+	private boolean dispatch(final ConsumerRecord<String, OrderCreated> record) {
+		final BackOffExecution backOff = retryBackOff.start();
+		while (true) {
+			try {
+				dispatchService.process(OrderKeyHeader.orderKey(record), record.value());
+				return true;
+			} catch (RetryableException e) {
+				final long interval = backOff.nextBackOff();
+				if (interval == BackOffExecution.STOP) {
+					log.warn("Retries exhausted: {}", e.getMessage());
+					recoverer.accept(record, e);
+					return true;
+				}
+				log.warn("Retryable exception: {}", e.getMessage());
+				if (!sleep(interval)) {
+					return false;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			} catch (Exception e) {
+				log.error("NotRetryable exception: {}", e.getMessage());
+				metrics.notRetryable();
+				recoverer.accept(record, new NotRetryableException(e));
+				return true;
+			}
+		}
+	}
+
+	private static boolean sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,250 @@
+package com.ronaimate.dispatch.handler;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+import com.ronaimate.dispatch.config.DispatchKafkaProperties;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.repartition.OrderKeyHeader;
+import com.ronaimate.dispatch.service.ReactiveDispatchService;
+import com.ronaimate.exception.RetryableException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.GroupedFlux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.receiver.KafkaReceiver;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverPartition;
+import reactor.kafka.receiver.ReceiverRecord;
+import reactor.util.retry.Retry;
+
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+
+/**
+ * Reactive counterpart of {@link OrderCreatedHandler}, active when {@code kafka.listener.mode} is {@code reactive}.
+ * Orders are received from a reactor-kafka receiver instead of a listener container and dispatched by the
+ * {@link ReactiveDispatchService}, up to {@code kafka.listener.reactive.max-concurrency} at a time per partition. An
+ * order waits for the orders of the same key before it, so orders of a key are dispatched in order. Records are
+ * acknowledged in offset order once their events have been sent or they have been dead-lettered, and the receiver
+ * commits the acknowledged offsets.
+ *
+ * <p>Retries and dead-lettering follow the container error handler: {@link RetryableException}s are retried with the
+ * {@code retryBackOff}, other failures and records whose retries are exhausted are published to
+ * {@code order.created.DLT}.
+ *
+ * <p>A failure of the receiver itself, such as a commit that failed after its retries or a broker error, ends the
+ * subscription; the receiver is then subscribed again after {@code kafka.listener.reactive.restart-backoff}, doubled up
+ * to {@code max-restart-backoff} while it keeps failing, and resumes from the committed offsets.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kafka.listener.mode", havingValue = "reactive")
+public class OrderCreatedReactiveHandler implements SmartLifecycle {
+
+	private static final String DLT_TOPIC = "order.created.DLT";
+
+	private static final Duration DLT_RETRY_DELAY = Duration.ofSeconds(1);
+
+	private final Supplier<Flux<ReceiverRecord<String, Object>>> receive;
+
+	private final ReactiveDispatchService dispatchService;
+
+	private final ReactiveKafkaProducerTemplate<String, Object> kafkaProducer;
+
+	private final BackOff retryBackOff;
+
+	private final DispatchMetrics metrics;
+
+	private final int maxConcurrency;
+
+	private final Duration restartBackoff;
+
+	private final Duration maxRestartBackoff;
+
+	private final Set<TopicPartition> assignment = ConcurrentHashMap.newKeySet();
+
+	private volatile Disposable subscription;
+
+	@Autowired
+	public OrderCreatedReactiveHandler(final ReceiverOptions<String, Object> orderCreatedReceiverOptions,
+			final ReactiveDispatchService dispatchService,
+			final ReactiveKafkaProducerTemplate<String, Object> kafkaProducer, final BackOff retryBackOff,
+			final DispatchMetrics metrics, final DispatchKafkaProperties properties) {
+		this(orderCreatedReceiverOptions, options -> KafkaReceiver.create(options).receive(), dispatchService,
+				kafkaProducer, retryBackOff, metrics, properties);
+	}
+
+	OrderCreatedReactiveHandler(final ReceiverOptions<String, Object> orderCreatedReceiverOptions,
+			final Function<ReceiverOptions<String, Object>, Flux<ReceiverRecord<String, Object>>> receiver,
+			final ReactiveDispatchService dispatchService,
+			final ReactiveKafkaProducerTemplate<String, Object> kafkaProducer, final BackOff retryBackOff,
+			final DispatchMetrics metrics, final DispatchKafkaProperties properties) {
+		final ReceiverOptions<String, Object> receiverOptions = orderCreatedReceiverOptions
+				.addAssignListener(partitions -> partitions.stream()
+						.map(ReceiverPartition::topicPartition)
+						.forEach(assignment::add))
+				.addRevokeListener(partitions -> partitions.stream()
+						.map(ReceiverPartition::topicPartition)
+						.forEach(assignment::remove));
+		this.receive = () -> receiver.apply(receiverOptions);
+		this.dispatchService = dispatchService;
+		this.kafkaProducer = kafkaProducer;
+		this.retryBackOff = retryBackOff;
+		this.metrics = metrics;
+		final DispatchKafkaProperties.Reactive reactive = properties.getListener().getReactive();
+		this.maxConcurrency = reactive.getMaxConcurrency();
+		this.restartBackoff = reactive.getRestartBackoff();
+		this.maxRestartBackoff = reactive.getMaxRestartBackoff();
+	}
+
+	/**
+	 * Partitions currently assigned to the receiver.
+	 */
+	public Collection<TopicPartition> assignment() {
+		return Set.copyOf(assignment);
+	}
+
+	@Override
+	public void start() {
+		// each subscription creates a receiver of its own, with a new consumer
+		subscription = Flux.defer(receive)
+				.groupBy(record -> record.receiverOffset().topicPartition())
+				.flatMap(this::dispatchPartition, Integer.MAX_VALUE)
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, restartBackoff)
+						.maxBackoff(maxRestartBackoff)
+						// the backoff starts over once a new receiver has delivered records
+						.transientErrors(true)
+						.doBeforeRetry(signal -> {
+							assignment.clear();
+							log.error("Order receiver failed, subscribing again (attempt {})",
+									signal.totalRetries() + 1, signal.failure());
+						}))
+				.subscribe(record -> record.receiverOffset().acknowledge(),
+						failure -> log.error("Order receiver stopped", failure));
+	}
+
+	@Override
+	public void stop() {
+		if (subscription != null) {
+			subscription.dispose();
+			subscription = null;
+		}
+		assignment.clear();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return subscription != null && !subscription.isDisposed();
+	}
+
+	/**
+	 * Starts and stops with the listener containers.
+	 */
+	@Override
+	public int getPhase() {
+		return AbstractMessageListenerContainer.DEFAULT_PHASE;
+	}
+
+	/**
+	 * Dispatches the records of a partition concurrently and emits them in offset order once they are done.
+	 */
+	private Flux<ReceiverRecord<String, Object>> dispatchPartition(
+			final GroupedFlux<TopicPartition, ReceiverRecord<String, Object>> partition) {
+		final Map<String, Mono<Void>> inFlightByKey = new ConcurrentHashMap<>();
+		return partition.flatMapSequential(record -> afterSameKey(record, inFlightByKey).thenReturn(record),
+				maxConcurrency);
+	}
+
+	/**
+	 * Dispatches the record once the dispatch of the previous record of its key, if any is in flight, is done.
+	 */
+	private Mono<Void> afterSameKey(final ReceiverRecord<String, Object> record,
+			final Map<String, Mono<Void>> inFlightByKey) {
+		final String key = OrderKeyHeader.orderKey(record);
+		if (key == null) {
+			return dispatch(record);
+		}
+		final Mono<Void> previous = inFlightByKey.getOrDefault(key, Mono.empty());
+		final Mono<Void> dispatch = previous.onErrorResume(failure -> Mono.empty())
+				.then(Mono.defer(() -> dispatch(record)))
+				.cache();
+		inFlightByKey.put(key, dispatch);
+		return dispatch.doFinally(signal -> inFlightByKey.remove(key, dispatch));
+	}
+
+	private Mono<Void> dispatch(final ReceiverRecord<String, Object> record) {
+		if (!(record.value() instanceof OrderCreated orderCreated)) {
+			log.error("Skipping record without an OrderCreated: partition: {} - offset: {}", record.partition(),
+					record.offset());
+			metrics.notRetryable();
+			return Mono.empty();
+		}
+		log.info(PER_MESSAGE, "Received message: partition: {} - key: {} - payload: {}", record.partition(),
+				record.key(), orderCreated);
+		return Mono.defer(() -> {
+					final BackOffExecution backOff = retryBackOff.start();
+					return dispatchService.process(OrderKeyHeader.orderKey(record), orderCreated)
+							.retryWhen(Retry.from(signals -> signals.concatMap(signal -> {
+								final Throwable failure = signal.failure();
+								final long delay = failure instanceof RetryableException
+										? backOff.nextBackOff()
+										: BackOffExecution.STOP;
+								if (delay == BackOffExecution.STOP) {
+									return Mono.error(failure);
+								}
+								log.warn("Retryable exception: {}", failure.getMessage());
+								return Mono.delay(Duration.ofMillis(delay));
+							})));
+				})
+				.onErrorResume(failure -> deadLetter(record, failure));
+	}
+
+	private Mono<Void> deadLetter(final ReceiverRecord<String, Object> record, final Throwable failure) {
+		if (!(failure instanceof RetryableException)) {
+			log.error("NotRetryable exception: {}", failure.getMessage());
+			metrics.notRetryable();
+		}
+		final ProducerRecord<String, Object> deadLetter = new ProducerRecord<>(DLT_TOPIC, null,
+				OrderKeyHeader.orderKey(record), record.value());
+		deadLetter.headers()
+				.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, record.topic().getBytes(StandardCharsets.UTF_8))
+				.add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES)
+						.putInt(record.partition()).array())
+				.add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES)
+						.putLong(record.offset()).array())
+				.add(KafkaHeaders.DLT_EXCEPTION_FQCN, failure.getClass().getName().getBytes(StandardCharsets.UTF_8))
+				.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, String.valueOf(failure.getMessage())
+						.getBytes(StandardCharsets.UTF_8));
+		// the record is only acknowledged once it is on the DLT, and the records behind it wait for it
+		return kafkaProducer.send(deadLetter)
+				.retryWhen(Retry.fixedDelay(Long.MAX_VALUE, DLT_RETRY_DELAY)
+						.doBeforeRetry(signal -> log.error("Publishing to {} failed, retrying: {}", DLT_TOPIC,
+								signal.failure().getMessage())))
+				.doOnSuccess(sent -> metrics.deadLetter())
+				.then();
+	}
+
+}
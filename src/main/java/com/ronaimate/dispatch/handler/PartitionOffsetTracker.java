@@ -0,0 +1,112 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * Tracks the records of each partition that are being processed out of order and acknowledges them in offset order.
+ * When a record completes, the acknowledgment of the highest offset below which every record has completed is
+ * invoked, so the container never commits past a record that is still in flight.
+ */
+public class PartitionOffsetTracker {
+
+	private final Map<TopicPartition, PendingOffsets> partitions = new ConcurrentHashMap<>();
+
+	private final AtomicInteger pending = new AtomicInteger();
+
+	public void register(final ConsumerRecord<?, ?> record, final Acknowledgment acknowledgment) {
+		partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+				partition -> new PendingOffsets()).add(record, acknowledgment);
+		pending.incrementAndGet();
+	}
+
+	/**
+	 * Marks the record as completed and acknowledges the contiguous completed offsets of its partition, if any.
+	 * Records of partitions that have been revoked since they were registered are ignored.
+	 */
+	public void complete(final ConsumerRecord<?, ?> record) {
+		final PendingOffsets offsets = partitions.get(new TopicPartition(record.topic(), record.partition()));
+		if (offsets != null) {
+			pending.addAndGet(-offsets.complete(record));
+		}
+	}
+
+	/**
+	 * Forgets the records of the revoked partitions; they are redelivered to the partitions' next owner from the
+	 * last committed offset.
+	 */
+	public void revoke(final Collection<TopicPartition> revoked) {
+		for (final TopicPartition partition : revoked) {
+			final PendingOffsets offsets = partitions.remove(partition);
+			if (offsets != null) {
+				pending.addAndGet(-offsets.size());
+			}
+		}
+	}
+
+	/**
+	 * @return the number of registered records whose offsets have not been acknowledged yet
+	 */
+	public int pending() {
+		return pending.get();
+	}
+
+	private static class PendingOffsets {
+
+		private final TreeMap<Long, PendingRecord> records = new TreeMap<>();
+
+		synchronized void add(final ConsumerRecord<?, ?> record, final Acknowledgment acknowledgment) {
+			records.put(record.offset(), new PendingRecord(record, acknowledgment));
+		}
+
+		/**
+		 * @return the number of records acknowledged
+		 */
+		synchronized int complete(final ConsumerRecord<?, ?> record) {
+			final PendingRecord completed = records.get(record.offset());
+			if (completed == null || completed.record != record) {
+				return 0;
+			}
+			completed.done = true;
+			int acknowledged = 0;
+			Acknowledgment highest = null;
+			while (!records.isEmpty() && records.firstEntry().getValue().done) {
+				highest = records.pollFirstEntry().getValue().acknowledgment;
+				acknowledged++;
+			}
+			// Acknowledging inside the lock keeps the acknowledgments of a partition in offset order.
+			if (highest != null) {
+				highest.acknowledge();
+			}
+			return acknowledged;
+		}
+
+		synchronized int size() {
+			return records.size();
+		}
+
+	}
+
+	private static class PendingRecord {
+
+		private final ConsumerRecord<?, ?> record;
+
+		private final Acknowledgment acknowledgment;
+
+		private boolean done;
+
+		PendingRecord(final ConsumerRecord<?, ?> record, final Acknowledgment acknowledgment) {
+			this.record = record;
+			this.acknowledgment = acknowledgment;
+		}
+
+	}
+
+}
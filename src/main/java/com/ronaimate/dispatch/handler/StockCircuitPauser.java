@@ -0,0 +1,99 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.ronaimate.dispatch.client.StockCircuitBreaker;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pauses the {@code order.created} listener containers, and those of its retry topics, while the stock service
+ * circuit is open, so consumers stop fetching orders that could only fail. The containers are resumed once the
+ * circuit has been open for its open duration, letting the first redelivered order through as the trial call, and
+ * paused again if that call fails. Containers paused by anything else are left alone.
+ *
+ * <p>Not active in {@code parallel} listener mode, where the handler pauses and resumes the container itself; there
+ * the lanes wait out the open circuit in their back-off.
+ */
+@Slf4j
+@Component
+@ConditionalOnExpression("'${kafka.listener.mode:record}' != 'parallel'")
+public class StockCircuitPauser implements StockCircuitBreaker.Listener, DisposableBean {
+
+	private static final String LISTENER_ID_PREFIX = "orderConsumerClient";
+
+	private final StockCircuitBreaker circuitBreaker;
+
+	private final KafkaListenerEndpointRegistry registry;
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "stock-circuit-pauser");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final List<MessageListenerContainer> pausedContainers = new ArrayList<>();
+
+	private ScheduledFuture<?> scheduledResume;
+
+	public StockCircuitPauser(final StockCircuitBreaker circuitBreaker, final KafkaListenerEndpointRegistry registry) {
+		this.circuitBreaker = circuitBreaker;
+		this.registry = registry;
+		circuitBreaker.addListener(this);
+	}
+
+	@Override
+	public void onStateChange(final StockCircuitBreaker.State state) {
+		if (state == StockCircuitBreaker.State.OPEN) {
+			pause();
+		} else if (state == StockCircuitBreaker.State.CLOSED) {
+			resume();
+		}
+	}
+
+	synchronized void pause() {
+		for (final MessageListenerContainer container : registry.getListenerContainers()) {
+			if (container.getListenerId() != null && container.getListenerId().startsWith(LISTENER_ID_PREFIX)
+					&& !container.isPauseRequested()) {
+				container.pause();
+				pausedContainers.add(container);
+			}
+		}
+		if (scheduledResume != null) {
+			scheduledResume.cancel(false);
+		}
+		log.info("Stock service circuit open, paused {} containers for {}", pausedContainers.size(),
+				circuitBreaker.openDuration());
+		scheduledResume = executor.schedule(this::resume, circuitBreaker.openDuration().toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	synchronized void resume() {
+		if (scheduledResume != null) {
+			scheduledResume.cancel(false);
+			scheduledResume = null;
+		}
+		if (!pausedContainers.isEmpty()) {
+			log.info("Resuming {} containers paused for the stock service circuit", pausedContainers.size());
+			pausedContainers.forEach(MessageListenerContainer::resume);
+			pausedContainers.clear();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,17 @@
+package com.ronaimate.dispatch.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+
+	/**
+	 * Marks the logs written for every consumed order or batch. With the {@code async-logging} profile only a
+	 * sample of them is written at info level, see {@link PerMessageSamplingFilter}.
+	 */
+	public static final Marker PER_MESSAGE = MarkerFactory.getMarker("PER_MESSAGE");
+
+	private LogMarkers() {
+	}
+
+}
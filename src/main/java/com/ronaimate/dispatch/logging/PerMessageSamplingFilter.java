@@ -0,0 +1,46 @@
+package com.ronaimate.dispatch.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Lets through one in {@code sampleRate} logs marked {@link LogMarkers#PER_MESSAGE} below warning level and denies
+ * the others. Turbo filters run before a log event is created, so the arguments of a denied log are never
+ * formatted. Warnings, errors and unmarked logs are not sampled.
+ */
+public class PerMessageSamplingFilter extends TurboFilter {
+
+	private final AtomicLong count = new AtomicLong();
+
+	private int sampleRate = 1;
+
+	public void setSampleRate(final int sampleRate) {
+		this.sampleRate = sampleRate;
+	}
+
+	@Override
+	public void start() {
+		if (sampleRate < 1) {
+			addError("sampleRate must be at least 1 but was " + sampleRate);
+			return;
+		}
+		super.start();
+	}
+
+	@Override
+	public FilterReply decide(final Marker marker, final Logger logger, final Level level, final String format,
+			final Object[] params, final Throwable t) {
+		if (marker == null || !marker.contains(LogMarkers.PER_MESSAGE) || level.isGreaterOrEqual(Level.WARN)
+				|| sampleRate == 1) {
+			return FilterReply.NEUTRAL;
+		}
+		return count.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+	}
+
+}
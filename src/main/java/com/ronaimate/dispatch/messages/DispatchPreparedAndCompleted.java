@@ -0,0 +1,14 @@
+package com.ronaimate.dispatch.messages;
+
+import java.util.UUID;
+
+import lombok.Builder;
+
+/**
+ * Tracking event standing for both {@link DispatchPreparing} and {@link DispatchCompleted} of an order, sent
+ * instead of the two when {@code dispatch.trackingMode} is {@code COMBINED}.
+ */
+@Builder
+public record DispatchPreparedAndCompleted(UUID orderId, String dispatchedDate) {
+
+}
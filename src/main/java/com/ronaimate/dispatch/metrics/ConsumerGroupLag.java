@@ -0,0 +1,67 @@
+package com.ronaimate.dispatch.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+/**
+ * Lag of a consumer group behind a topic: the records between the committed offset and the end of each partition,
+ * summed over the partitions. Unlike {@code dispatch.consumer.lag}, which the consumers report from their fetch
+ * position, it is read from the broker, so it is known while the group has no running consumer too. Partitions
+ * without a committed offset are not counted.
+ */
+public class ConsumerGroupLag implements AutoCloseable {
+
+	private final Admin admin;
+
+	private final String groupId;
+
+	private final String topic;
+
+	private final Duration timeout;
+
+	public ConsumerGroupLag(final Admin admin, final String groupId, final String topic, final Duration timeout) {
+		this.admin = admin;
+		this.groupId = groupId;
+		this.topic = topic;
+		this.timeout = timeout;
+	}
+
+	public long lag() throws ExecutionException, InterruptedException, TimeoutException {
+		final Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+				.partitionsToOffsetAndMetadata()
+				.get(timeout.toMillis(), TimeUnit.MILLISECONDS)
+				.entrySet()
+				.stream()
+				.filter(entry -> topic.equals(entry.getKey().topic()) && entry.getValue() != null)
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		if (committed.isEmpty()) {
+			return 0;
+		}
+		final Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(
+						committed.keySet().stream().collect(Collectors.toMap(partition -> partition,
+								partition -> OffsetSpec.latest())))
+				.all()
+				.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+		long lag = 0;
+		for (final Map.Entry<TopicPartition, OffsetAndMetadata> entry : committed.entrySet()) {
+			lag += Math.max(0, endOffsets.get(entry.getKey()).offset() - entry.getValue().offset());
+		}
+		return lag;
+	}
+
+	@Override
+	public void close() {
+		admin.close(timeout);
+	}
+
+}
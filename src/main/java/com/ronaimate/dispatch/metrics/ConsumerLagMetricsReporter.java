@@ -0,0 +1,84 @@
+package com.ronaimate.dispatch.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.MetricsReporter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Kafka consumer metrics reporter that exposes the records lag of every assigned partition as the
+ * {@code dispatch.consumer.lag} gauge, tagged with the {@code client.id}, {@code topic} and {@code partition}. Kafka
+ * reports partition metrics to it as soon as a partition is fetched and removes them when the partition is revoked,
+ * whereas the Micrometer Kafka binder only looks for new client metrics once a minute.
+ *
+ * <p>Enabled with {@code metric.reporters}; the {@link MeterRegistry} is passed in the consumer configs under
+ * {@link #METER_REGISTRY_CONFIG}.
+ */
+public class ConsumerLagMetricsReporter implements MetricsReporter {
+
+	public static final String METER_REGISTRY_CONFIG = "dispatch.metrics.meter-registry";
+
+	private static final String FETCH_MANAGER_GROUP = "consumer-fetch-manager-metrics";
+
+	private static final String RECORDS_LAG = "records-lag";
+
+	private final Map<MetricName, Gauge> gauges = new ConcurrentHashMap<>();
+
+	private MeterRegistry registry;
+
+	private String clientId;
+
+	@Override
+	public void configure(final Map<String, ?> configs) {
+		registry = (MeterRegistry) configs.get(METER_REGISTRY_CONFIG);
+		clientId = String.valueOf(configs.get(CommonClientConfigs.CLIENT_ID_CONFIG));
+	}
+
+	@Override
+	public void init(final List<KafkaMetric> metrics) {
+		metrics.forEach(this::metricChange);
+	}
+
+	@Override
+	public void metricChange(final KafkaMetric metric) {
+		final MetricName name = metric.metricName();
+		if (registry == null || !FETCH_MANAGER_GROUP.equals(name.group()) || !RECORDS_LAG.equals(name.name())
+				|| !name.tags().containsKey("partition")) {
+			return;
+		}
+		gauges.computeIfAbsent(name, key -> Gauge.builder("dispatch.consumer.lag", metric,
+						ConsumerLagMetricsReporter::value)
+				.description("Records between the fetch position and the end of a partition")
+				.tag("client.id", clientId)
+				.tag("topic", key.tags().get("topic"))
+				.tag("partition", key.tags().get("partition"))
+				.strongReference(true)
+				.register(registry));
+	}
+
+	@Override
+	public void metricRemoval(final KafkaMetric metric) {
+		final Gauge gauge = gauges.remove(metric.metricName());
+		if (gauge != null) {
+			registry.remove(gauge);
+		}
+	}
+
+	@Override
+	public void close() {
+		gauges.values().forEach(registry::remove);
+		gauges.clear();
+	}
+
+	private static double value(final KafkaMetric metric) {
+		return metric.metricValue() instanceof Number number ? number.doubleValue() : Double.NaN;
+	}
+
+}
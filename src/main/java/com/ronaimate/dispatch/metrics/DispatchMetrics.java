@@ -0,0 +1,151 @@
+package com.ronaimate.dispatch.metrics;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of the dispatch pipeline. Timers publish percentile histograms, so latency percentiles can be aggregated
+ * across instances in Prometheus.
+ *
+ * <ul>
+ * <li>{@code dispatch.stock.lookup} - stock availability lookups, tagged {@code lookup=single|bulk}</li>
+ * <li>{@code dispatch.send} - producer sends until acknowledged, tagged with the {@code topic}</li>
+ * <li>{@code dispatch.process} - processing of one order, from the stock lookup until its events are sent</li>
+ * <li>{@code dispatch.orders} - processed orders, tagged {@code outcome=available|unavailable}</li>
+ * <li>{@code dispatch.retries}, {@code dispatch.dead.letters} and {@code dispatch.not.retryable} - retried
+ * deliveries, records published to a dead letter topic, and failures converted to a
+ * {@link com.ronaimate.exception.NotRetryableException}</li>
+ * <li>{@code dispatch.duplicates} - orders skipped because they have been processed before</li>
+ * </ul>
+ *
+ * <p>The records lag of every assigned partition is reported as {@code dispatch.consumer.lag} by
+ * {@link ConsumerLagMetricsReporter}, and the stock service circuit state and concurrency limit as
+ * {@code dispatch.stock.circuit.state} and {@code dispatch.stock.concurrency.limit} by
+ * {@link com.ronaimate.dispatch.client.StockCircuitBreaker} and
+ * {@link com.ronaimate.dispatch.client.StockConcurrencyLimiter}. The local stock snapshot reports its size and restore
+ * progress as {@code dispatch.stock.snapshot.items} and {@code dispatch.stock.snapshot.restore.remaining}, and the
+ * {@link com.ronaimate.dispatch.handler.CatchUpSwitcher} the listener profile as {@code dispatch.listener.profile}.
+ */
+@Component
+public class DispatchMetrics {
+
+	private final MeterRegistry registry;
+
+	private final Timer singleStockLookup;
+
+	private final Timer bulkStockLookup;
+
+	private final Timer process;
+
+	private final Map<String, Timer> sendByTopic = new ConcurrentHashMap<>();
+
+	private final Counter available;
+
+	private final Counter unavailable;
+
+	private final Counter retries;
+
+	private final Counter deadLetters;
+
+	private final Counter notRetryable;
+
+	private final Counter duplicates;
+
+	public DispatchMetrics(final MeterRegistry registry) {
+		this.registry = registry;
+		this.singleStockLookup = stockLookupTimer("single");
+		this.bulkStockLookup = stockLookupTimer("bulk");
+		this.process = Timer.builder("dispatch.process")
+				.description("Processing time of an order, until all of its events are sent")
+				.publishPercentileHistogram()
+				.register(registry);
+		this.available = ordersCounter("available");
+		this.unavailable = ordersCounter("unavailable");
+		this.retries = Counter.builder("dispatch.retries")
+				.description("Failed deliveries that are retried after a back-off")
+				.register(registry);
+		this.deadLetters = Counter.builder("dispatch.dead.letters")
+				.description("Records published to a dead letter topic")
+				.register(registry);
+		this.notRetryable = Counter.builder("dispatch.not.retryable")
+				.description("Failures converted to NotRetryableException")
+				.register(registry);
+		this.duplicates = Counter.builder("dispatch.duplicates")
+				.description("Orders skipped because they have been processed before")
+				.register(registry);
+	}
+
+	public Timer.Sample start() {
+		return Timer.start(registry);
+	}
+
+	public void stockLookup(final Timer.Sample sample, final boolean bulk) {
+		sample.stop(bulk ? bulkStockLookup : singleStockLookup);
+	}
+
+	/**
+	 * Times the send until it completes, successfully or not.
+	 *
+	 * @return the given send
+	 */
+	public <T> CompletableFuture<T> send(final String topic, final CompletableFuture<T> send) {
+		final Timer.Sample sample = start();
+		send.whenComplete((result, failure) -> sample.stop(sendTimer(topic)));
+		return send;
+	}
+
+	public void processed(final Timer.Sample sample) {
+		sample.stop(process);
+	}
+
+	public void outcome(final boolean isAvailable) {
+		(isAvailable ? available : unavailable).increment();
+	}
+
+	public void retry() {
+		retries.increment();
+	}
+
+	public void deadLetter() {
+		deadLetters.increment();
+	}
+
+	public void notRetryable() {
+		notRetryable.increment();
+	}
+
+	public void duplicate() {
+		duplicates.increment();
+	}
+
+	private Timer sendTimer(final String topic) {
+		return sendByTopic.computeIfAbsent(topic, key -> Timer.builder("dispatch.send")
+				.description("Time until a producer send is acknowledged")
+				.tag("topic", key)
+				.publishPercentileHistogram()
+				.register(registry));
+	}
+
+	private Timer stockLookupTimer(final String lookup) {
+		return Timer.builder("dispatch.stock.lookup")
+				.description("Stock availability lookup time")
+				.tag("lookup", lookup)
+				.publishPercentileHistogram()
+				.register(registry);
+	}
+
+	private Counter ordersCounter(final String outcome) {
+		return Counter.builder("dispatch.orders")
+				.description("Processed orders by stock availability")
+				.tag("outcome", outcome)
+				.register(registry);
+	}
+
+}
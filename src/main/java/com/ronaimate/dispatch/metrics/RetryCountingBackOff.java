@@ -0,0 +1,34 @@
+package com.ronaimate.dispatch.metrics;
+
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+
+/**
+ * Counts every back-off interval handed out by the wrapped {@link BackOff} as a retry in {@link DispatchMetrics}.
+ * Error handlers, after-rollback processors and the parallel listener all ask the back-off before each retry, so
+ * this counts retries in every listener mode.
+ */
+public class RetryCountingBackOff implements BackOff {
+
+	private final BackOff backOff;
+
+	private final DispatchMetrics metrics;
+
+	public RetryCountingBackOff(final BackOff backOff, final DispatchMetrics metrics) {
+		this.backOff = backOff;
+		this.metrics = metrics;
+	}
+
+	@Override
+	public BackOffExecution start() {
+		final BackOffExecution execution = backOff.start();
+		return () -> {
+			final long interval = execution.nextBackOff();
+			if (interval != BackOffExecution.STOP) {
+				metrics.retry();
+			}
+			return interval;
+		};
+	}
+
+}
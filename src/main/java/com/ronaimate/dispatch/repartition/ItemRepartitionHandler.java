@@ -0,0 +1,106 @@
+package com.ronaimate.dispatch.repartition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import com.ronaimate.dispatch.config.DispatchKafkaProperties;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.exception.NotRetryableException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+
+/**
+ * Re-keys {@code order.created} by item onto {@code kafka.repartition.topic}, active when
+ * {@code kafka.repartition.enabled} is true. All orders of an item land on the same partition of the repartitioned
+ * topic, from which the {@code order.created} listeners dispatch, so each instance looks up the stock of the items of
+ * its own partitions and its stock cache holds those. The order key is kept in the {@link OrderKeyHeader} and the
+ * timestamp of the order is kept as well.
+ *
+ * <p>The records of a poll are sent together and awaited once; the offsets of {@code order.created} are committed
+ * after the repartitioned records are on the topic, within the same transaction when {@code kafka.transactions} is
+ * enabled. A failed send is retried from the failing record on, so an order may be repartitioned twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "kafka.repartition.enabled", havingValue = "true")
+public class ItemRepartitionHandler {
+
+	/**
+	 * Topic expression of the {@code order.created} listeners, the counterpart of
+	 * {@link DispatchKafkaProperties.Repartition#sourceTopic()} for annotations.
+	 */
+	public static final String SOURCE_TOPIC = "#{'${kafka.repartition.enabled:false}' == 'true'"
+			+ " ? '${kafka.repartition.topic:order.created.by-item}' : 'order.created'}";
+
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+
+	private final String topic;
+
+	public ItemRepartitionHandler(final KafkaTemplate<String, Object> kafkaTemplate,
+			final DispatchKafkaProperties properties) {
+		this.kafkaTemplate = kafkaTemplate;
+		this.topic = properties.getRepartition().getTopic();
+	}
+
+	/**
+	 * Not prefixed {@code orderConsumerClient}: it does not call the stock service, so it keeps running while the
+	 * stock service circuit is open.
+	 */
+	@KafkaListener(id = "orderRepartitionClient",
+			topics = "order.created",
+			groupId = "dispatch.order.created.repartition",
+			containerFactory = "kafkaListenerContainerFactory",
+			batch = "true")
+	public void listen(final List<ConsumerRecord<String, OrderCreated>> records) throws InterruptedException {
+		log.info(PER_MESSAGE, "Repartitioning batch: size: {}", records.size());
+		final List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(records.size());
+		for (int index = 0; index < records.size(); index++) {
+			final ConsumerRecord<String, OrderCreated> record = records.get(index);
+			if (record.value() == null) {
+				awaitSends(records, sends);
+				throw new BatchListenerFailedException("Not an OrderCreated",
+						new NotRetryableException(new IllegalArgumentException("Record without a value")), index);
+			}
+			sends.add(kafkaTemplate.send(repartitioned(record)));
+		}
+		awaitSends(records, sends);
+	}
+
+	/**
+	 * @throws BatchListenerFailedException at the index of the first record that could not be sent
+	 */
+	private static void awaitSends(final List<ConsumerRecord<String, OrderCreated>> records,
+			final List<CompletableFuture<SendResult<String, Object>>> sends) throws InterruptedException {
+		for (int index = 0; index < sends.size(); index++) {
+			try {
+				sends.get(index).get();
+			} catch (ExecutionException e) {
+				throw new BatchListenerFailedException("Repartitioning failed for orderId: "
+						+ records.get(index).value().orderId(), e.getCause(), index);
+			}
+		}
+	}
+
+	ProducerRecord<String, Object> repartitioned(final ConsumerRecord<String, OrderCreated> record) {
+		// a record without a timestamp is given the time it is repartitioned at
+		final Long timestamp = record.timestamp() < 0 ? null : record.timestamp();
+		final ProducerRecord<String, Object> repartitioned = new ProducerRecord<>(topic, null, timestamp,
+				record.value().item(), record.value());
+		OrderKeyHeader.set(repartitioned.headers(), record.key());
+		return repartitioned;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.ronaimate.dispatch.repartition;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+/**
+ * The key an order was created with, carried by the records {@link ItemRepartitionHandler} re-keys by item, so the
+ * outbound events of the order and its dead letter are keyed by it as before.
+ */
+public final class OrderKeyHeader {
+
+	public static final String NAME = "dispatch_order_key";
+
+	private OrderKeyHeader() {
+	}
+
+	/**
+	 * The order key of a consumed record: its header if it has been repartitioned, its key otherwise.
+	 */
+	public static String orderKey(final ConsumerRecord<String, ?> record) {
+		return orderKey(record.key(), record.headers());
+	}
+
+	public static String orderKey(final String key, final Headers headers) {
+		final Header header = headers.lastHeader(NAME);
+		return orderKey(key, header == null ? null : header.value());
+	}
+
+	/**
+	 * @param header the value of the header, if the record has it
+	 */
+	public static String orderKey(final String key, final byte[] header) {
+		return header == null ? key : new String(header, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Records the order key; an order without a key has none, and is dispatched under its item.
+	 */
+	static void set(final Headers headers, final String orderKey) {
+		if (orderKey != null) {
+			headers.add(NAME, orderKey.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+}
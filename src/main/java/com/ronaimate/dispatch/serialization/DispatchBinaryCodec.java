@@ -0,0 +1,207 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparing;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.messages.OrderDispatched;
+
+/**
+ * Fixed binary layout of the dispatch messages.
+ *
+ * <pre>
+ * magic (1 byte) | type (1 byte) | null fields (1 byte, bit i set when field i is null) | fields
+ * </pre>
+ *
+ * Fields follow in record component order and are omitted when null: a UUID as two big-endian longs, a String as a
+ * big-endian int length followed by its UTF-8 bytes. The magic byte cannot start a JSON document, which lets
+ * {@link DispatchMessageDeserializer} tell binary and JSON records apart.
+ */
+public final class DispatchBinaryCodec {
+
+	public static final byte MAGIC = (byte) 0xDB;
+
+	private static final byte ORDER_CREATED = 1;
+
+	private static final byte DISPATCH_PREPARING = 2;
+
+	private static final byte ORDER_DISPATCHED = 3;
+
+	private static final byte DISPATCH_COMPLETED = 4;
+
+	private static final byte DISPATCH_PREPARED_AND_COMPLETED = 5;
+
+	private static final int HEADER_SIZE = 3;
+
+	private static final int UUID_SIZE = 16;
+
+	private DispatchBinaryCodec() {
+	}
+
+	public static boolean isBinary(final byte[] data) {
+		return data != null && data.length > 0 && data[0] == MAGIC;
+	}
+
+	public static boolean supports(final Object message) {
+		return message instanceof OrderCreated || message instanceof DispatchPreparing
+				|| message instanceof OrderDispatched || message instanceof DispatchCompleted
+				|| message instanceof DispatchPreparedAndCompleted;
+	}
+
+	public static byte[] encode(final Object message) {
+		if (message instanceof OrderCreated orderCreated) {
+			final byte[] item = utf8(orderCreated.item());
+			return writer(ORDER_CREATED, orderCreated.orderId(), item)
+					.putUuid(orderCreated.orderId())
+					.putString(item)
+					.array();
+		}
+		if (message instanceof DispatchPreparing dispatchPreparing) {
+			return writer(DISPATCH_PREPARING, dispatchPreparing.orderId())
+					.putUuid(dispatchPreparing.orderId())
+					.array();
+		}
+		if (message instanceof OrderDispatched orderDispatched) {
+			final byte[] note = utf8(orderDispatched.note());
+			return writer(ORDER_DISPATCHED, orderDispatched.orderId(), orderDispatched.processedById(), note)
+					.putUuid(orderDispatched.orderId())
+					.putUuid(orderDispatched.processedById())
+					.putString(note)
+					.array();
+		}
+		if (message instanceof DispatchCompleted dispatchCompleted) {
+			final byte[] dispatchedDate = utf8(dispatchCompleted.dispatchedDate());
+			return writer(DISPATCH_COMPLETED, dispatchCompleted.orderId(), dispatchedDate)
+					.putUuid(dispatchCompleted.orderId())
+					.putString(dispatchedDate)
+					.array();
+		}
+		if (message instanceof DispatchPreparedAndCompleted dispatchPreparedAndCompleted) {
+			final byte[] dispatchedDate = utf8(dispatchPreparedAndCompleted.dispatchedDate());
+			return writer(DISPATCH_PREPARED_AND_COMPLETED, dispatchPreparedAndCompleted.orderId(), dispatchedDate)
+					.putUuid(dispatchPreparedAndCompleted.orderId())
+					.putString(dispatchedDate)
+					.array();
+		}
+		throw new SerializationException("No binary layout for " + message.getClass().getName());
+	}
+
+	public static Object decode(final byte[] data) {
+		if (!isBinary(data) || data.length < HEADER_SIZE) {
+			throw new SerializationException("Not a binary dispatch message");
+		}
+		final Reader reader = new Reader(data);
+		try {
+			return switch (data[1]) {
+				case ORDER_CREATED -> new OrderCreated(reader.uuid(), reader.string());
+				case DISPATCH_PREPARING -> new DispatchPreparing(reader.uuid());
+				case ORDER_DISPATCHED -> new OrderDispatched(reader.uuid(), reader.uuid(), reader.string());
+				case DISPATCH_COMPLETED -> new DispatchCompleted(reader.uuid(), reader.string());
+				case DISPATCH_PREPARED_AND_COMPLETED ->
+						new DispatchPreparedAndCompleted(reader.uuid(), reader.string());
+				default -> throw new SerializationException("Unknown binary dispatch message type " + data[1]);
+			};
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			throw new SerializationException("Truncated binary dispatch message", e);
+		}
+	}
+
+	/**
+	 * @param fields the field values in layout order, Strings already encoded as UTF-8
+	 */
+	private static Writer writer(final byte type, final Object... fields) {
+		int size = HEADER_SIZE;
+		int nullFields = 0;
+		for (int i = 0; i < fields.length; i++) {
+			if (fields[i] == null) {
+				nullFields |= 1 << i;
+			} else if (fields[i] instanceof byte[] utf8) {
+				size += Integer.BYTES + utf8.length;
+			} else {
+				size += UUID_SIZE;
+			}
+		}
+		return new Writer(size).header(type, (byte) nullFields);
+	}
+
+	private static byte[] utf8(final String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static final class Writer {
+
+		private final ByteBuffer buffer;
+
+		Writer(final int size) {
+			this.buffer = ByteBuffer.allocate(size);
+		}
+
+		Writer header(final byte type, final byte nullFields) {
+			buffer.put(MAGIC).put(type).put(nullFields);
+			return this;
+		}
+
+		Writer putUuid(final UUID value) {
+			if (value != null) {
+				buffer.putLong(value.getMostSignificantBits()).putLong(value.getLeastSignificantBits());
+			}
+			return this;
+		}
+
+		Writer putString(final byte[] utf8) {
+			if (utf8 != null) {
+				buffer.putInt(utf8.length).put(utf8);
+			}
+			return this;
+		}
+
+		byte[] array() {
+			return buffer.array();
+		}
+
+	}
+
+	private static final class Reader {
+
+		private final ByteBuffer buffer;
+
+		private final int nullFields;
+
+		private int field;
+
+		Reader(final byte[] data) {
+			this.buffer = ByteBuffer.wrap(data, HEADER_SIZE, data.length - HEADER_SIZE);
+			this.nullFields = data[2];
+		}
+
+		UUID uuid() {
+			if (isNull()) {
+				return null;
+			}
+			return new UUID(buffer.getLong(), buffer.getLong());
+		}
+
+		String string() {
+			if (isNull()) {
+				return null;
+			}
+			final int length = buffer.getInt();
+			final String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+			buffer.position(buffer.position() + length);
+			return value;
+		}
+
+		private boolean isNull() {
+			return (nullFields & (1 << field++)) != 0;
+		}
+
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.ronaimate.dispatch.serialization;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Writes dispatch messages in the {@link DispatchBinaryCodec} layout. The message type is part of the payload, so
+ * no type header is added. Raw {@code byte[]} values, such as undeserializable records on their way to a dead
+ * letter topic, are passed through unchanged.
+ */
+public class DispatchBinarySerializer implements Serializer<Object> {
+
+	@Override
+	public byte[] serialize(final String topic, final Object data) {
+		if (data == null) {
+			return null;
+		}
+		if (data instanceof byte[] bytes) {
+			return bytes;
+		}
+		return DispatchBinaryCodec.encode(data);
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparing;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.messages.OrderDispatched;
+
+/**
+ * Streaming JSON reader and writer of the dispatch messages. The JSON and the {@code __TypeId__} header are the
+ * same as Spring's {@code JsonSerializer} writes, so either side of a topic can use the Spring serializers. Unlike
+ * them it does not resolve classes or build records reflectively, reads and writes UUIDs as characters without an
+ * intermediate String, and writes into a per-thread buffer.
+ */
+public final class DispatchJsonCodec {
+
+	public static final String TYPE_ID_HEADER = AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME;
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private static final byte[] ORDER_CREATED = typeId(OrderCreated.class);
+
+	private static final byte[] DISPATCH_PREPARING = typeId(DispatchPreparing.class);
+
+	private static final byte[] ORDER_DISPATCHED = typeId(OrderDispatched.class);
+
+	private static final byte[] DISPATCH_COMPLETED = typeId(DispatchCompleted.class);
+
+	private static final byte[] DISPATCH_PREPARED_AND_COMPLETED = typeId(DispatchPreparedAndCompleted.class);
+
+	private static final int UUID_LENGTH = 36;
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private static final ThreadLocal<WriteBuffers> WRITE_BUFFERS = ThreadLocal.withInitial(WriteBuffers::new);
+
+	private DispatchJsonCodec() {
+	}
+
+	public static boolean supports(final Object message) {
+		return message instanceof OrderCreated || message instanceof DispatchPreparing
+				|| message instanceof OrderDispatched || message instanceof DispatchCompleted
+				|| message instanceof DispatchPreparedAndCompleted;
+	}
+
+	/**
+	 * @return the {@code __TypeId__} header value of the message, which must be {@link #supports supported}
+	 */
+	public static byte[] typeId(final Object message) {
+		if (message instanceof OrderCreated) {
+			return ORDER_CREATED;
+		}
+		if (message instanceof DispatchPreparing) {
+			return DISPATCH_PREPARING;
+		}
+		if (message instanceof OrderDispatched) {
+			return ORDER_DISPATCHED;
+		}
+		if (message instanceof DispatchCompleted) {
+			return DISPATCH_COMPLETED;
+		}
+		if (message instanceof DispatchPreparedAndCompleted) {
+			return DISPATCH_PREPARED_AND_COMPLETED;
+		}
+		throw new SerializationException("No JSON layout for " + message.getClass().getName());
+	}
+
+	/**
+	 * @return whether {@link #decode} can read records with this {@code __TypeId__} header value
+	 */
+	public static boolean supportsTypeId(final byte[] typeId) {
+		return Arrays.equals(typeId, ORDER_CREATED) || Arrays.equals(typeId, DISPATCH_PREPARING)
+				|| Arrays.equals(typeId, ORDER_DISPATCHED) || Arrays.equals(typeId, DISPATCH_COMPLETED)
+				|| Arrays.equals(typeId, DISPATCH_PREPARED_AND_COMPLETED);
+	}
+
+	public static byte[] encode(final Object message) {
+		final WriteBuffers buffers = WRITE_BUFFERS.get();
+		buffers.output.reset();
+		try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffers.output)) {
+			generator.writeStartObject();
+			if (message instanceof OrderCreated orderCreated) {
+				writeUuid(generator, buffers, "orderId", orderCreated.orderId());
+				generator.writeStringField("item", orderCreated.item());
+			} else if (message instanceof DispatchPreparing dispatchPreparing) {
+				writeUuid(generator, buffers, "orderId", dispatchPreparing.orderId());
+			} else if (message instanceof OrderDispatched orderDispatched) {
+				writeUuid(generator, buffers, "orderId", orderDispatched.orderId());
+				writeUuid(generator, buffers, "processedById", orderDispatched.processedById());
+				generator.writeStringField("note", orderDispatched.note());
+			} else if (message instanceof DispatchCompleted dispatchCompleted) {
+				writeUuid(generator, buffers, "orderId", dispatchCompleted.orderId());
+				generator.writeStringField("dispatchedDate", dispatchCompleted.dispatchedDate());
+			} else if (message instanceof DispatchPreparedAndCompleted dispatchPreparedAndCompleted) {
+				writeUuid(generator, buffers, "orderId", dispatchPreparedAndCompleted.orderId());
+				generator.writeStringField("dispatchedDate", dispatchPreparedAndCompleted.dispatchedDate());
+			} else {
+				throw new SerializationException("No JSON layout for " + message.getClass().getName());
+			}
+			generator.writeEndObject();
+		} catch (IOException e) {
+			throw new SerializationException("Cannot write " + message.getClass().getName(), e);
+		}
+		return buffers.output.toByteArray();
+	}
+
+	/**
+	 * @param typeId the {@code __TypeId__} header value, one of the {@link #supportsTypeId supported} ones
+	 */
+	public static Object decode(final byte[] typeId, final byte[] data) {
+		try (JsonParser parser = JSON_FACTORY.createParser(data)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new SerializationException("Not a JSON object");
+			}
+			UUID orderId = null;
+			UUID processedById = null;
+			String text = null;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				// field names are canonicalized by the parser, so this allocates nothing per record
+				final String field = parser.currentName();
+				parser.nextToken();
+				switch (field) {
+					case "orderId" -> orderId = readUuid(parser);
+					case "processedById" -> processedById = readUuid(parser);
+					case "item", "note", "dispatchedDate" -> text = parser.currentToken() == JsonToken.VALUE_NULL
+							? null
+							: parser.getText();
+					default -> parser.skipChildren();
+				}
+			}
+			if (Arrays.equals(typeId, ORDER_CREATED)) {
+				return new OrderCreated(orderId, text);
+			}
+			if (Arrays.equals(typeId, DISPATCH_PREPARING)) {
+				return new DispatchPreparing(orderId);
+			}
+			if (Arrays.equals(typeId, ORDER_DISPATCHED)) {
+				return new OrderDispatched(orderId, processedById, text);
+			}
+			if (Arrays.equals(typeId, DISPATCH_COMPLETED)) {
+				return new DispatchCompleted(orderId, text);
+			}
+			if (Arrays.equals(typeId, DISPATCH_PREPARED_AND_COMPLETED)) {
+				return new DispatchPreparedAndCompleted(orderId, text);
+			}
+			throw new SerializationException("Unknown type " + new String(typeId, StandardCharsets.UTF_8));
+		} catch (IOException | IllegalArgumentException e) {
+			throw new SerializationException("Cannot read dispatch message", e);
+		}
+	}
+
+	private static void writeUuid(final JsonGenerator generator, final WriteBuffers buffers, final String field,
+			final UUID value) throws IOException {
+		generator.writeFieldName(field);
+		if (value == null) {
+			generator.writeNull();
+			return;
+		}
+		final char[] chars = buffers.uuid;
+		hex(value.getMostSignificantBits() >>> 32, chars, 0, 8);
+		chars[8] = '-';
+		hex(value.getMostSignificantBits() >>> 16, chars, 9, 4);
+		chars[13] = '-';
+		hex(value.getMostSignificantBits(), chars, 14, 4);
+		chars[18] = '-';
+		hex(value.getLeastSignificantBits() >>> 48, chars, 19, 4);
+		chars[23] = '-';
+		hex(value.getLeastSignificantBits(), chars, 24, 12);
+		generator.writeString(chars, 0, UUID_LENGTH);
+	}
+
+	private static void hex(long value, final char[] chars, final int offset, final int digits) {
+		for (int i = offset + digits - 1; i >= offset; i--) {
+			chars[i] = HEX[(int) (value & 0xF)];
+			value >>>= 4;
+		}
+	}
+
+	private static UUID readUuid(final JsonParser parser) throws IOException {
+		if (parser.currentToken() == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		final char[] chars = parser.getTextCharacters();
+		final int offset = parser.getTextOffset();
+		if (parser.getTextLength() != UUID_LENGTH || chars[offset + 8] != '-' || chars[offset + 13] != '-'
+				|| chars[offset + 18] != '-' || chars[offset + 23] != '-') {
+			// not the canonical form Jackson writes; let UUID decide whether it is valid
+			return UUID.fromString(parser.getText());
+		}
+		final long mostSignificantBits = (parseHex(chars, offset, 8) << 32)
+				| (parseHex(chars, offset + 9, 4) << 16)
+				| parseHex(chars, offset + 14, 4);
+		final long leastSignificantBits = (parseHex(chars, offset + 19, 4) << 48)
+				| parseHex(chars, offset + 24, 12);
+		return new UUID(mostSignificantBits, leastSignificantBits);
+	}
+
+	private static long parseHex(final char[] chars, final int offset, final int digits) {
+		long value = 0;
+		for (int i = offset; i < offset + digits; i++) {
+			final int digit = Character.digit(chars[i], 16);
+			if (digit < 0) {
+				throw new IllegalArgumentException("Invalid UUID character: " + chars[i]);
+			}
+			value = (value << 4) | digit;
+		}
+		return value;
+	}
+
+	private static byte[] typeId(final Class<?> type) {
+		return type.getName().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static final class WriteBuffers {
+
+		private final ByteArrayOutputStream output = new ByteArrayOutputStream(256);
+
+		private final char[] uuid = new char[UUID_LENGTH];
+
+	}
+
+}
@@ -0,0 +1,46 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Writes dispatch messages with {@link DispatchJsonCodec}, producing the same JSON and {@code __TypeId__} header as
+ * Spring's {@link JsonSerializer}. Anything else, including raw {@code byte[]} values on their way to a dead letter
+ * topic, is handed to a {@link JsonSerializer}.
+ */
+public class DispatchJsonSerializer implements Serializer<Object> {
+
+	private final JsonSerializer<Object> jsonSerializer = new JsonSerializer<>();
+
+	@Override
+	public void configure(final Map<String, ?> configs, final boolean isKey) {
+		jsonSerializer.configure(configs, isKey);
+	}
+
+	@Override
+	public byte[] serialize(final String topic, final Object data) {
+		if (DispatchJsonCodec.supports(data)) {
+			return DispatchJsonCodec.encode(data);
+		}
+		return jsonSerializer.serialize(topic, data);
+	}
+
+	@Override
+	public byte[] serialize(final String topic, final Headers headers, final Object data) {
+		if (DispatchJsonCodec.supports(data)) {
+			headers.remove(DispatchJsonCodec.TYPE_ID_HEADER);
+			headers.add(DispatchJsonCodec.TYPE_ID_HEADER, DispatchJsonCodec.typeId(data));
+			return DispatchJsonCodec.encode(data);
+		}
+		return jsonSerializer.serialize(topic, headers, data);
+	}
+
+	@Override
+	public void close() {
+		jsonSerializer.close();
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Reads records written by either {@link DispatchBinarySerializer} or a JSON serializer, telling them apart by the
+ * {@link DispatchBinaryCodec#MAGIC} byte. JSON records whose {@code __TypeId__} header names a dispatch message are
+ * read with {@link DispatchJsonCodec}; any other JSON record is handed to a {@link JsonDeserializer} that is
+ * configured like this deserializer, so type headers and trusted packages keep working, and a topic can be switched
+ * to the binary format while JSON records are still on it.
+ *
+ * <p>Failures are thrown as {@link org.apache.kafka.common.errors.SerializationException} for the
+ * {@code ErrorHandlingDeserializer} that wraps this deserializer.
+ */
+public class DispatchMessageDeserializer implements Deserializer<Object> {
+
+	private final JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
+
+	private boolean useTypeHeaders = true;
+
+	private boolean removeTypeHeaders = true;
+
+	@Override
+	public void configure(final Map<String, ?> configs, final boolean isKey) {
+		jsonDeserializer.configure(configs, isKey);
+		useTypeHeaders = booleanConfig(configs, JsonDeserializer.USE_TYPE_INFO_HEADERS);
+		removeTypeHeaders = booleanConfig(configs, JsonDeserializer.REMOVE_TYPE_INFO_HEADERS);
+	}
+
+	@Override
+	public Object deserialize(final String topic, final byte[] data) {
+		if (DispatchBinaryCodec.isBinary(data)) {
+			return DispatchBinaryCodec.decode(data);
+		}
+		return jsonDeserializer.deserialize(topic, data);
+	}
+
+	@Override
+	public Object deserialize(final String topic, final Headers headers, final byte[] data) {
+		if (DispatchBinaryCodec.isBinary(data)) {
+			return DispatchBinaryCodec.decode(data);
+		}
+		final Header typeId = useTypeHeaders && data != null ? headers.lastHeader(DispatchJsonCodec.TYPE_ID_HEADER)
+				: null;
+		if (typeId != null && DispatchJsonCodec.supportsTypeId(typeId.value())) {
+			if (removeTypeHeaders) {
+				headers.remove(DispatchJsonCodec.TYPE_ID_HEADER);
+			}
+			return DispatchJsonCodec.decode(typeId.value(), data);
+		}
+		return jsonDeserializer.deserialize(topic, headers, data);
+	}
+
+	@Override
+	public void close() {
+		jsonDeserializer.close();
+	}
+
+	private static boolean booleanConfig(final Map<String, ?> configs, final String name) {
+		final Object value = configs.get(name);
+		return value == null || Boolean.parseBoolean(value.toString());
+	}
+
+}
@@ -1,29 +1,47 @@
 package com.ronaimate.dispatch.service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
 
 import com.ronaimate.dispatch.client.StockServiceClient;
+import com.ronaimate.dispatch.dedup.ProcessedOrders;
 import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
 import com.ronaimate.dispatch.messages.DispatchPreparing;
 import com.ronaimate.dispatch.messages.OrderCreated;
 import com.ronaimate.dispatch.messages.OrderDispatched;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.repartition.OrderKeyHeader;
+import com.ronaimate.exception.NotRetryableException;
+
+import io.micrometer.core.instrument.Timer;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class DispatchService {
 
-	private static final String DISPATCH_TRACKING_TOPIC = "dispatch.tracking";
+	static final String DISPATCH_TRACKING_TOPIC = "dispatch.tracking";
 
-	private static final String ORDER_DISPATCHED_TOPIC = "order.dispatched";
+	static final String ORDER_DISPATCHED_TOPIC = "order.dispatched";
 
 	public static final UUID APPLICATION_ID = UUID.randomUUID();
 
@@ -31,34 +49,250 @@ public class DispatchService {
 
 	private final StockServiceClient stockServiceClient;
 
+	private final DispatchMetrics metrics;
+
+	private final ProcessedOrders processedOrders;
+
+	private final TrackingMode trackingMode;
+
+	/**
+	 * When set, the outbound events of an order are sent back to back and awaited once, instead of waiting
+	 * for each acknowledgement before the next send. Ordering per key is kept by the producer, which sends records
+	 * of the same key to the same partition in the order they were handed over.
+	 */
+	private final boolean pipelineSends;
+
+	@Autowired
+	public DispatchService(final KafkaTemplate<String, Object> kafkaProducer,
+			final StockServiceClient stockServiceClient, final DispatchMetrics metrics,
+			final ProcessedOrders processedOrders,
+			@Value("${dispatch.trackingMode:SEPARATE}") final TrackingMode trackingMode,
+			@Value("${dispatch.pipelineSends:false}") final boolean pipelineSends) {
+		this.kafkaProducer = kafkaProducer;
+		this.stockServiceClient = stockServiceClient;
+		this.metrics = metrics;
+		this.processedOrders = processedOrders;
+		this.trackingMode = trackingMode;
+		this.pipelineSends = pipelineSends;
+	}
+
+	/**
+	 * A service that dispatches as this one, but sends the outbound events with the given producer.
+	 */
+	public DispatchService sendingWith(final KafkaTemplate<String, Object> kafkaProducer) {
+		return new DispatchService(kafkaProducer, stockServiceClient, metrics, processedOrders, trackingMode,
+				pipelineSends);
+	}
+
+	/**
+	 * Dispatches an order unless it has been processed already, in which case it is skipped without a stock lookup.
+	 */
 	public void process(final String key, final OrderCreated orderCreated)
 			throws ExecutionException, InterruptedException {
+		if (processedOrders.isProcessed(orderCreated.orderId())) {
+			skipDuplicate(orderCreated);
+			return;
+		}
+		final Timer.Sample processSample = metrics.start();
 
-		final String available = stockServiceClient.checkAvailability(orderCreated.item());
+		final String available = checkAvailability(orderCreated.item());
 
+		metrics.outcome(Boolean.valueOf(available));
 		if (Boolean.valueOf(available)) {
-			kafkaProducer.send(DISPATCH_TRACKING_TOPIC, key, DispatchPreparing.builder()
-					.orderId(orderCreated.orderId())
-					.build()).get();
-
-			kafkaProducer.send(ORDER_DISPATCHED_TOPIC, key, OrderDispatched.builder()
-					.orderId(orderCreated.orderId())
-					.processedById(APPLICATION_ID)
-					.note("Dispatched: " + orderCreated.item())
-					.build()).get();
-
-			kafkaProducer.send(DISPATCH_TRACKING_TOPIC, key, DispatchCompleted.builder()
-					.orderId(orderCreated.orderId())
-					.dispatchedDate(LocalDate.now().toString())
-					.build()).get();
-
-			log.info("Sent message: key: {} - orderId: {} - processedById: {}", key, orderCreated.orderId(),
-					APPLICATION_ID);
+			if (pipelineSends) {
+				sendEvents(key, orderCreated).get();
+			} else if (trackingMode == TrackingMode.COMBINED) {
+				send(ORDER_DISPATCHED_TOPIC, key, orderDispatched(orderCreated)).get();
+
+				send(DISPATCH_TRACKING_TOPIC, key, dispatchPreparedAndCompleted(orderCreated)).get();
+			} else {
+				send(DISPATCH_TRACKING_TOPIC, key, dispatchPreparing(orderCreated)).get();
+
+				send(ORDER_DISPATCHED_TOPIC, key, orderDispatched(orderCreated)).get();
+
+				send(DISPATCH_TRACKING_TOPIC, key, dispatchCompleted(orderCreated)).get();
+			}
+
+			log.info(PER_MESSAGE, "Sent message: key: {} - orderId: {} - processedById: {}", key,
+					orderCreated.orderId(), APPLICATION_ID);
 		} else {
-			log.info("Item {} is unavailable.", orderCreated.item());
+			log.info(PER_MESSAGE, "Item {} is unavailable.", orderCreated.item());
+		}
+		processedOrders.markProcessed(orderCreated.orderId());
+		metrics.processed(processSample);
+	}
+
+	/**
+	 * Processes a whole poll of {@link OrderCreated} records. Availability of all distinct items in the batch is
+	 * fetched with one bulk lookup; items it does not answer for, or all items when it fails, are looked up one by
+	 * one, overlapping with the in-flight sends of the records before them. The sends are only awaited once at the
+	 * end of the batch. Orders processed before, or earlier in the same batch, are skipped without a stock lookup.
+	 * A record without a value, as left by a failed deserialization, fails the batch at its index as not retryable.
+	 *
+	 * @throws BatchListenerFailedException at the index of the first record that could not be dispatched; all
+	 * records before that index have been fully sent when it is thrown.
+	 */
+	public void process(final List<ConsumerRecord<String, OrderCreated>> records) throws InterruptedException {
+		final Timer.Sample batchSample = metrics.start();
+		final List<CompletableFuture<Void>> pendingSends = new ArrayList<>(records.size());
+		final boolean[] duplicates = duplicates(records);
+		final Map<String, String> availabilityByItem = prefetchAvailability(records, duplicates);
+
+		for (int index = 0; index < records.size(); index++) {
+			final ConsumerRecord<String, OrderCreated> record = records.get(index);
+			final OrderCreated orderCreated = record.value();
+			if (orderCreated == null) {
+				awaitSends(records, duplicates, pendingSends);
+				throw new BatchListenerFailedException("Not an OrderCreated",
+						new NotRetryableException(new IllegalArgumentException("Record without a value")), index);
+			}
+			if (duplicates[index]) {
+				skipDuplicate(orderCreated);
+				pendingSends.add(CompletableFuture.completedFuture(null));
+				continue;
+			}
+			try {
+				final String available = availabilityByItem.computeIfAbsent(orderCreated.item(),
+						this::checkAvailability);
+
+				metrics.outcome(Boolean.valueOf(available));
+				if (Boolean.valueOf(available)) {
+					final CompletableFuture<Void> sends = sendEvents(OrderKeyHeader.orderKey(record), orderCreated);
+					// an order of a batch is processed from the start of the batch until its own events are sent
+					sends.thenRun(() -> metrics.processed(batchSample));
+					pendingSends.add(sends);
+				} else {
+					log.info(PER_MESSAGE, "Item {} is unavailable.", orderCreated.item());
+					metrics.processed(batchSample);
+					pendingSends.add(CompletableFuture.completedFuture(null));
+				}
+			} catch (RuntimeException e) {
+				awaitSends(records, duplicates, pendingSends);
+				throw new BatchListenerFailedException("Dispatch failed for orderId: " + orderCreated.orderId(), e,
+						index);
+			}
 		}
 
+		awaitSends(records, duplicates, pendingSends);
+		log.info(PER_MESSAGE, "Sent batch: size: {} - processedById: {}", records.size(), APPLICATION_ID);
+	}
+
+	private boolean[] duplicates(final List<ConsumerRecord<String, OrderCreated>> records) {
+		final boolean[] duplicates = new boolean[records.size()];
+		if (!processedOrders.isEnabled()) {
+			return duplicates;
+		}
+		final Set<UUID> batchOrderIds = new HashSet<>();
+		for (int index = 0; index < records.size(); index++) {
+			final OrderCreated orderCreated = records.get(index).value();
+			if (orderCreated != null) {
+				final UUID orderId = orderCreated.orderId();
+				duplicates[index] = processedOrders.isProcessed(orderId) || !batchOrderIds.add(orderId);
+			}
+		}
+		return duplicates;
+	}
+
+	private Map<String, String> prefetchAvailability(final List<ConsumerRecord<String, OrderCreated>> records,
+			final boolean[] duplicates) {
+		final List<String> items = new ArrayList<>(records.size());
+		for (int index = 0; index < records.size(); index++) {
+			final OrderCreated orderCreated = records.get(index).value();
+			if (!duplicates[index] && orderCreated != null) {
+				items.add(orderCreated.item());
+			}
+		}
+		if (items.isEmpty()) {
+			return new HashMap<>();
+		}
+		final Timer.Sample sample = metrics.start();
+		try {
+			return new HashMap<>(stockServiceClient.checkAvailability(items));
+		} catch (RuntimeException e) {
+			log.warn("Bulk stock lookup failed, looking up items one by one: {}", e.getMessage());
+			return new HashMap<>();
+		} finally {
+			metrics.stockLookup(sample, true);
+		}
+	}
+
+	private String checkAvailability(final String item) {
+		final Timer.Sample sample = metrics.start();
+		try {
+			return stockServiceClient.checkAvailability(item);
+		} finally {
+			metrics.stockLookup(sample, false);
+		}
+	}
+
+	/**
+	 * Sends the outbound events of a dispatched order back to back.
+	 */
+	private CompletableFuture<Void> sendEvents(final String key, final OrderCreated orderCreated) {
+		if (trackingMode == TrackingMode.COMBINED) {
+			return CompletableFuture.allOf(
+					send(ORDER_DISPATCHED_TOPIC, key, orderDispatched(orderCreated)),
+					send(DISPATCH_TRACKING_TOPIC, key, dispatchPreparedAndCompleted(orderCreated)));
+		}
+		return CompletableFuture.allOf(
+				send(DISPATCH_TRACKING_TOPIC, key, dispatchPreparing(orderCreated)),
+				send(ORDER_DISPATCHED_TOPIC, key, orderDispatched(orderCreated)),
+				send(DISPATCH_TRACKING_TOPIC, key, dispatchCompleted(orderCreated)));
+	}
+
+	private CompletableFuture<?> send(final String topic, final String key, final Object event) {
+		return metrics.send(topic, kafkaProducer.send(topic, key, event));
+	}
+
+	/**
+	 * Awaits the sends of the records processed so far and marks them as processed, up to the first failed send.
+	 */
+	private void awaitSends(final List<ConsumerRecord<String, OrderCreated>> records, final boolean[] duplicates,
+			final List<CompletableFuture<Void>> pendingSends) throws InterruptedException {
+		for (int index = 0; index < pendingSends.size(); index++) {
+			try {
+				pendingSends.get(index).get();
+			} catch (ExecutionException e) {
+				throw new BatchListenerFailedException(
+						"Send failed for orderId: " + records.get(index).value().orderId(), e.getCause(), index);
+			}
+			if (!duplicates[index]) {
+				processedOrders.markProcessed(records.get(index).value().orderId());
+			}
+		}
+	}
+
+	private void skipDuplicate(final OrderCreated orderCreated) {
+		metrics.duplicate();
+		log.info(PER_MESSAGE, "Skipping already processed orderId: {}", orderCreated.orderId());
+	}
+
+	static DispatchPreparing dispatchPreparing(final OrderCreated orderCreated) {
+		return DispatchPreparing.builder()
+				.orderId(orderCreated.orderId())
+				.build();
+	}
+
+	static OrderDispatched orderDispatched(final OrderCreated orderCreated) {
+		return OrderDispatched.builder()
+				.orderId(orderCreated.orderId())
+				.processedById(APPLICATION_ID)
+				.note("Dispatched: " + orderCreated.item())
+				.build();
+	}
+
+	static DispatchCompleted dispatchCompleted(final OrderCreated orderCreated) {
+		return DispatchCompleted.builder()
+				.orderId(orderCreated.orderId())
+				.dispatchedDate(LocalDate.now().toString())
+				.build();
+	}
 
+	static DispatchPreparedAndCompleted dispatchPreparedAndCompleted(final OrderCreated orderCreated) {
+		return DispatchPreparedAndCompleted.builder()
+				.orderId(orderCreated.orderId())
+				.dispatchedDate(LocalDate.now().toString())
+				.build();
 	}
 
 }
@@ -0,0 +1,116 @@
+package com.ronaimate.dispatch.service;
+
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.stereotype.Service;
+
+import com.ronaimate.dispatch.client.AsyncStockServiceClient;
+import com.ronaimate.dispatch.dedup.ProcessedOrders;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import reactor.core.publisher.Mono;
+
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+import static com.ronaimate.dispatch.service.DispatchService.APPLICATION_ID;
+import static com.ronaimate.dispatch.service.DispatchService.DISPATCH_TRACKING_TOPIC;
+import static com.ronaimate.dispatch.service.DispatchService.ORDER_DISPATCHED_TOPIC;
+
+/**
+ * Non-blocking counterpart of {@link DispatchService#process(String, OrderCreated)}, active when
+ * {@code kafka.listener.mode} is {@code reactive}. The stock lookup goes through the {@link AsyncStockServiceClient}
+ * and the events are sent back to back through a reactive producer, so no thread waits for either. The events and
+ * their order are the same as those of {@link DispatchService}, including {@code dispatch.trackingMode}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "kafka.listener.mode", havingValue = "reactive")
+public class ReactiveDispatchService {
+
+	private final ReactiveKafkaProducerTemplate<String, Object> kafkaProducer;
+
+	private final AsyncStockServiceClient stockServiceClient;
+
+	private final DispatchMetrics metrics;
+
+	private final ProcessedOrders processedOrders;
+
+	private final TrackingMode trackingMode;
+
+	public ReactiveDispatchService(final ReactiveKafkaProducerTemplate<String, Object> kafkaProducer,
+			final AsyncStockServiceClient stockServiceClient, final DispatchMetrics metrics,
+			final ProcessedOrders processedOrders,
+			@Value("${dispatch.trackingMode:SEPARATE}") final TrackingMode trackingMode) {
+		this.kafkaProducer = kafkaProducer;
+		this.stockServiceClient = stockServiceClient;
+		this.metrics = metrics;
+		this.processedOrders = processedOrders;
+		this.trackingMode = trackingMode;
+	}
+
+	/**
+	 * Dispatches an order unless it has been processed already; completes once its events have been acknowledged.
+	 */
+	public Mono<Void> process(final String key, final OrderCreated orderCreated) {
+		return Mono.defer(() -> {
+			final UUID orderId = orderCreated.orderId();
+			if (processedOrders.isProcessed(orderId)) {
+				metrics.duplicate();
+				log.info(PER_MESSAGE, "Skipping already processed orderId: {}", orderId);
+				return Mono.empty();
+			}
+			final Timer.Sample processSample = metrics.start();
+			return checkAvailability(orderCreated.item())
+					.flatMap(available -> {
+						metrics.outcome(Boolean.valueOf(available));
+						if (!Boolean.valueOf(available)) {
+							log.info(PER_MESSAGE, "Item {} is unavailable.", orderCreated.item());
+							return Mono.empty();
+						}
+						return sendEvents(key, orderCreated).doOnSuccess(sent -> log.info(PER_MESSAGE,
+								"Sent message: key: {} - orderId: {} - processedById: {}", key, orderId,
+								APPLICATION_ID));
+					})
+					.doOnSuccess(done -> {
+						processedOrders.markProcessed(orderId);
+						metrics.processed(processSample);
+					});
+		});
+	}
+
+	private Mono<String> checkAvailability(final String item) {
+		return Mono.defer(() -> {
+			final Timer.Sample sample = metrics.start();
+			return Mono.fromFuture(stockServiceClient.checkAvailability(item))
+					.doFinally(signal -> metrics.stockLookup(sample, false));
+		});
+	}
+
+	/**
+	 * Hands the events to the producer in order, so they keep their order per key, and completes once all of them
+	 * have been acknowledged.
+	 */
+	private Mono<Void> sendEvents(final String key, final OrderCreated orderCreated) {
+		if (trackingMode == TrackingMode.COMBINED) {
+			return Mono.when(
+					send(ORDER_DISPATCHED_TOPIC, key, DispatchService.orderDispatched(orderCreated)),
+					send(DISPATCH_TRACKING_TOPIC, key, DispatchService.dispatchPreparedAndCompleted(orderCreated)));
+		}
+		return Mono.when(
+				send(DISPATCH_TRACKING_TOPIC, key, DispatchService.dispatchPreparing(orderCreated)),
+				send(ORDER_DISPATCHED_TOPIC, key, DispatchService.orderDispatched(orderCreated)),
+				send(DISPATCH_TRACKING_TOPIC, key, DispatchService.dispatchCompleted(orderCreated)));
+	}
+
+	private Mono<?> send(final String topic, final String key, final Object event) {
+		return Mono.fromFuture(() -> metrics.send(topic, kafkaProducer.send(topic, key, event).toFuture()));
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.ronaimate.dispatch.service;
+
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparing;
+
+/**
+ * Events written to {@code dispatch.tracking} for a dispatched order.
+ */
+public enum TrackingMode {
+
+	/**
+	 * {@link DispatchPreparing} before and {@link DispatchCompleted} after the {@code OrderDispatched} event.
+	 */
+	SEPARATE,
+
+	/**
+	 * A single {@link DispatchPreparedAndCompleted} after the {@code OrderDispatched} event, half the tracking
+	 * records and bytes of {@link #SEPARATE}.
+	 */
+	COMBINED
+
+}
@@ -0,0 +1,217 @@
+package com.ronaimate.dispatch.topic;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Follows every partition of a topic on a thread of its own, without a consumer group, and hands each record to
+ * {@link #apply(ConsumerRecord)}. On start the topic is read up to its end offsets at that moment before
+ * {@link #start()} returns. Followers start in a phase before the listener containers, so orders are only consumed
+ * once the state built from the topic has caught up, and startup fails if it has not within the restore timeout or
+ * the consumer fails before. Restore progress is logged and available from {@link #restoreRemaining()}. A follower
+ * whose consumer fails after the restore stops following and is no longer running.
+ */
+@Slf4j
+public abstract class TopicFollower implements SmartLifecycle {
+
+	private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+
+	private static final long PROGRESS_LOG_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
+	private final String description;
+
+	private final boolean enabled;
+
+	private final String topic;
+
+	private final Duration restoreTimeout;
+
+	private final Supplier<Consumer<String, String>> consumerFactory;
+
+	private final CountDownLatch restored = new CountDownLatch(1);
+
+	/**
+	 * Counted down once the topic has been restored or the follower thread has ended, whichever comes first.
+	 */
+	private final CountDownLatch restoreEnded = new CountDownLatch(1);
+
+	private final AtomicLong restoreRemaining = new AtomicLong(-1);
+
+	private volatile boolean running;
+
+	private volatile Consumer<String, String> consumer;
+
+	private volatile RuntimeException failure;
+
+	private Thread thread;
+
+	protected TopicFollower(final String description, final boolean enabled, final String topic,
+			final Duration restoreTimeout, final Supplier<Consumer<String, String>> consumerFactory) {
+		this.description = description;
+		this.enabled = enabled;
+		this.topic = topic;
+		this.restoreTimeout = restoreTimeout;
+		this.consumerFactory = consumerFactory;
+	}
+
+	/**
+	 * Applies a record of the topic, on the follower thread.
+	 */
+	protected abstract void apply(ConsumerRecord<String, String> record);
+
+	/**
+	 * Positions the consumer where the restore starts, the beginning of the partitions by default.
+	 */
+	protected void seekToStart(final Consumer<String, String> consumer, final List<TopicPartition> partitions) {
+		consumer.seekToBeginning(partitions);
+	}
+
+	/**
+	 * Called when the consumer failed and the topic is no longer followed.
+	 */
+	protected void onFailure() {
+	}
+
+	public String topic() {
+		return topic;
+	}
+
+	public boolean isRestored() {
+		return restored.getCount() == 0;
+	}
+
+	/**
+	 * Records left to restore, -1 before the restore started.
+	 */
+	public long restoreRemaining() {
+		return restoreRemaining.get();
+	}
+
+	/**
+	 * Starts following the topic and waits until it has been restored.
+	 *
+	 * @throws IllegalStateException if the topic has not been restored within the restore timeout, or the consumer
+	 * failed or was stopped before
+	 */
+	@Override
+	public void start() {
+		if (!enabled) {
+			return;
+		}
+		running = true;
+		thread = new Thread(this::follow, "topic-follower-" + topic);
+		thread.setDaemon(true);
+		thread.start();
+		try {
+			if (!restoreEnded.await(restoreTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+				stop();
+				throw new IllegalStateException(description + " of " + topic + " not restored within "
+						+ restoreTimeout + ", " + restoreRemaining.get() + " records left");
+			}
+			if (!isRestored()) {
+				throw new IllegalStateException(description + " of " + topic
+						+ (failure != null ? " failed" : " stopped") + " before it was restored", failure);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stop();
+			throw new IllegalStateException("Interrupted while restoring " + topic, e);
+		}
+	}
+
+	@Override
+	public void stop() {
+		if (!running) {
+			return;
+		}
+		running = false;
+		final Consumer<String, String> current = consumer;
+		if (current != null) {
+			current.wakeup();
+		}
+		try {
+			thread.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Before the listener containers, so they only start once the topic has been restored.
+	 */
+	@Override
+	public int getPhase() {
+		return AbstractMessageListenerContainer.DEFAULT_PHASE - 100;
+	}
+
+	private void follow() {
+		try (Consumer<String, String> topicConsumer = consumerFactory.get()) {
+			consumer = topicConsumer;
+			final List<TopicPartition> partitions = topicConsumer.partitionsFor(topic).stream()
+					.map(partition -> new TopicPartition(partition.topic(), partition.partition()))
+					.toList();
+			topicConsumer.assign(partitions);
+			seekToStart(topicConsumer, partitions);
+			final Map<TopicPartition, Long> endOffsets = topicConsumer.endOffsets(partitions);
+			log.info("Restoring {} of {} from {} partitions", description, topic, partitions.size());
+			long applied = 0;
+			long lastProgressLog = System.nanoTime();
+			while (running) {
+				for (final ConsumerRecord<String, String> record : topicConsumer.poll(POLL_TIMEOUT)) {
+					apply(record);
+					applied++;
+				}
+				if (!isRestored()) {
+					final long remaining = remaining(topicConsumer, endOffsets);
+					restoreRemaining.set(remaining);
+					if (remaining == 0) {
+						log.info("Restored {} of {}: {} records", description, topic, applied);
+						restored.countDown();
+						restoreEnded.countDown();
+					} else if (System.nanoTime() - lastProgressLog >= PROGRESS_LOG_INTERVAL_NANOS) {
+						log.info("Restoring {} of {}: {} records, {} left", description, topic, applied, remaining);
+						lastProgressLog = System.nanoTime();
+					}
+				}
+			}
+		} catch (WakeupException e) {
+			// stopped
+		} catch (RuntimeException e) {
+			log.error("{} of {} stopped following", description, topic, e);
+			failure = e;
+			onFailure();
+		} finally {
+			consumer = null;
+			running = false;
+			restoreEnded.countDown();
+		}
+	}
+
+	private static long remaining(final Consumer<String, String> consumer, final Map<TopicPartition, Long> endOffsets) {
+		long remaining = 0;
+		for (final Map.Entry<TopicPartition, Long> endOffset : endOffsets.entrySet()) {
+			remaining += Math.max(0, endOffset.getValue() - consumer.position(endOffset.getKey()));
+		}
+		return remaining;
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.ronaimate.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of calling the stock service while its circuit is open, and for the failure that opened it. A
+ * delivery failing with it is not counted against the retries of the record, as the record itself is not at fault.
+ */
+public class StockServiceUnavailableException extends RetryableException {
+
+	private final Duration retryAfter;
+
+	public StockServiceUnavailableException(final Duration retryAfter) {
+		super("Stock service circuit is open, retry after " + retryAfter.toMillis() + "ms");
+		this.retryAfter = retryAfter;
+	}
+
+	public StockServiceUnavailableException(final Duration retryAfter, final Exception exception) {
+		super(exception);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * How long the circuit is expected to stay open.
+	 */
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+}
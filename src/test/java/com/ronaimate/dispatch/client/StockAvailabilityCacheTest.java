@@ -0,0 +1,117 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class StockAvailabilityCacheTest {
+
+	private static final StockCacheSettings SETTINGS =
+			new StockCacheSettings(true, 100L, Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofSeconds(20));
+
+	private final AtomicLong nanos = new AtomicLong();
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private final AtomicInteger bulkLoads = new AtomicInteger();
+
+	private StockAvailabilityCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new StockAvailabilityCache(SETTINGS, item -> {
+			loads.incrementAndGet();
+			return String.valueOf(item.startsWith("available"));
+		}, items -> {
+			bulkLoads.incrementAndGet();
+			return items.stream().collect(Collectors.toMap(item -> item, item -> "true"));
+		}, nanos::get, Runnable::run);
+	}
+
+	@Test
+	void get_AvailableItemCachedForTtl() {
+		assertThat(cache.get("available-item"), equalTo("true"));
+		advance(Duration.ofSeconds(10));
+		assertThat(cache.get("available-item"), equalTo("true"));
+
+		assertThat(loads.get(), equalTo(1));
+		assertThat(cache.stats().hitCount(), equalTo(1L));
+	}
+
+	@Test
+	void get_UnavailableItemExpiresAfterNegativeTtl() {
+		assertThat(cache.get("sold-out-item"), equalTo("false"));
+		advance(Duration.ofSeconds(6));
+		assertThat(cache.get("sold-out-item"), equalTo("false"));
+
+		assertThat(loads.get(), equalTo(2));
+		assertThat(cache.stats().missCount(), equalTo(2L));
+	}
+
+	@Test
+	void get_RefreshesAheadOfExpiry() {
+		cache.get("available-item");
+		advance(Duration.ofSeconds(21));
+		cache.get("available-item");
+
+		assertThat(loads.get(), equalTo(2));
+		assertThat(cache.stats().missCount(), equalTo(1L));
+	}
+
+	@Test
+	void get_ConcurrentLookupsShareOneLoad() throws Exception {
+		final var loadStarted = new CountDownLatch(1);
+		final var releaseLoad = new CountDownLatch(1);
+		final var blockingCache = new StockAvailabilityCache(SETTINGS, item -> {
+			loads.incrementAndGet();
+			loadStarted.countDown();
+			await(releaseLoad);
+			return "true";
+		}, items -> Map.of());
+
+		final var first = CompletableFuture.supplyAsync(() -> blockingCache.get("hot-item"));
+		await(loadStarted);
+		final var second = CompletableFuture.supplyAsync(() -> blockingCache.get("hot-item"));
+		releaseLoad.countDown();
+
+		assertThat(first.get(1, TimeUnit.SECONDS), equalTo("true"));
+		assertThat(second.get(1, TimeUnit.SECONDS), equalTo("true"));
+		assertThat(loads.get(), equalTo(1));
+	}
+
+	@Test
+	void getAll_LoadsMissingItemsInOneBulkLoad() {
+		cache.get("available-item");
+
+		final var availability = cache.getAll(Set.of("available-item", "item-a", "item-b"));
+
+		assertThat(availability.size(), equalTo(3));
+		assertThat(loads.get(), equalTo(1));
+		assertThat(bulkLoads.get(), equalTo(1));
+	}
+
+	private void advance(final Duration duration) {
+		nanos.addAndGet(duration.toNanos());
+	}
+
+	private static void await(final CountDownLatch latch) {
+		try {
+			latch.await(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockAvailabilitySnapshotTest {
+
+	private static final String TOPIC = "stock.availability";
+
+	private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+	private MockConsumer<String, String> consumer;
+
+	private StockAvailabilitySnapshot snapshot;
+
+	@BeforeEach
+	void setUp() {
+		consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+		consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, Node.noNode(), null, null)));
+		consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (snapshot != null) {
+			snapshot.stop();
+		}
+	}
+
+	@Test
+	void start_WaitsUntilTopicRestored() {
+		consumer.updateEndOffsets(Map.of(PARTITION, 3L));
+		consumer.schedulePollTask(() -> consumer.addRecord(record(0, "item-a", "true")));
+		consumer.schedulePollTask(() -> {
+			consumer.addRecord(record(1, "item-b", "false"));
+			consumer.addRecord(record(2, "item-c", "true"));
+		});
+		snapshot = snapshot(Duration.ofSeconds(5));
+
+		snapshot.start();
+
+		assertThat(snapshot.isRestored(), equalTo(true));
+		assertThat(snapshot.get("item-a"), equalTo("true"));
+		assertThat(snapshot.get("item-b"), equalTo("false"));
+		assertThat(snapshot.size(), equalTo(3));
+	}
+
+	@Test
+	void start_NotRestoredWithinTimeout_Fails() {
+		consumer.updateEndOffsets(Map.of(PARTITION, 5L));
+		consumer.schedulePollTask(() -> consumer.addRecord(record(0, "item-a", "true")));
+		snapshot = snapshot(Duration.ofMillis(200));
+
+		final var exception = assertThrows(IllegalStateException.class, snapshot::start);
+
+		assertThat(exception.getMessage(),
+				equalTo("Stock snapshot of stock.availability not restored within PT0.2S, 4 records left"));
+		assertThat(snapshot.isRunning(), equalTo(false));
+	}
+
+	@Test
+	void start_ConsumerFailsBeforeRestore_FailsWithoutWaitingForTimeout() {
+		consumer.updateEndOffsets(Map.of(PARTITION, 5L));
+		final var consumerFailure = new KafkaException("down");
+		consumer.schedulePollTask(() -> consumer.setPollException(consumerFailure));
+		snapshot = snapshot(Duration.ofMinutes(1));
+
+		final long startNanos = System.nanoTime();
+		final var exception = assertThrows(IllegalStateException.class, snapshot::start);
+
+		assertThat(Duration.ofNanos(System.nanoTime() - startNanos), lessThan(Duration.ofSeconds(5)));
+		assertThat(exception.getMessage(),
+				equalTo("Stock snapshot of stock.availability failed before it was restored"));
+		assertThat(exception.getCause(), sameInstance(consumerFailure));
+		assertThat(snapshot.isRunning(), equalTo(false));
+	}
+
+	@Test
+	void start_EmptyTopic_Restored() {
+		consumer.updateEndOffsets(Map.of(PARTITION, 0L));
+		snapshot = snapshot(Duration.ofSeconds(5));
+
+		snapshot.start();
+
+		assertThat(snapshot.isRestored(), equalTo(true));
+		assertThat(snapshot.size(), equalTo(0));
+	}
+
+	@Test
+	void follow_UpdatesAndTombstonesAfterRestore() {
+		consumer.updateEndOffsets(Map.of(PARTITION, 1L));
+		consumer.schedulePollTask(() -> consumer.addRecord(record(0, "item-a", "true")));
+		snapshot = snapshot(Duration.ofSeconds(5));
+		snapshot.start();
+
+		consumer.schedulePollTask(() -> {
+			consumer.addRecord(record(1, "item-a", null));
+			consumer.addRecord(record(2, "item-b", "false"));
+		});
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> snapshot.get("item-b"), equalTo("false"));
+		assertThat(snapshot.get("item-a"), nullValue());
+	}
+
+	@Test
+	void follow_ConsumerFails_ClearsSnapshot() {
+		consumer.updateEndOffsets(Map.of(PARTITION, 1L));
+		consumer.schedulePollTask(() -> consumer.addRecord(record(0, "item-a", "true")));
+		snapshot = snapshot(Duration.ofSeconds(5));
+		snapshot.start();
+
+		consumer.schedulePollTask(() -> consumer.setPollException(new KafkaException("down")));
+
+		await().atMost(Duration.ofSeconds(5)).until(() -> snapshot.get("item-a"), nullValue());
+		await().atMost(Duration.ofSeconds(5)).until(snapshot::isRunning, equalTo(false));
+	}
+
+	@Test
+	void disabled_AnswersNothing() {
+		snapshot = StockAvailabilitySnapshot.disabled();
+
+		snapshot.start();
+
+		assertThat(snapshot.isRunning(), equalTo(false));
+		assertThat(snapshot.get("item-a"), nullValue());
+	}
+
+	@Test
+	void bindTo_GaugesItemsAndRestoreProgress() {
+		consumer.updateEndOffsets(Map.of(PARTITION, 1L));
+		consumer.schedulePollTask(() -> consumer.addRecord(record(0, "item-a", "true")));
+		snapshot = snapshot(Duration.ofSeconds(5));
+		final var meterRegistry = new SimpleMeterRegistry();
+		snapshot.bindTo(meterRegistry);
+
+		assertThat(meterRegistry.get("dispatch.stock.snapshot.restore.remaining").gauge().value(), equalTo(-1.0));
+		snapshot.start();
+
+		assertThat(meterRegistry.get("dispatch.stock.snapshot.items").gauge().value(), equalTo(1.0));
+		assertThat(meterRegistry.get("dispatch.stock.snapshot.restore.remaining").gauge().value(), equalTo(0.0));
+	}
+
+	private StockAvailabilitySnapshot snapshot(final Duration restoreTimeout) {
+		return new StockAvailabilitySnapshot(new StockSnapshotSettings(true, TOPIC, restoreTimeout), () -> consumer);
+	}
+
+	private static ConsumerRecord<String, String> record(final long offset, final String item,
+			final String availability) {
+		return new ConsumerRecord<>(TOPIC, 0, offset, item, availability);
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.FixedBackOff;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class StockCircuitBackOffTest {
+
+	@Test
+	void nextBackOff_CircuitOpen_WaitsWithoutUsingAttempts() {
+		final var nanoTime = new AtomicLong();
+		final var circuitBreaker = new StockCircuitBreaker(
+				new StockCircuitBreakerSettings(true, 1, 1, 100, Duration.ofSeconds(10)), nanoTime::get);
+		final BackOffExecution execution = new StockCircuitBackOff(new FixedBackOff(100L, 1L), circuitBreaker,
+				Duration.ofMinutes(5), nanoTime::get).start();
+
+		circuitBreaker.onFailure();
+		assertThat(execution.nextBackOff(), equalTo(10_000L));
+		nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+		assertThat(execution.nextBackOff(), equalTo(6_000L));
+
+		nanoTime.addAndGet(Duration.ofSeconds(6).toNanos());
+		circuitBreaker.acquirePermission();
+		circuitBreaker.onSuccess();
+		assertThat(execution.nextBackOff(), equalTo(100L));
+		assertThat(execution.nextBackOff(), equalTo(BackOffExecution.STOP));
+	}
+
+	@Test
+	void nextBackOff_CircuitClosed_Delegates() {
+		final var circuitBreaker = new StockCircuitBreaker(StockCircuitBreakerSettings.disabled());
+		final BackOffExecution execution = new StockCircuitBackOff(new FixedBackOff(100L, 1L), circuitBreaker,
+				Duration.ofMinutes(5)).start();
+
+		assertThat(execution.nextBackOff(), equalTo(100L));
+		assertThat(execution.nextBackOff(), equalTo(BackOffExecution.STOP));
+	}
+
+	@Test
+	void nextBackOff_CircuitKeepsOpening_StopsAfterMaxElapsed() {
+		final var nanoTime = new AtomicLong();
+		final var circuitBreaker = new StockCircuitBreaker(
+				new StockCircuitBreakerSettings(true, 1, 1, 100, Duration.ofSeconds(10)), nanoTime::get);
+		final BackOffExecution execution = new StockCircuitBackOff(new FixedBackOff(100L, 1L), circuitBreaker,
+				Duration.ofSeconds(25), nanoTime::get).start();
+
+		for (int opened = 0; opened < 2; opened++) {
+			circuitBreaker.onFailure();
+			assertThat(execution.nextBackOff(), equalTo(10_000L));
+			nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+			// the trial call fails, so the circuit opens again
+			circuitBreaker.acquirePermission();
+		}
+		circuitBreaker.onFailure();
+
+		// only the rest of maxElapsed is waited, then the record is given up on
+		assertThat(execution.nextBackOff(), equalTo(5_000L));
+		nanoTime.addAndGet(Duration.ofSeconds(5).toNanos());
+		assertThat(execution.nextBackOff(), equalTo(BackOffExecution.STOP));
+	}
+
+}
@@ -0,0 +1,161 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ronaimate.exception.StockServiceUnavailableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockCircuitBreakerTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private final List<StockCircuitBreaker.State> transitions = new ArrayList<>();
+
+	private StockCircuitBreaker circuitBreaker;
+
+	@BeforeEach
+	void setUp() {
+		circuitBreaker = new StockCircuitBreaker(
+				new StockCircuitBreakerSettings(true, 4, 4, 50, Duration.ofSeconds(10)), nanoTime::get);
+		circuitBreaker.addListener(transitions::add);
+	}
+
+	@Test
+	void onFailure_BelowMinimumCalls_StaysClosed() {
+		assertThat(circuitBreaker.onFailure(), equalTo(false));
+		assertThat(circuitBreaker.onFailure(), equalTo(false));
+		assertThat(circuitBreaker.onFailure(), equalTo(false));
+
+		circuitBreaker.acquirePermission();
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	void onFailure_FailureRateReached_OpensAndRejectsCalls() {
+		circuitBreaker.onSuccess();
+		circuitBreaker.onSuccess();
+		circuitBreaker.onFailure();
+
+		assertThat(circuitBreaker.onFailure(), equalTo(true));
+
+		nanoTime.addAndGet(Duration.ofSeconds(4).toNanos());
+		final var exception = assertThrows(StockServiceUnavailableException.class,
+				circuitBreaker::acquirePermission);
+		assertThat(exception.getRetryAfter(), equalTo(Duration.ofSeconds(6)));
+		assertThat(transitions, contains(StockCircuitBreaker.State.OPEN));
+	}
+
+	@Test
+	void onSuccess_OldFailuresLeaveTheWindow_StaysClosed() {
+		circuitBreaker.onFailure();
+		circuitBreaker.onSuccess();
+		circuitBreaker.onSuccess();
+		circuitBreaker.onSuccess();
+		circuitBreaker.onSuccess();
+
+		assertThat(circuitBreaker.onFailure(), equalTo(false));
+	}
+
+	@Test
+	void acquirePermission_OpenDurationPassed_LetsOneTrialCallThrough() {
+		open();
+		nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+
+		circuitBreaker.acquirePermission();
+
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.HALF_OPEN));
+		final var exception = assertThrows(StockServiceUnavailableException.class,
+				circuitBreaker::acquirePermission);
+		assertThat(exception.getRetryAfter(), equalTo(StockCircuitBreaker.HALF_OPEN_RETRY_AFTER));
+	}
+
+	@Test
+	void onSuccess_TrialCall_Closes() {
+		open();
+		nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+		circuitBreaker.acquirePermission();
+
+		circuitBreaker.onSuccess();
+
+		circuitBreaker.acquirePermission();
+		assertThat(transitions, contains(StockCircuitBreaker.State.OPEN, StockCircuitBreaker.State.HALF_OPEN,
+				StockCircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	void onFailure_TrialCall_OpensAgain() {
+		open();
+		nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+		circuitBreaker.acquirePermission();
+
+		assertThat(circuitBreaker.onFailure(), equalTo(true));
+
+		assertThat(circuitBreaker.retryAfter(), equalTo(Duration.ofSeconds(10)));
+		assertThrows(StockServiceUnavailableException.class, circuitBreaker::acquirePermission);
+	}
+
+	@Test
+	void releasePermission_TrialCallNotMade_LetsNextCallThrough() {
+		open();
+		nanoTime.addAndGet(Duration.ofSeconds(10).toNanos());
+		circuitBreaker.acquirePermission();
+
+		circuitBreaker.releasePermission();
+
+		circuitBreaker.acquirePermission();
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.HALF_OPEN));
+		assertThat(transitions, contains(StockCircuitBreaker.State.OPEN, StockCircuitBreaker.State.HALF_OPEN,
+				StockCircuitBreaker.State.HALF_OPEN));
+	}
+
+	@Test
+	void releasePermission_Closed_StaysClosed() {
+		circuitBreaker.acquirePermission();
+
+		circuitBreaker.releasePermission();
+
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	void disabled_NeverOpens() {
+		final var disabled = new StockCircuitBreaker(StockCircuitBreakerSettings.disabled());
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(disabled.onFailure(), equalTo(false));
+		}
+		disabled.acquirePermission();
+	}
+
+	@Test
+	void bindTo_GaugesCurrentState() {
+		final var meterRegistry = new SimpleMeterRegistry();
+		circuitBreaker.bindTo(meterRegistry);
+
+		open();
+
+		assertThat(meterRegistry.get("dispatch.stock.circuit.state").tag("state", "open").gauge().value(),
+				equalTo(1.0));
+		assertThat(meterRegistry.get("dispatch.stock.circuit.state").tag("state", "closed").gauge().value(),
+				equalTo(0.0));
+	}
+
+	private void open() {
+		for (int i = 0; i < 4; i++) {
+			circuitBreaker.onFailure();
+		}
+	}
+
+}
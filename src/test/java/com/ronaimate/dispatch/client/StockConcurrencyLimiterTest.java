@@ -0,0 +1,101 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class StockConcurrencyLimiterTest {
+
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+
+	private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+	private StockConcurrencyLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		limiter = new StockConcurrencyLimiter(new StockLimiterSettings(true, 10, 2, 11, Duration.ofMillis(500)));
+	}
+
+	@Test
+	void release_SlowOrFailedCall_ShrinksLimit() {
+		limiter.acquire();
+		limiter.release(SLOW, false);
+		assertThat(limiter.limit(), equalTo(9));
+
+		limiter.acquire();
+		limiter.release(FAST, true);
+		assertThat(limiter.limit(), equalTo(8));
+	}
+
+	@Test
+	void release_ShrinksDownToMinLimit() {
+		for (int i = 0; i < 50; i++) {
+			limiter.acquire();
+			limiter.release(FAST, true);
+		}
+
+		assertThat(limiter.limit(), equalTo(2));
+	}
+
+	@Test
+	void release_FastCallsWithHalfTheLimitInUse_GrowLimitUpToMaxLimit() {
+		for (int round = 0; round < 30; round++) {
+			for (int i = 0; i < 6; i++) {
+				limiter.acquire();
+			}
+			for (int i = 0; i < 6; i++) {
+				limiter.release(FAST, false);
+			}
+		}
+
+		assertThat(limiter.limit(), equalTo(11));
+		assertThat(limiter.inFlight(), equalTo(0));
+	}
+
+	@Test
+	void release_FastCallsWithLittleOfTheLimitInUse_KeepLimit() {
+		for (int i = 0; i < 100; i++) {
+			limiter.acquire();
+			limiter.release(FAST, false);
+		}
+
+		assertThat(limiter.limit(), equalTo(10));
+	}
+
+	@Test
+	void acquire_LimitReached_WaitsForRelease() throws Exception {
+		final var small = new StockConcurrencyLimiter(new StockLimiterSettings(true, 1, 1, 1, Duration.ofSeconds(1)));
+		small.acquire();
+		final CountDownLatch acquired = new CountDownLatch(1);
+
+		Thread.ofVirtual().start(() -> {
+			small.acquire();
+			acquired.countDown();
+		});
+
+		assertThat(acquired.await(200, TimeUnit.MILLISECONDS), equalTo(false));
+		small.release(FAST, false);
+		assertThat(acquired.await(5, TimeUnit.SECONDS), equalTo(true));
+	}
+
+	@Test
+	void bindTo_GaugesLimitAndInFlight() {
+		final var meterRegistry = new SimpleMeterRegistry();
+		limiter.bindTo(meterRegistry);
+
+		limiter.acquire();
+
+		assertThat(meterRegistry.get("dispatch.stock.concurrency.limit").gauge().value(), equalTo(10.0));
+		assertThat(meterRegistry.get("dispatch.stock.concurrency.in.flight").gauge().value(), equalTo(1.0));
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.ronaimate.dispatch.client;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.ronaimate.exception.RetryableException;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockLookupBatcherTest {
+
+	private final List<Set<String>> bulkLookups = new CopyOnWriteArrayList<>();
+
+	private StockLookupBatcher batcher;
+
+	@AfterEach
+	void tearDown() {
+		batcher.close();
+	}
+
+	@Test
+	void submit_LookupsWithinWindowShareOneBulkLookup() throws Exception {
+		batcher = new StockLookupBatcher(10, Duration.ofMillis(50), 4, this::allAvailable);
+
+		final var first = batcher.submit("item-a");
+		final var second = batcher.submit("item-b");
+		final var duplicate = batcher.submit("item-a");
+
+		assertThat(first.get(1, TimeUnit.SECONDS), equalTo("true"));
+		assertThat(second.get(1, TimeUnit.SECONDS), equalTo("true"));
+		assertThat(duplicate, equalTo(first));
+		assertThat(bulkLookups, contains(Set.of("item-a", "item-b")));
+	}
+
+	@Test
+	void submit_FullWindowIsFlushedBeforeMaxWait() throws Exception {
+		batcher = new StockLookupBatcher(2, Duration.ofMinutes(1), 4, this::allAvailable);
+
+		final var first = batcher.submit("item-a");
+		final var second = batcher.submit("item-b");
+
+		CompletableFuture.allOf(first, second).get(1, TimeUnit.SECONDS);
+		assertThat(bulkLookups, contains(Set.of("item-a", "item-b")));
+	}
+
+	@Test
+	void submit_SlowBulkLookupDoesNotHoldBackNextWindow() throws Exception {
+		final CountDownLatch slowLookupStarted = new CountDownLatch(1);
+		final CountDownLatch slowLookupReleased = new CountDownLatch(1);
+		batcher = new StockLookupBatcher(10, Duration.ofMillis(1), 4, items -> {
+			if (items.contains("slow-item")) {
+				slowLookupStarted.countDown();
+				try {
+					slowLookupReleased.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return allAvailable(items);
+		});
+
+		final var slow = batcher.submit("slow-item");
+		assertThat(slowLookupStarted.await(1, TimeUnit.SECONDS), equalTo(true));
+		final var fast = batcher.submit("fast-item");
+
+		assertThat(fast.get(1, TimeUnit.SECONDS), equalTo("true"));
+		assertThat(slow.isDone(), equalTo(false));
+		slowLookupReleased.countDown();
+		assertThat(slow.get(1, TimeUnit.SECONDS), equalTo("true"));
+	}
+
+	@Test
+	void lookup_BulkLookupFailureIsRethrown() {
+		batcher = new StockLookupBatcher(10, Duration.ofMillis(1), 4, items -> {
+			throw new RetryableException("stock service unavailable");
+		});
+
+		assertThrows(RetryableException.class, () -> batcher.lookup("item-a"));
+	}
+
+	@Test
+	void submit_ItemMissingFromBulkResult() {
+		batcher = new StockLookupBatcher(10, Duration.ofMillis(1), 4, items -> Map.of());
+
+		final var exception = assertThrows(ExecutionException.class,
+				() -> batcher.submit("item-a").get(1, TimeUnit.SECONDS));
+
+		assertThat(exception.getCause(), instanceOf(IllegalStateException.class));
+	}
+
+	@Test
+	void lookup_ClosedWhileWaitingForWindow() throws Exception {
+		batcher = new StockLookupBatcher(10, Duration.ofMinutes(1), 4, this::allAvailable);
+		final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		final Thread caller = new Thread(() -> {
+			try {
+				batcher.lookup("item-a");
+			} catch (RuntimeException e) {
+				failure.set(e);
+			}
+		});
+		caller.start();
+
+		await().atMost(Duration.ofSeconds(1)).until(() -> caller.getState() == Thread.State.WAITING);
+		batcher.close();
+		caller.join(1000);
+
+		assertThat(caller.isAlive(), equalTo(false));
+		assertThat(failure.get(), instanceOf(RetryableException.class));
+		assertThat(bulkLookups.isEmpty(), equalTo(true));
+	}
+
+	@Test
+	void close_FailsWindowsWaitingForFlushThread() throws Exception {
+		final CountDownLatch slowLookupStarted = new CountDownLatch(1);
+		batcher = new StockLookupBatcher(1, Duration.ofMinutes(1), 1, items -> {
+			slowLookupStarted.countDown();
+			try {
+				new CountDownLatch(1).await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RetryableException(e);
+			}
+			return allAvailable(items);
+		});
+
+		final var slow = batcher.submit("slow-item");
+		assertThat(slowLookupStarted.await(1, TimeUnit.SECONDS), equalTo(true));
+		final var queued = batcher.submit("queued-item");
+		batcher.close();
+
+		assertThat(assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS)).getCause(),
+				instanceOf(RetryableException.class));
+		assertThat(assertThrows(ExecutionException.class, () -> slow.get(1, TimeUnit.SECONDS)).getCause(),
+				instanceOf(RetryableException.class));
+	}
+
+	@Test
+	void lookup_AfterClose() {
+		batcher = new StockLookupBatcher(10, Duration.ofMillis(1), 4, this::allAvailable);
+		batcher.close();
+
+		assertThrows(RetryableException.class, () -> batcher.lookup("item-a"));
+	}
+
+	private Map<String, String> allAvailable(final Set<String> items) {
+		bulkLookups.add(Set.copyOf(items));
+		return items.stream().collect(Collectors.toMap(item -> item, item -> "true"));
+	}
+
+}
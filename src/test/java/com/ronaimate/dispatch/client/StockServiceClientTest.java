@@ -1,7 +1,22 @@
 package com.ronaimate.dispatch.client;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpServerErrorException;
@@ -9,10 +24,18 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import com.ronaimate.exception.RetryableException;
+import com.ronaimate.exception.StockServiceUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -32,7 +55,8 @@ class StockServiceClientTest {
 	@BeforeEach
 	public void setUp() {
 		restTemplateMock = mock(RestTemplate.class);
-		client = new StockServiceClient(restTemplateMock, "endpoint");
+		client = new StockServiceClient(restTemplateMock, "endpoint", StockCacheSettings.disabled(),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT));
 	}
 
 	@Test
@@ -67,4 +91,189 @@ class StockServiceClientTest {
 		verify(restTemplateMock, times(1)).getForEntity(STOCK_SERVICE_QUERY, String.class);
 	}
 
+	@Test
+	void testCheckAvailability_CircuitOpen_FailsFast() {
+		final var circuitBreaker = new StockCircuitBreaker(
+				new StockCircuitBreakerSettings(true, 2, 2, 100, Duration.ofMinutes(1)));
+		final var guardedClient = new StockServiceClient(restTemplateMock, "endpoint", StockCacheSettings.disabled(),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT), circuitBreaker,
+				new StockConcurrencyLimiter(StockLimiterSettings.disabled()), StockAvailabilitySnapshot.disabled());
+		doThrow(new HttpServerErrorException(HttpStatusCode.valueOf(503))).when(restTemplateMock)
+				.getForEntity(STOCK_SERVICE_QUERY, String.class);
+
+		assertThrows(RetryableException.class, () -> guardedClient.checkAvailability("my-item"));
+		assertThrows(StockServiceUnavailableException.class, () -> guardedClient.checkAvailability("my-item"));
+		assertThrows(StockServiceUnavailableException.class, () -> guardedClient.checkAvailability("my-item"));
+
+		verify(restTemplateMock, times(2)).getForEntity(STOCK_SERVICE_QUERY, String.class);
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.OPEN));
+	}
+
+	@Test
+	void testCheckAvailability_LimiterInterruptedDuringTrialCall_ReleasesCircuitPermission() {
+		final AtomicLong nanoTime = new AtomicLong();
+		final var circuitBreaker = new StockCircuitBreaker(
+				new StockCircuitBreakerSettings(true, 2, 2, 100, Duration.ofMinutes(1)), nanoTime::get);
+		final var limiter = mock(StockConcurrencyLimiter.class);
+		final var guardedClient = new StockServiceClient(restTemplateMock, "endpoint", StockCacheSettings.disabled(),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT), circuitBreaker, limiter,
+				StockAvailabilitySnapshot.disabled());
+		circuitBreaker.onFailure();
+		circuitBreaker.onFailure();
+		nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+		doThrow(new RetryableException("Interrupted while waiting for a stock service call permit")).doNothing()
+				.when(limiter).acquire();
+		when(restTemplateMock.getForEntity(STOCK_SERVICE_QUERY, String.class))
+				.thenReturn(new ResponseEntity<>("true", HttpStatusCode.valueOf(200)));
+
+		assertThrows(RetryableException.class, () -> guardedClient.checkAvailability("my-item"));
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.OPEN));
+
+		assertThat(guardedClient.checkAvailability("my-item"), equalTo("true"));
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	void testCheckAvailability_Snapshot_UnknownItemsFallBackToStockService() {
+		final var consumer = new MockConsumer<String, String>(OffsetResetStrategy.EARLIEST);
+		final var partition = new TopicPartition("stock.availability", 0);
+		consumer.updatePartitions("stock.availability",
+				List.of(new PartitionInfo("stock.availability", 0, Node.noNode(), null, null)));
+		consumer.updateBeginningOffsets(Map.of(partition, 0L));
+		consumer.updateEndOffsets(Map.of(partition, 1L));
+		consumer.schedulePollTask(() -> consumer.addRecord(
+				new ConsumerRecord<>("stock.availability", 0, 0L, "item-a", "false")));
+		final var snapshot = new StockAvailabilitySnapshot(
+				new StockSnapshotSettings(true, "stock.availability", Duration.ofSeconds(5)), () -> consumer);
+		snapshot.start();
+		final var snapshotClient = new StockServiceClient(restTemplateMock, "endpoint", StockCacheSettings.disabled(),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT), new StockCircuitBreaker(
+						StockCircuitBreakerSettings.disabled()),
+				new StockConcurrencyLimiter(StockLimiterSettings.disabled()), snapshot);
+		final var response = new ResponseEntity<>(Map.of("item-b", "true"), HttpStatusCode.valueOf(200));
+		when(restTemplateMock.exchange(eq(STOCK_SERVICE_ENDPOINT + "?item=item-b"), eq(HttpMethod.GET), isNull(),
+				any(ParameterizedTypeReference.class))).thenReturn(response);
+
+		try {
+			assertThat(snapshotClient.checkAvailability("item-a"), equalTo("false"));
+			assertThat(snapshotClient.checkAvailability(List.of("item-a", "item-b")),
+					equalTo(Map.of("item-a", "false", "item-b", "true")));
+			verify(restTemplateMock, times(0)).getForEntity(anyString(), eq(String.class));
+		} finally {
+			snapshot.stop();
+		}
+	}
+
+	@Test
+	void testCheckAvailability_Cached() {
+		final var cachingClient = new StockServiceClient(restTemplateMock, "endpoint",
+				new StockCacheSettings(true, 100L, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT));
+		final ResponseEntity<String> response = new ResponseEntity<>("true", HttpStatusCode.valueOf(200));
+		when(restTemplateMock.getForEntity(STOCK_SERVICE_QUERY, String.class)).thenReturn(response);
+
+		assertThat(cachingClient.checkAvailability("my-item"), equalTo("true"));
+		assertThat(cachingClient.checkAvailability("my-item"), equalTo("true"));
+
+		verify(restTemplateMock, times(1)).getForEntity(STOCK_SERVICE_QUERY, String.class);
+		assertThat(cachingClient.cacheStats().orElseThrow().hitCount(), equalTo(1L));
+		assertThat(cachingClient.cacheStats().orElseThrow().missCount(), equalTo(1L));
+	}
+
+	@Test
+	void testCheckAvailability_CachedServerErrorNotCached() {
+		final var cachingClient = new StockServiceClient(restTemplateMock, "endpoint",
+				new StockCacheSettings(true, 100L, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT));
+		doThrow(new HttpServerErrorException(HttpStatusCode.valueOf(500))).when(restTemplateMock)
+				.getForEntity(STOCK_SERVICE_QUERY, String.class);
+
+		assertThrows(RetryableException.class, () -> cachingClient.checkAvailability("my-item"));
+		assertThrows(RetryableException.class, () -> cachingClient.checkAvailability("my-item"));
+
+		verify(restTemplateMock, times(2)).getForEntity(STOCK_SERVICE_QUERY, String.class);
+	}
+
+	@Test
+	void testCacheStats_Disabled() {
+		assertThat(client.cacheStats().isPresent(), equalTo(false));
+	}
+
+	@Test
+	void testBindTo_CacheMeters() {
+		final var cachingClient = new StockServiceClient(restTemplateMock, "endpoint",
+				new StockCacheSettings(true, 100L, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT));
+		final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		cachingClient.bindTo(meterRegistry);
+		when(restTemplateMock.getForEntity(STOCK_SERVICE_QUERY, String.class))
+				.thenReturn(new ResponseEntity<>("true", HttpStatusCode.valueOf(200)));
+
+		cachingClient.checkAvailability("my-item");
+		cachingClient.checkAvailability("my-item");
+
+		assertThat(meterRegistry.get("cache.gets").tags("cache", "stockAvailability", "result", "hit")
+				.functionCounter().count(), equalTo(1.0));
+		assertThat(meterRegistry.get("cache.gets").tags("cache", "stockAvailability", "result", "miss")
+				.functionCounter().count(), equalTo(1.0));
+		assertThat(meterRegistry.get("cache.evictions").tag("cache", "stockAvailability").functionCounter().count(),
+				equalTo(0.0));
+	}
+
+	@Test
+	void testBindTo_CacheDisabled() {
+		final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		client.bindTo(meterRegistry);
+
+		assertThat(meterRegistry.find("cache.gets").meters().isEmpty(), equalTo(true));
+	}
+
+	@Test
+	void testCheckAvailabilityBulk_Query() {
+		final var response = new ResponseEntity<>(Map.of("item-a", "true", "item-b", "false"),
+				HttpStatusCode.valueOf(200));
+		when(restTemplateMock.exchange(eq(STOCK_SERVICE_ENDPOINT + "?item=item-a&item=item-b"), eq(HttpMethod.GET),
+				isNull(), any(ParameterizedTypeReference.class))).thenReturn(response);
+
+		assertThat(client.checkAvailability(List.of("item-a", "item-b", "item-a")),
+				equalTo(Map.of("item-a", "true", "item-b", "false")));
+	}
+
+	@Test
+	void testCheckAvailabilityBulk_Post() {
+		final var postClient = new StockServiceClient(restTemplateMock, "endpoint", StockCacheSettings.disabled(),
+				new StockBulkSettings(StockBulkSettings.RequestShape.POST, "bulk-endpoint", false, 0, Duration.ZERO,
+						1));
+		final var response = new ResponseEntity<>(Map.of("item-a", "true"), HttpStatusCode.valueOf(200));
+		when(restTemplateMock.exchange(eq("bulk-endpoint"), eq(HttpMethod.POST),
+				eq(new HttpEntity<>(Set.of("item-a"))), any(ParameterizedTypeReference.class))).thenReturn(response);
+
+		assertThat(postClient.checkAvailability(List.of("item-a")), equalTo(Map.of("item-a", "true")));
+	}
+
+	@Test
+	void testCheckAvailabilityBulk_ServerError() {
+		doThrow(new HttpServerErrorException(HttpStatusCode.valueOf(503))).when(restTemplateMock)
+				.exchange(anyString(), eq(HttpMethod.GET), isNull(), any(ParameterizedTypeReference.class));
+
+		assertThrows(RetryableException.class, () -> client.checkAvailability(List.of("item-a")));
+	}
+
+	@Test
+	void testCheckAvailabilityBulk_Cached() {
+		final var cachingClient = new StockServiceClient(restTemplateMock, "endpoint",
+				new StockCacheSettings(true, 100L, Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofMinutes(1)),
+				StockBulkSettings.query(STOCK_SERVICE_ENDPOINT));
+		final ResponseEntity<String> single = new ResponseEntity<>("true", HttpStatusCode.valueOf(200));
+		when(restTemplateMock.getForEntity(STOCK_SERVICE_QUERY, String.class)).thenReturn(single);
+		final var bulk = new ResponseEntity<>(Map.of("item-b", "false"), HttpStatusCode.valueOf(200));
+		when(restTemplateMock.exchange(eq(STOCK_SERVICE_ENDPOINT + "?item=item-b"), eq(HttpMethod.GET), isNull(),
+				any(ParameterizedTypeReference.class))).thenReturn(bulk);
+
+		cachingClient.checkAvailability("my-item");
+
+		assertThat(cachingClient.checkAvailability(List.of("my-item", "item-b")),
+				equalTo(Map.of("my-item", "true", "item-b", "false")));
+	}
+
 }
@@ -0,0 +1,67 @@
+package com.ronaimate.dispatch.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartitionInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DispatchConfigurationTest {
+
+	private final DispatchConfiguration configuration = new DispatchConfiguration();
+
+	private final DispatchKafkaProperties properties = new DispatchKafkaProperties();
+
+	private KafkaAdmin kafkaAdmin;
+
+	@BeforeEach
+	void setUp() {
+		kafkaAdmin = mock(KafkaAdmin.class);
+		properties.getRepartition().setEnabled(true);
+	}
+
+	@Test
+	void orderCreatedByItemTopic_PartitionsSet_Used() {
+		properties.getRepartition().setPartitions(12);
+
+		final NewTopic topic = configuration.orderCreatedByItemTopic(properties, kafkaAdmin);
+
+		assertThat(topic.name(), equalTo("order.created.by-item"));
+		assertThat(topic.numPartitions(), equalTo(12));
+		verifyNoInteractions(kafkaAdmin);
+	}
+
+	@Test
+	void orderCreatedByItemTopic_PartitionsNotSet_SameAsOrderCreated() {
+		final Node broker = new Node(0, "localhost", 9092);
+		final List<TopicPartitionInfo> partitions = List.of(
+				new TopicPartitionInfo(0, broker, List.of(broker), List.of(broker)),
+				new TopicPartitionInfo(1, broker, List.of(broker), List.of(broker)),
+				new TopicPartitionInfo(2, broker, List.of(broker), List.of(broker)));
+		when(kafkaAdmin.describeTopics("order.created"))
+				.thenReturn(Map.of("order.created", new TopicDescription("order.created", false, partitions)));
+
+		assertThat(configuration.orderCreatedByItemTopic(properties, kafkaAdmin).numPartitions(), equalTo(3));
+	}
+
+	@Test
+	void orderCreatedByItemTopic_OrderCreatedUnknown_FailsStartup() {
+		when(kafkaAdmin.describeTopics("order.created")).thenThrow(new KafkaException("Failed to obtain topic"));
+
+		assertThrows(IllegalStateException.class, () -> configuration.orderCreatedByItemTopic(properties, kafkaAdmin));
+	}
+
+}
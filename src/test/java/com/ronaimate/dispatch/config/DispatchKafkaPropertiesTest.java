@@ -0,0 +1,123 @@
+package com.ronaimate.dispatch.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class DispatchKafkaPropertiesTest {
+
+	@Test
+	void bind_Defaults() throws Exception {
+		final DispatchKafkaProperties properties = bind();
+
+		assertThat(properties.getBootstrapServers(), equalTo("localhost:9092"));
+		assertThat(properties.getListener().getMode(), equalTo("record"));
+		assertThat(properties.getListener().getConcurrency(), equalTo(1));
+		assertThat(properties.getListener().getAckMode(), equalTo(ContainerProperties.AckMode.BATCH));
+		assertThat(properties.getConsumer().getMaxPollRecords(), equalTo(500));
+		assertThat(properties.getConsumer().getMaxPartitionFetchBytes(), equalTo(1048576));
+		assertThat(properties.getProducer().getLingerMs(), equalTo(0));
+		assertThat(properties.getProducer().getAcks(), equalTo("all"));
+		assertThat(properties.getProducer().getMaxInFlight(), equalTo(5));
+		assertThat(properties.getRetryTopics().isEnabled(), equalTo(false));
+		assertThat(properties.getRetryTopics().getAttempts(), equalTo(4));
+		assertThat(properties.getRetryTopics().getInitialDelay(), equalTo(Duration.ofSeconds(1)));
+		assertThat(properties.getRetryTopics().getMaxDelay(), equalTo(Duration.ofMinutes(5)));
+	}
+
+	@Test
+	void bind_LowLatencyProfile() throws Exception {
+		final DispatchKafkaProperties properties = bind("low-latency");
+
+		assertThat(properties.getListener().getMode(), equalTo("record"));
+		assertThat(properties.getConsumer().getFetchMaxWaitMs(), equalTo(10));
+		assertThat(properties.getProducer().getLingerMs(), equalTo(0));
+		assertThat(properties.getProducer().getCompressionType(), equalTo("none"));
+	}
+
+	@Test
+	void bind_HighThroughputProfile() throws Exception {
+		final DispatchKafkaProperties properties = bind("high-throughput");
+
+		assertThat(properties.getListener().getMode(), equalTo("batch"));
+		assertThat(properties.getConsumer().getMaxPollRecords(), equalTo(1000));
+		assertThat(properties.getConsumer().getFetchMinBytes(), equalTo(65536));
+		assertThat(properties.getProducer().getLingerMs(), equalTo(10));
+		assertThat(properties.getProducer().getCompressionType(), equalTo("lz4"));
+		assertThat(properties.getBootstrapServers(), equalTo("localhost:9092"));
+	}
+
+	@Test
+	void bind_CatchUpDefaults() throws Exception {
+		final DispatchKafkaProperties properties = bind();
+
+		assertThat(properties.getCatchUp().isEnabled(), equalTo(false));
+		assertThat(properties.getCatchUp().getEnterLag(), equalTo(10000L));
+		assertThat(properties.getCatchUp().getExitLag(), equalTo(1000L));
+		assertThat(properties.getCatchUp().getCheckInterval(), equalTo(Duration.ofSeconds(5)));
+		assertThat(properties.getCatchUp().getMinDuration(), equalTo(Duration.ofMinutes(1)));
+		assertThat(properties.getCatchUp().getConsumer().getMaxPollRecords(), equalTo(1000));
+		assertThat(properties.getCatchUp().getProducer().getLingerMs(), equalTo(10));
+		assertThat(properties.getCatchUp().getProducer().getCompressionType(), equalTo("lz4"));
+		assertThat(properties.getProducer().getLingerMs(), equalTo(0));
+	}
+
+	@Test
+	void bind_MembershipDefaults() throws Exception {
+		final DispatchKafkaProperties properties = bind();
+
+		assertThat(properties.getMembership().getAssignors(), equalTo(List.of("cooperative-sticky")));
+		assertThat(properties.getMembership().getSessionTimeout(), equalTo(Duration.ofSeconds(45)));
+		assertThat(properties.getMembership().getDrainTimeout(), equalTo(Duration.ofSeconds(10)));
+		assertThat(properties.getMembership().getShutdownTimeout(), equalTo(Duration.ofSeconds(25)));
+	}
+
+	@Test
+	void bind_RepartitionDisabled_DispatchesFromOrderCreated() throws Exception {
+		final DispatchKafkaProperties properties = bind();
+
+		assertThat(properties.getRepartition().isEnabled(), equalTo(false));
+		assertThat(properties.getRepartition().getTopic(), equalTo("order.created.by-item"));
+		assertThat(properties.getRepartition().sourceTopic(), equalTo("order.created"));
+
+		properties.getRepartition().setEnabled(true);
+		assertThat(properties.getRepartition().sourceTopic(), equalTo("order.created.by-item"));
+	}
+
+	/**
+	 * Binds {@code application.yml}, overridden by the given profile's file, the way the application does.
+	 */
+	private static DispatchKafkaProperties bind(final String... profiles) throws IOException {
+		final List<String> files = new ArrayList<>();
+		for (final String profile : profiles) {
+			files.add("application-" + profile + ".yml");
+		}
+		Collections.reverse(files);
+		files.add("application.yml");
+
+		final MutablePropertySources sources = new MutablePropertySources();
+		final YamlPropertySourceLoader loader = new YamlPropertySourceLoader();
+		for (final String file : files) {
+			for (final PropertySource<?> source : loader.load(file, new ClassPathResource(file))) {
+				sources.addLast(source);
+			}
+		}
+		return new Binder(ConfigurationPropertySources.from(sources))
+				.bindOrCreate("kafka", DispatchKafkaProperties.class);
+	}
+
+}
@@ -0,0 +1,29 @@
+package com.ronaimate.dispatch.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class DispatchRetryTopicConfigurationTest {
+
+	@Test
+	void topicSuffix_RetryTopics_NamedAfterDelay() {
+		assertThat(DispatchRetryTopicConfiguration.topicSuffix("-retry-1000"), equalTo("-retry-1s"));
+		assertThat(DispatchRetryTopicConfiguration.topicSuffix("-retry-10000"), equalTo("-retry-10s"));
+		assertThat(DispatchRetryTopicConfiguration.topicSuffix("-retry-1500"), equalTo("-retry-1500ms"));
+		assertThat(DispatchRetryTopicConfiguration.topicSuffix("-retry-3600000"), equalTo("-retry-1h"));
+	}
+
+	@Test
+	void topicSuffix_RetryTopicsWithSameDelay_KeepIndex() {
+		assertThat(DispatchRetryTopicConfiguration.topicSuffix("-retry-300000-1"), equalTo("-retry-5m-1"));
+	}
+
+	@Test
+	void topicSuffix_MainTopicAndDlt_Unchanged() {
+		assertThat(DispatchRetryTopicConfiguration.topicSuffix(""), equalTo(""));
+		assertThat(DispatchRetryTopicConfiguration.topicSuffix(".DLT"), equalTo(".DLT"));
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.ronaimate.dispatch.dedup;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProcessedOrderLogTest {
+
+	private static final String TOPIC = "dispatch.processed.orders";
+
+	private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+	private final ProcessedOrderSettings settings =
+			new ProcessedOrderSettings(true, Duration.ofHours(1), 1000, TOPIC, Duration.ofSeconds(5));
+
+	private MockConsumer<String, String> consumer;
+
+	private KafkaTemplate<String, Object> kafkaTemplateMock;
+
+	private ProcessedOrders processedOrders;
+
+	private ProcessedOrderLog processedOrderLog;
+
+	private OffsetAndTimestamp windowStart = new OffsetAndTimestamp(0L, 0L);
+
+	@BeforeEach
+	void setUp() {
+		consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+
+			@Override
+			public synchronized Map<TopicPartition, OffsetAndTimestamp> offsetsForTimes(
+					final Map<TopicPartition, Long> timestampsToSearch) {
+				final Map<TopicPartition, OffsetAndTimestamp> offsets = new HashMap<>();
+				timestampsToSearch.forEach((partition, timestamp) -> offsets.put(partition, windowStart));
+				return offsets;
+			}
+
+		};
+		consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, Node.noNode(), null, null)));
+		consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+		consumer.updateEndOffsets(Map.of(PARTITION, 1L));
+		kafkaTemplateMock = mock(KafkaTemplate.class);
+		when(kafkaTemplateMock.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+		processedOrders = new ProcessedOrders(settings);
+		processedOrderLog = new ProcessedOrderLog(settings, processedOrders, kafkaTemplateMock, "instance",
+				() -> consumer);
+	}
+
+	@AfterEach
+	void tearDown() {
+		processedOrderLog.stop();
+	}
+
+	@Test
+	void start_RestoresProcessedOrdersWithoutPublishingThem() {
+		final UUID orderId = randomUUID();
+		consumer.schedulePollTask(() -> consumer.addRecord(
+				new ConsumerRecord<>(TOPIC, 0, 0L, orderId.toString(), "\"other-instance\"")));
+
+		processedOrderLog.start();
+
+		assertThat(processedOrders.isProcessed(orderId), equalTo(true));
+		verify(kafkaTemplateMock, never()).send(anyString(), anyString(), any());
+	}
+
+	@Test
+	void start_NoRecordsWithinWindow_StartsAtEnd() {
+		windowStart = null;
+		consumer.schedulePollTask(() -> consumer.addRecord(
+				new ConsumerRecord<>(TOPIC, 0, 0L, randomUUID().toString(), "\"other-instance\"")));
+
+		processedOrderLog.start();
+
+		assertThat(processedOrderLog.isRestored(), equalTo(true));
+		assertThat(processedOrders.size(), equalTo(0));
+	}
+
+	@Test
+	void start_SkipsRecordsWithoutOrderIdKey() {
+		consumer.schedulePollTask(() -> consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, 0L, "not-a-uuid", "x")));
+
+		processedOrderLog.start();
+
+		assertThat(processedOrders.size(), equalTo(0));
+	}
+
+	@Test
+	void markProcessed_PublishesOnce() {
+		final UUID orderId = randomUUID();
+
+		processedOrders.markProcessed(orderId);
+		processedOrders.markProcessed(orderId);
+
+		verify(kafkaTemplateMock, times(1)).send(TOPIC, orderId.toString(), "instance");
+	}
+
+}
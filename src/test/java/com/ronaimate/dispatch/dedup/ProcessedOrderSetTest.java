@@ -0,0 +1,114 @@
+package com.ronaimate.dispatch.dedup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ProcessedOrderSetTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private ProcessedOrderSet set;
+
+	@BeforeEach
+	void setUp() {
+		set = new ProcessedOrderSet(Duration.ofMinutes(10), 1000, nanoTime::get);
+	}
+
+	@Test
+	void add_ThenContains() {
+		final UUID id = randomUUID();
+
+		assertThat(set.contains(id), equalTo(false));
+		assertThat(set.add(id), equalTo(true));
+		assertThat(set.add(id), equalTo(false));
+
+		assertThat(set.contains(id), equalTo(true));
+		assertThat(set.contains(new UUID(id.getMostSignificantBits(), id.getLeastSignificantBits())),
+				equalTo(true));
+		assertThat(set.size(), equalTo(1));
+	}
+
+	@Test
+	void add_NilUuid() {
+		final UUID nil = new UUID(0, 0);
+
+		assertThat(set.contains(nil), equalTo(false));
+		set.add(nil);
+
+		assertThat(set.contains(nil), equalTo(true));
+	}
+
+	@Test
+	void add_UpToMaximumSize_AllContained() {
+		final List<UUID> ids = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			final UUID id = new UUID(i / 10, i % 10);
+			ids.add(id);
+			set.add(id);
+		}
+
+		for (final UUID id : ids) {
+			assertThat(set.contains(id), equalTo(true));
+		}
+		assertThat(set.contains(new UUID(1000, 0)), equalTo(false));
+	}
+
+	@Test
+	void contains_RememberedForAtLeastTheWindow() {
+		final UUID id = randomUUID();
+		set.add(id);
+
+		nanoTime.addAndGet(Duration.ofMinutes(10).toNanos());
+		assertThat(set.contains(id), equalTo(true));
+
+		nanoTime.addAndGet(Duration.ofMinutes(10).toNanos());
+		assertThat(set.contains(id), equalTo(false));
+	}
+
+	@Test
+	void contains_IdleForTwoWindows_Forgotten() {
+		final UUID id = randomUUID();
+		set.add(id);
+
+		nanoTime.addAndGet(Duration.ofMinutes(25).toNanos());
+
+		assertThat(set.contains(id), equalTo(false));
+		assertThat(set.size(), equalTo(0));
+	}
+
+	@Test
+	void add_MaximumSizeReached_ForgetsOldestGeneration() {
+		final UUID first = randomUUID();
+		set.add(first);
+		for (int i = 1; i < 1000; i++) {
+			set.add(randomUUID());
+		}
+
+		set.add(randomUUID());
+		assertThat(set.contains(first), equalTo(true));
+
+		for (int i = 1; i < 1000; i++) {
+			set.add(randomUUID());
+		}
+		set.add(randomUUID());
+
+		assertThat(set.contains(first), equalTo(false));
+		assertThat(set.size(), equalTo(1001));
+	}
+
+	@Test
+	void tableBytes_SixteenBytesPerSlotOfBothGenerations() {
+		assertThat(set.tableBytes(), equalTo(2L * 1429 * 16));
+	}
+
+}
@@ -0,0 +1,178 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import com.ronaimate.dispatch.config.DispatchKafkaProperties;
+import com.ronaimate.dispatch.metrics.ConsumerGroupLag;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatchUpSwitcherTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+
+	private ConsumerGroupLag groupLag;
+
+	private MessageListenerContainer recordContainer;
+
+	private MessageListenerContainer catchUpContainer;
+
+	private CatchUpSwitcher switcher;
+
+	@BeforeEach
+	void setUp() {
+		groupLag = mock(ConsumerGroupLag.class);
+		recordContainer = mock(MessageListenerContainer.class);
+		catchUpContainer = mock(MessageListenerContainer.class);
+		final KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+		when(registry.getListenerContainer("orderConsumerClient")).thenReturn(recordContainer);
+		when(registry.getListenerContainer(OrderCreatedCatchUpHandler.LISTENER_ID)).thenReturn(catchUpContainer);
+		final DispatchKafkaProperties.CatchUp settings = new DispatchKafkaProperties.CatchUp();
+		settings.setEnterLag(1000);
+		settings.setExitLag(100);
+		settings.setMinDuration(Duration.ofSeconds(30));
+		switcher = new CatchUpSwitcher(settings, groupLag, registry, nanoTime::get);
+		nanoTime.addAndGet(Duration.ofSeconds(30).toNanos());
+	}
+
+	@Test
+	void check_LagBelowEnterLag_KeepsLowLatency() throws Exception {
+		when(groupLag.lag()).thenReturn(999L);
+
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.LOW_LATENCY));
+		verify(recordContainer, never()).stop();
+		verify(catchUpContainer, never()).start();
+	}
+
+	@Test
+	void check_LagReachesEnterLag_SwitchesToCatchUp() throws Exception {
+		when(groupLag.lag()).thenReturn(1000L);
+
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.CATCH_UP));
+		final InOrder inOrder = inOrder(recordContainer, catchUpContainer);
+		inOrder.verify(recordContainer).stop();
+		inOrder.verify(catchUpContainer).start();
+	}
+
+	@Test
+	void check_ContainerPaused_KeepsProfileUntilResumed() throws Exception {
+		when(groupLag.lag()).thenReturn(1000L);
+		when(recordContainer.isPauseRequested()).thenReturn(true, false);
+
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.LOW_LATENCY));
+		verify(recordContainer, never()).stop();
+
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.CATCH_UP));
+		verify(catchUpContainer).start();
+	}
+
+	@Test
+	void check_PartitionPaused_KeepsProfile() throws Exception {
+		final TopicPartition partition = new TopicPartition("order.created", 0);
+		when(groupLag.lag()).thenReturn(1000L);
+		when(recordContainer.getAssignedPartitions()).thenReturn(List.of(partition));
+		when(recordContainer.isPartitionPauseRequested(partition)).thenReturn(true);
+
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.LOW_LATENCY));
+		verify(recordContainer, never()).stop();
+		verify(catchUpContainer, never()).start();
+	}
+
+	@Test
+	void check_LagBetweenExitAndEnterLag_KeepsCatchUp() throws Exception {
+		when(groupLag.lag()).thenReturn(5000L, 500L, 101L);
+		switcher.check();
+		nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+		switcher.check();
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.CATCH_UP));
+		verify(catchUpContainer, never()).stop();
+		verify(recordContainer, never()).start();
+	}
+
+	@Test
+	void check_LagDownToExitLag_SwitchesBackToLowLatency() throws Exception {
+		when(groupLag.lag()).thenReturn(5000L, 100L);
+		switcher.check();
+		nanoTime.addAndGet(Duration.ofMinutes(1).toNanos());
+
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.LOW_LATENCY));
+		final InOrder inOrder = inOrder(catchUpContainer, recordContainer);
+		inOrder.verify(catchUpContainer).stop();
+		inOrder.verify(recordContainer).start();
+	}
+
+	@Test
+	void check_WithinMinDuration_KeepsProfile() throws Exception {
+		when(groupLag.lag()).thenReturn(5000L, 0L, 0L);
+		switcher.check();
+		nanoTime.addAndGet(Duration.ofSeconds(29).toNanos());
+
+		switcher.check();
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.CATCH_UP));
+
+		nanoTime.addAndGet(Duration.ofSeconds(1).toNanos());
+		switcher.check();
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.LOW_LATENCY));
+	}
+
+	@Test
+	void check_LagNotRead_KeepsProfile() throws Exception {
+		when(groupLag.lag()).thenThrow(new TimeoutException("timed out"));
+
+		switcher.check();
+
+		assertThat(switcher.profile(), equalTo(CatchUpSwitcher.Profile.LOW_LATENCY));
+		verify(recordContainer, never()).stop();
+	}
+
+	@Test
+	void bindTo_GaugesProfileSwitchesAndLag() throws Exception {
+		final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		switcher.bindTo(meterRegistry);
+		when(groupLag.lag()).thenReturn(2000L);
+
+		switcher.check();
+
+		assertThat(meterRegistry.get("dispatch.listener.profile").tag("profile", "catch_up").gauge().value(),
+				equalTo(1.0));
+		assertThat(meterRegistry.get("dispatch.listener.profile").tag("profile", "low_latency").gauge().value(),
+				equalTo(0.0));
+		assertThat(meterRegistry.get("dispatch.listener.profile.switches").tag("profile", "catch_up")
+				.functionCounter().count(), equalTo(1.0));
+		assertThat(meterRegistry.get("dispatch.listener.group.lag").gauge().value(), equalTo(2000.0));
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+class InFlightDrainerTest {
+
+	private static final TopicPartition PARTITION_0 = new TopicPartition("order.created", 0);
+
+	private static final TopicPartition PARTITION_1 = new TopicPartition("order.created", 1);
+
+	private InFlightRecords inFlightRecords;
+
+	private InFlightDrainer drainer;
+
+	@BeforeEach
+	void setUp() {
+		inFlightRecords = new InFlightRecords();
+		drainer = new InFlightDrainer(inFlightRecords, Duration.ofMillis(300));
+	}
+
+	@Test
+	void drain_NothingInFlight_ReturnsAtOnce() {
+		assertThat(drainer.drain(List.of(PARTITION_0, PARTITION_1)), equalTo(true));
+	}
+
+	@Test
+	void drain_RecordsCompleting_WaitsForThem() throws Exception {
+		final var first = buildRecord(0, 0);
+		final var second = buildRecord(0, 1);
+		inFlightRecords.add(first);
+		inFlightRecords.add(second);
+
+		final CompletableFuture<Void> lane = CompletableFuture.runAsync(() -> {
+			sleep(50);
+			inFlightRecords.remove(first);
+			sleep(50);
+			inFlightRecords.remove(second);
+		});
+
+		assertThat(drainer.drain(List.of(PARTITION_0)), equalTo(true));
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(0));
+		lane.get(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void drain_RecordStuck_GivesUpAfterTimeout() {
+		inFlightRecords.add(buildRecord(1, 0));
+
+		final long start = System.nanoTime();
+		assertThat(drainer.drain(List.of(PARTITION_0, PARTITION_1)), equalTo(false));
+		final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+		assertThat(elapsedMillis, greaterThanOrEqualTo(300L));
+		assertThat(elapsedMillis, lessThan(2000L));
+	}
+
+	@Test
+	void drain_OtherPartitionInFlight_NotWaitedFor() {
+		inFlightRecords.add(buildRecord(1, 0));
+
+		assertThat(drainer.drain(List.of(PARTITION_0)), equalTo(true));
+	}
+
+	@Test
+	void onPartitionsRevokedBeforeCommit_Drains() {
+		final var record = buildRecord(0, 0);
+		inFlightRecords.add(record);
+		CompletableFuture.runAsync(() -> {
+			sleep(50);
+			inFlightRecords.remove(record);
+		});
+
+		drainer.onPartitionsRevokedBeforeCommit(null, List.of(PARTITION_0));
+
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(0));
+	}
+
+	private static ConsumerRecord<String, Object> buildRecord(final int partition, final long offset) {
+		return new ConsumerRecord<>("order.created", partition, offset, randomUUID().toString(),
+				buildOrderCreatedEvent(randomUUID(), "my-item"));
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+
+class InFlightRecordsTest {
+
+	private static final TopicPartition PARTITION_0 = new TopicPartition("order.created", 0);
+
+	private static final TopicPartition PARTITION_1 = new TopicPartition("order.created", 1);
+
+	private InFlightRecords inFlightRecords;
+
+	private Consumer<String, Object> consumer;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		inFlightRecords = new InFlightRecords();
+		consumer = mock(Consumer.class);
+	}
+
+	@Test
+	void get_UnknownPartition_ReturnsZero() {
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(0));
+	}
+
+	@Test
+	void intercept_Record_CountedUntilAfterRecord() {
+		final var record = buildRecord(0, 0);
+
+		assertThat(inFlightRecords.intercept(record, consumer), sameInstance(record));
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(1));
+		assertThat(inFlightRecords.get(PARTITION_1), equalTo(0));
+
+		inFlightRecords.afterRecord(record, consumer);
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(0));
+	}
+
+	@Test
+	void intercept_Batch_CountedPerPartitionUntilSuccess() {
+		final var records = buildRecords(buildRecord(0, 0), buildRecord(0, 1), buildRecord(1, 0));
+
+		assertThat(inFlightRecords.intercept(records, consumer), sameInstance(records));
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(2));
+		assertThat(inFlightRecords.get(PARTITION_1), equalTo(1));
+
+		inFlightRecords.success(records, consumer);
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(0));
+		assertThat(inFlightRecords.get(PARTITION_1), equalTo(0));
+	}
+
+	@Test
+	void intercept_Batch_CountedUntilFailure() {
+		final var records = buildRecords(buildRecord(1, 0), buildRecord(1, 1));
+
+		inFlightRecords.intercept(records, consumer);
+		assertThat(inFlightRecords.get(PARTITION_1), equalTo(2));
+
+		inFlightRecords.failure(records, new RuntimeException("failed"), consumer);
+		assertThat(inFlightRecords.get(PARTITION_1), equalTo(0));
+	}
+
+	@Test
+	void add_CountedUntilRemoved() {
+		final var first = buildRecord(0, 0);
+		final var second = buildRecord(0, 1);
+
+		inFlightRecords.add(first);
+		inFlightRecords.add(second);
+		inFlightRecords.remove(first);
+
+		assertThat(inFlightRecords.get(PARTITION_0), equalTo(1));
+	}
+
+	private static ConsumerRecord<String, Object> buildRecord(final int partition, final long offset) {
+		return new ConsumerRecord<>("order.created", partition, offset, randomUUID().toString(),
+				buildOrderCreatedEvent(randomUUID(), "my-item"));
+	}
+
+	@SafeVarargs
+	private static ConsumerRecords<String, Object> buildRecords(final ConsumerRecord<String, Object>... records) {
+		final Map<TopicPartition, List<ConsumerRecord<String, Object>>> byPartition = new HashMap<>();
+		for (final ConsumerRecord<String, Object> record : records) {
+			byPartition.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+					partition -> new ArrayList<>()).add(record);
+		}
+		return new ConsumerRecords<>(byPartition);
+	}
+
+}
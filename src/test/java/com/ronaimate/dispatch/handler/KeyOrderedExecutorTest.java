@@ -0,0 +1,71 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class KeyOrderedExecutorTest {
+
+	@Test
+	void execute_SameKeyRunsInSubmissionOrder() throws Exception {
+		final List<Integer> completed = Collections.synchronizedList(new ArrayList<>());
+
+		try (KeyOrderedExecutor executor = KeyOrderedExecutor.virtualThreads(8)) {
+			for (int i = 0; i < 5; i++) {
+				final int task = i;
+				executor.execute("order-1", () -> {
+					sleep(5 - task);
+					completed.add(task);
+				});
+			}
+			executor.shutdown(Duration.ofSeconds(5));
+		}
+
+		assertThat(completed, contains(0, 1, 2, 3, 4));
+	}
+
+	@Test
+	void execute_DifferentLanesRunConcurrently() throws Exception {
+		final CountDownLatch bothStarted = new CountDownLatch(2);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<Boolean> overlapped = Collections.synchronizedList(new ArrayList<>());
+
+		try (KeyOrderedExecutor executor = KeyOrderedExecutor.virtualThreads(2)) {
+			// "a" and "b" hash to different lanes of two
+			for (final String key : List.of("a", "b")) {
+				executor.execute(key, () -> {
+					bothStarted.countDown();
+					try {
+						overlapped.add(bothStarted.await(5, TimeUnit.SECONDS));
+						release.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+			assertThat(bothStarted.await(5, TimeUnit.SECONDS), equalTo(true));
+			release.countDown();
+			executor.shutdown(Duration.ofSeconds(5));
+		}
+
+		assertThat(overlapped, contains(true, true));
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
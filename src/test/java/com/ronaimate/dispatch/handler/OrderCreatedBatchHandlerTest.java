@@ -0,0 +1,103 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.service.DispatchService;
+import com.ronaimate.exception.NotRetryableException;
+import com.ronaimate.exception.RetryableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedRecord;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OrderCreatedBatchHandlerTest {
+
+	private OrderCreatedBatchHandler handler;
+
+	private DispatchService dispatchServiceMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setUp() {
+		dispatchServiceMock = mock(DispatchService.class);
+		meterRegistry = new SimpleMeterRegistry();
+		handler = new OrderCreatedBatchHandler(dispatchServiceMock, new DispatchMetrics(meterRegistry));
+	}
+
+	@Test
+	void listen_Success() throws Exception {
+		final var records = buildRecords("car", "bike");
+
+		handler.listen(records);
+
+		verify(dispatchServiceMock, times(1)).process(records);
+	}
+
+	@Test
+	void listen_ServiceThrowsRetryableException() throws Exception {
+		final var records = buildRecords("car", "bike");
+		doThrow(new BatchListenerFailedException("failed", new RetryableException("Service failure"), 1))
+				.when(dispatchServiceMock).process(records);
+
+		final var exception = assertThrows(BatchListenerFailedException.class, () -> handler.listen(records));
+
+		assertThat(exception.getIndex(), equalTo(1));
+		assertThat(exception.getCause(), instanceOf(RetryableException.class));
+		verify(dispatchServiceMock, times(1)).process(records);
+	}
+
+	@Test
+	void listen_ServiceThrowsNotRetryableException() throws Exception {
+		final var records = buildRecords("car", "bike");
+		doThrow(new BatchListenerFailedException("failed", new RuntimeException("Service failure"), 1))
+				.when(dispatchServiceMock).process(records);
+
+		final var exception = assertThrows(BatchListenerFailedException.class, () -> handler.listen(records));
+
+		assertThat(exception.getIndex(), equalTo(1));
+		assertThat(exception.getCause(), instanceOf(NotRetryableException.class));
+		assertThat(exception.getCause().getMessage(), equalTo("java.lang.RuntimeException: Service failure"));
+		verify(dispatchServiceMock, times(1)).process(records);
+	}
+
+	@Test
+	void listen_ServiceThrowsException() throws Exception {
+		final var records = buildRecords("car");
+		doThrow(new RuntimeException("Service failure")).when(dispatchServiceMock).process(records);
+
+		final Exception exception = assertThrows(NotRetryableException.class, () -> handler.listen(records));
+
+		assertThat(exception.getMessage(), equalTo("java.lang.RuntimeException: Service failure"));
+		assertThat(meterRegistry.counter("dispatch.not.retryable").count(), equalTo(1.0));
+		verify(dispatchServiceMock, times(1)).process(records);
+	}
+
+	private static List<ConsumerRecord<String, OrderCreated>> buildRecords(final String... items) {
+		final List<ConsumerRecord<String, OrderCreated>> records = new ArrayList<>();
+		for (final String item : items) {
+			records.add(buildOrderCreatedRecord(records.size(), randomUUID().toString(),
+					buildOrderCreatedEvent(randomUUID(), item)));
+		}
+		return records;
+	}
+
+}
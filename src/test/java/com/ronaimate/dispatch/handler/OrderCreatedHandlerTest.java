@@ -1,13 +1,18 @@
 package com.ronaimate.dispatch.handler;
 
+import java.nio.charset.StandardCharsets;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
 import com.ronaimate.dispatch.service.DispatchService;
 import com.ronaimate.dispatch.util.TestEventData;
 import com.ronaimate.exception.NotRetryableException;
 import com.ronaimate.exception.RetryableException;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
 import static java.util.UUID.randomUUID;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -24,10 +29,13 @@ class OrderCreatedHandlerTest {
 
 	private DispatchService dispatchServiceMock;
 
+	private SimpleMeterRegistry meterRegistry;
+
 	@BeforeEach
 	void setUp() {
 		dispatchServiceMock = mock(DispatchService.class);
-		handler = new OrderCreatedHandler(dispatchServiceMock);
+		meterRegistry = new SimpleMeterRegistry();
+		handler = new OrderCreatedHandler(dispatchServiceMock, new DispatchMetrics(meterRegistry));
 	}
 
 	@Test
@@ -35,7 +43,17 @@ class OrderCreatedHandlerTest {
 		final var key = randomUUID().toString();
 		final var testEvent = buildOrderCreatedEvent(randomUUID(), "car");
 
-		handler.listen(0, key, testEvent);
+		handler.listen(0, key, null, testEvent);
+
+		verify(dispatchServiceMock, times(1)).process(key, testEvent);
+	}
+
+	@Test
+	void listen_Repartitioned_DispatchedUnderOrderKey() throws Exception {
+		final var key = randomUUID().toString();
+		final var testEvent = buildOrderCreatedEvent(randomUUID(), "car");
+
+		handler.listen(0, "car", key.getBytes(StandardCharsets.UTF_8), testEvent);
 
 		verify(dispatchServiceMock, times(1)).process(key, testEvent);
 	}
@@ -46,9 +64,11 @@ class OrderCreatedHandlerTest {
 		final var testEvent = buildOrderCreatedEvent(randomUUID(), "car");
 		doThrow(new RuntimeException("Service failure")).when(dispatchServiceMock).process(key, testEvent);
 
-		final Exception exception = assertThrows(NotRetryableException.class, () -> handler.listen(0, key, testEvent));
+		final Exception exception = assertThrows(NotRetryableException.class,
+				() -> handler.listen(0, key, null, testEvent));
 
 		assertThat(exception.getMessage(), equalTo("java.lang.RuntimeException: Service failure"));
+		assertThat(meterRegistry.counter("dispatch.not.retryable").count(), equalTo(1.0));
 		verify(dispatchServiceMock, times(1)).process(key, testEvent);
 	}
 
@@ -58,7 +78,7 @@ class OrderCreatedHandlerTest {
 		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
 		doThrow(new RetryableException("Service failure")).when(dispatchServiceMock).process(key, testEvent);
 
-		Exception exception = assertThrows(RuntimeException.class, () -> handler.listen(0, key, testEvent));
+		Exception exception = assertThrows(RuntimeException.class, () -> handler.listen(0, key, null, testEvent));
 
 		assertThat(exception.getMessage(), equalTo("Service failure"));
 		verify(dispatchServiceMock, times(1)).process(key, testEvent);
@@ -0,0 +1,163 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.service.DispatchService;
+import com.ronaimate.exception.NotRetryableException;
+import com.ronaimate.exception.RetryableException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedRecord;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCreatedParallelHandlerTest {
+
+	private OrderCreatedParallelHandler handler;
+
+	private DispatchService dispatchServiceMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ConsumerRecordRecoverer recovererMock;
+
+	private Acknowledgment acknowledgmentMock;
+
+	private MessageListenerContainer containerMock;
+
+	@BeforeEach
+	void setUp() {
+		dispatchServiceMock = mock(DispatchService.class);
+		meterRegistry = new SimpleMeterRegistry();
+		recovererMock = mock(ConsumerRecordRecoverer.class);
+		acknowledgmentMock = mock(Acknowledgment.class);
+		containerMock = mock(MessageListenerContainer.class);
+		final KafkaListenerEndpointRegistry registryMock = mock(KafkaListenerEndpointRegistry.class);
+		when(registryMock.getListenerContainer("orderConsumerClient")).thenReturn(containerMock);
+		handler = new OrderCreatedParallelHandler(dispatchServiceMock, recovererMock, new FixedBackOff(0L, 2L),
+				new DispatchMetrics(meterRegistry), registryMock, new InFlightRecords(),
+				KeyOrderedExecutor.virtualThreads(4), 2, Duration.ofSeconds(10));
+	}
+
+	@Test
+	void listen_Success() throws Exception {
+		final var record = buildRecord();
+
+		handler.listen(record, acknowledgmentMock);
+		handler.destroy();
+
+		verify(dispatchServiceMock, times(1)).process(record.key(), record.value());
+		verify(recovererMock, never()).accept(any(), any());
+		verify(acknowledgmentMock, times(1)).acknowledge();
+	}
+
+	@Test
+	void listen_ServiceThrowsRetryableExceptionThenSucceeds() throws Exception {
+		final var record = buildRecord();
+		doThrow(new RetryableException("Service failure")).doNothing()
+				.when(dispatchServiceMock).process(record.key(), record.value());
+
+		handler.listen(record, acknowledgmentMock);
+		handler.destroy();
+
+		verify(dispatchServiceMock, times(2)).process(record.key(), record.value());
+		verify(recovererMock, never()).accept(any(), any());
+		verify(acknowledgmentMock, times(1)).acknowledge();
+	}
+
+	@Test
+	void listen_ServiceThrowsRetryableExceptionUntilRetriesExhausted() throws Exception {
+		final var record = buildRecord();
+		doThrow(new RetryableException("Service failure")).when(dispatchServiceMock).process(record.key(),
+				record.value());
+
+		handler.listen(record, acknowledgmentMock);
+		handler.destroy();
+
+		verify(dispatchServiceMock, times(3)).process(record.key(), record.value());
+		verify(recovererMock, times(1)).accept(eq(record), isA(RetryableException.class));
+		verify(acknowledgmentMock, times(1)).acknowledge();
+	}
+
+	@Test
+	void listen_ServiceThrowsException() throws Exception {
+		final var record = buildRecord();
+		doThrow(new RuntimeException("Service failure")).when(dispatchServiceMock).process(record.key(),
+				record.value());
+
+		handler.listen(record, acknowledgmentMock);
+		handler.destroy();
+
+		verify(dispatchServiceMock, times(1)).process(record.key(), record.value());
+		verify(recovererMock, times(1)).accept(eq(record), isA(NotRetryableException.class));
+		verify(acknowledgmentMock, times(1)).acknowledge();
+		assertThat(meterRegistry.counter("dispatch.not.retryable").count(), equalTo(1.0));
+	}
+
+	@Test
+	void listen_RecovererFails_NotAcknowledged() throws Exception {
+		final var record = buildRecord();
+		doThrow(new RuntimeException("Service failure")).when(dispatchServiceMock).process(record.key(),
+				record.value());
+		doThrow(new IllegalStateException("DLT unavailable")).when(recovererMock).accept(any(), any());
+
+		handler.listen(record, acknowledgmentMock);
+		handler.destroy();
+
+		verify(acknowledgmentMock, never()).acknowledge();
+	}
+
+	@Test
+	void listen_MaxInFlightReached_PausesUntilDrained() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+				.when(dispatchServiceMock).process(any(), any());
+
+		handler.listen(buildRecord(0), acknowledgmentMock);
+		verify(containerMock, never()).pause();
+		handler.listen(buildRecord(1), acknowledgmentMock);
+		verify(containerMock, times(1)).pause();
+		verify(containerMock, never()).resume();
+
+		release.countDown();
+		handler.destroy();
+
+		verify(containerMock, times(1)).resume();
+	}
+
+	private static ConsumerRecord<String, OrderCreated> buildRecord() {
+		return buildRecord(0);
+	}
+
+	private static ConsumerRecord<String, OrderCreated> buildRecord(final long offset) {
+		return buildOrderCreatedRecord(offset, randomUUID().toString(),
+				buildOrderCreatedEvent(randomUUID(), "my-item"));
+	}
+
+}
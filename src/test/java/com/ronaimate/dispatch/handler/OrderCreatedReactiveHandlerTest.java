@@ -0,0 +1,78 @@
+package com.ronaimate.dispatch.handler;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+import org.springframework.util.backoff.FixedBackOff;
+
+import com.ronaimate.dispatch.config.DispatchKafkaProperties;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.service.ReactiveDispatchService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Flux;
+import reactor.kafka.receiver.ReceiverOffset;
+import reactor.kafka.receiver.ReceiverOptions;
+import reactor.kafka.receiver.ReceiverRecord;
+
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderCreatedReactiveHandlerTest {
+
+	private static final TopicPartition PARTITION = new TopicPartition("order.created", 0);
+
+	private final AtomicInteger subscriptions = new AtomicInteger();
+
+	private ReceiverOffset receiverOffset;
+
+	private OrderCreatedReactiveHandler handler;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		receiverOffset = mock(ReceiverOffset.class);
+		when(receiverOffset.topicPartition()).thenReturn(PARTITION);
+		final DispatchKafkaProperties properties = new DispatchKafkaProperties();
+		properties.getListener().getReactive().setRestartBackoff(Duration.ofMillis(10));
+		// the first receiver fails, as on a commit that failed after its retries; the next one receives a record
+		final ReceiverRecord<String, Object> record = new ReceiverRecord<>(
+				new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), 0L, "key", "not an order"),
+				receiverOffset);
+		handler = new OrderCreatedReactiveHandler(ReceiverOptions.create(Map.of()),
+				options -> subscriptions.incrementAndGet() == 1
+						? Flux.error(new KafkaException("commit failed"))
+						: Flux.concat(Flux.just(record), Flux.never()),
+				mock(ReactiveDispatchService.class), mock(ReactiveKafkaProducerTemplate.class),
+				new FixedBackOff(0L, 0L), new DispatchMetrics(new SimpleMeterRegistry()), properties);
+	}
+
+	@AfterEach
+	void tearDown() {
+		handler.stop();
+	}
+
+	@Test
+	void start_ReceiverFails_SubscribesAgainAndKeepsConsuming() {
+		handler.start();
+
+		verify(receiverOffset, timeout(5000)).acknowledge();
+		assertThat(subscriptions.get(), equalTo(2));
+		await().atMost(Duration.ofSeconds(1)).until(handler::isRunning);
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.ronaimate.dispatch.handler;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.ronaimate.dispatch.messages.OrderCreated;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedRecord;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PartitionOffsetTrackerTest {
+
+	private PartitionOffsetTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		tracker = new PartitionOffsetTracker();
+	}
+
+	@Test
+	void complete_InOrder_AcknowledgesEachRecord() {
+		final var first = buildRecord(0);
+		final var second = buildRecord(1);
+		final Acknowledgment firstAck = register(first);
+		final Acknowledgment secondAck = register(second);
+
+		tracker.complete(first);
+		tracker.complete(second);
+
+		verify(firstAck, times(1)).acknowledge();
+		verify(secondAck, times(1)).acknowledge();
+		assertThat(tracker.pending(), equalTo(0));
+	}
+
+	@Test
+	void complete_OutOfOrder_AcknowledgesHighestContiguousOffset() {
+		final var first = buildRecord(0);
+		final var second = buildRecord(1);
+		final var third = buildRecord(2);
+		final Acknowledgment firstAck = register(first);
+		final Acknowledgment secondAck = register(second);
+		final Acknowledgment thirdAck = register(third);
+
+		tracker.complete(third);
+		tracker.complete(second);
+
+		verify(thirdAck, never()).acknowledge();
+		assertThat(tracker.pending(), equalTo(3));
+
+		tracker.complete(first);
+
+		verify(firstAck, never()).acknowledge();
+		verify(secondAck, never()).acknowledge();
+		verify(thirdAck, times(1)).acknowledge();
+		assertThat(tracker.pending(), equalTo(0));
+	}
+
+	@Test
+	void revoke_ForgetsPendingRecordsAndIgnoresLateCompletions() {
+		final var first = buildRecord(0);
+		final var second = buildRecord(1);
+		register(first);
+		final Acknowledgment secondAck = register(second);
+
+		tracker.revoke(List.of(new TopicPartition("order.created", 0)));
+		tracker.complete(second);
+
+		verify(secondAck, never()).acknowledge();
+		assertThat(tracker.pending(), equalTo(0));
+	}
+
+	@Test
+	void complete_RecordRegisteredBeforeReassignment_IsIgnored() {
+		final var stale = buildRecord(0);
+		final Acknowledgment staleAck = register(stale);
+		tracker.revoke(List.of(new TopicPartition("order.created", 0)));
+		final var redelivered = buildRecord(0);
+		final Acknowledgment redeliveredAck = register(redelivered);
+
+		tracker.complete(stale);
+
+		verify(staleAck, never()).acknowledge();
+		verify(redeliveredAck, never()).acknowledge();
+		assertThat(tracker.pending(), equalTo(1));
+	}
+
+	private Acknowledgment register(final ConsumerRecord<String, OrderCreated> record) {
+		final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+		tracker.register(record, acknowledgment);
+		return acknowledgment;
+	}
+
+	private static ConsumerRecord<String, OrderCreated> buildRecord(final long offset) {
+		return buildOrderCreatedRecord(offset, randomUUID().toString(), buildOrderCreatedEvent(randomUUID(), "my-item"));
+	}
+
+}
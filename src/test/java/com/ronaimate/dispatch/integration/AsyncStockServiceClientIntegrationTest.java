@@ -0,0 +1,122 @@
+package com.ronaimate.dispatch.integration;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.ronaimate.dispatch.client.AsyncStockServiceClient;
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.exception.RetryableException;
+
+import reactor.netty.resources.ConnectionProvider;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremockWithDelay;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The non-blocking stock client against a WireMock stock service.
+ */
+class AsyncStockServiceClientIntegrationTest {
+
+	private static WireMockServer wireMockServer;
+
+	private static ConnectionProvider connectionProvider;
+
+	private AsyncStockServiceClient client;
+
+	@BeforeAll
+	static void startWireMock() {
+		wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+		wireMockServer.start();
+		WireMock.configureFor("localhost", wireMockServer.port());
+		connectionProvider = new DispatchConfiguration().stockServiceConnectionProvider(4, Duration.ofSeconds(30));
+	}
+
+	@AfterAll
+	static void stopWireMock() {
+		connectionProvider.dispose();
+		wireMockServer.stop();
+	}
+
+	@BeforeEach
+	void setUp() {
+		WiremockUtils.reset();
+		client = client("http://localhost:" + wireMockServer.port() + "/api/stock");
+	}
+
+	@Test
+	void checkAvailability_Success() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+
+		assertThat(client.checkAvailability("my-item").get(5, TimeUnit.SECONDS), equalTo("true"));
+	}
+
+	@Test
+	void checkAvailability_Http2() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+		final var http2Client = new AsyncStockServiceClient(new DispatchConfiguration().stockServiceWebClient(
+				connectionProvider, Duration.ofSeconds(1), Duration.ofMillis(500), true),
+				"http://localhost:" + wireMockServer.port() + "/api/stock");
+
+		assertThat(http2Client.checkAvailability("my-item").get(5, TimeUnit.SECONDS), equalTo("true"));
+	}
+
+	@Test
+	void checkAvailability_ServerError() {
+		stubWiremock("/api/stock?item=my-item", 503, "Service unavailable");
+
+		final var exception = assertThrows(ExecutionException.class,
+				() -> client.checkAvailability("my-item").get(5, TimeUnit.SECONDS));
+
+		assertThat(exception.getCause(), instanceOf(RetryableException.class));
+	}
+
+	@Test
+	void checkAvailability_ClientError() {
+		stubWiremock("/api/stock?item=my-item", 400, "Bad Request");
+
+		final var exception = assertThrows(ExecutionException.class,
+				() -> client.checkAvailability("my-item").get(5, TimeUnit.SECONDS));
+
+		assertThat(exception.getCause(), instanceOf(WebClientResponseException.class));
+	}
+
+	@Test
+	void checkAvailability_ReadTimeout() {
+		stubWiremockWithDelay("/api/stock?item=my-item", 200, "true", 2000);
+
+		final var exception = assertThrows(ExecutionException.class,
+				() -> client.checkAvailability("my-item").get(5, TimeUnit.SECONDS));
+
+		assertThat(exception.getCause(), instanceOf(RetryableException.class));
+	}
+
+	@Test
+	void checkAvailability_ConnectionRefused() {
+		final var unreachable = client("http://localhost:1/api/stock");
+
+		final var exception = assertThrows(ExecutionException.class,
+				() -> unreachable.checkAvailability("my-item").get(5, TimeUnit.SECONDS));
+
+		assertThat(exception.getCause(), instanceOf(RetryableException.class));
+	}
+
+	private static AsyncStockServiceClient client(final String endpoint) {
+		return new AsyncStockServiceClient(new DispatchConfiguration().stockServiceWebClient(connectionProvider,
+				Duration.ofSeconds(1), Duration.ofMillis(500), false), endpoint);
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.KafkaHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremockWithDelay;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Measures how many orders per second a listener mode dispatches against a stock service with injected latency.
+ * The orders are published while the dispatch listener is stopped, so the measurement covers consumption only.
+ * Run with {@code ./gradlew benchmark}; the rate is logged at the end of each run.
+ */
+@Slf4j
+@Tag("benchmark")
+@AutoConfigureWireMock(port = 0)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ActiveProfiles("test")
+@EmbeddedKafka(controlledShutdown = true)
+abstract class DispatchThroughputBenchmark {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	private final static int ORDERS = 400;
+
+	private final static int STOCK_SERVICE_LATENCY_MS = 20;
+
+	@Autowired
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Autowired
+	private KafkaListenerEndpointRegistry registry;
+
+	@Autowired
+	private CompletedListener completedListener;
+
+	@Configuration
+	static class TestConfig {
+
+		@Bean
+		public CompletedListener completedListener() {
+			return new CompletedListener();
+		}
+
+	}
+
+	@KafkaListener(groupId = "DispatchThroughputBenchmark", topics = "dispatch.tracking", batch = "false")
+	static class CompletedListener {
+
+		final AtomicInteger dispatchCompletedCounter = new AtomicInteger(0);
+
+		@KafkaHandler
+		void receiveDispatchCompleted(final DispatchCompleted payload) {
+			dispatchCompletedCounter.incrementAndGet();
+		}
+
+		@KafkaHandler(isDefault = true)
+		void receiveOther(final Object payload) {
+		}
+
+	}
+
+	@Test
+	void dispatchThroughput() throws Exception {
+		stubWiremockWithDelay("/api/stock?item=my-item", 200, "true", STOCK_SERVICE_LATENCY_MS);
+		final MessageListenerContainer dispatchContainer = registry.getListenerContainer("orderConsumerClient");
+		ContainerTestUtils.waitForAssignment(dispatchContainer, embeddedKafkaBroker.getPartitionsPerTopic());
+		dispatchContainer.stop();
+		for (int i = 0; i < ORDERS; i++) {
+			kafkaTemplate.send(ORDER_CREATED_TOPIC, randomUUID().toString(),
+					TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"));
+		}
+		kafkaTemplate.flush();
+		// fetch the metadata of the outbound topics up front so the first dispatches do not wait for it
+		kafkaTemplate.partitionsFor("order.dispatched");
+		kafkaTemplate.partitionsFor("dispatch.tracking");
+
+		final long start = System.nanoTime();
+		dispatchContainer.start();
+		await().atMost(120, TimeUnit.SECONDS).pollInterval(10, TimeUnit.MILLISECONDS)
+				.until(completedListener.dispatchCompletedCounter::get, equalTo(ORDERS));
+		final double seconds = (System.nanoTime() - start) / 1_000_000_000d;
+
+		log.info("{}: dispatched {} orders in {} s ({} orders/s) with {} ms stock service latency",
+				getClass().getSimpleName(), ORDERS, String.format("%.2f", seconds),
+				String.format("%.1f", ORDERS / seconds), STOCK_SERVICE_LATENCY_MS);
+	}
+
+}
@@ -0,0 +1,147 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremockWithDelay;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with the listener admin endpoint, and checks that it reports
+ * the records in flight, pauses and resumes partitions and changes the concurrency of the listener at runtime.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = "dispatch.admin.enabled=true")
+@AutoConfigureMockMvc
+class OrderDispatchAdminIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	private final static String LISTENER_ID = "orderConsumerClient";
+
+	private final static String LISTENER_PATH = "/admin/listeners/" + LISTENER_ID;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private KafkaTestListener testListener;
+
+	@Autowired
+	private KafkaListenerEndpointRegistry registry;
+
+	@Autowired
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	@Test
+	void testAdmin_ReportsPartitionsAndRecordsInFlight() throws Exception {
+		stubWiremockWithDelay("/api/stock?item=my-item", 200, "true", 2000);
+		mockMvc.perform(get(LISTENER_PATH))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.running").value(true))
+				.andExpect(jsonPath("$.concurrency").value(1))
+				.andExpect(jsonPath("$.partitions.length()").value(2))
+				.andExpect(jsonPath("$.partitions[1].topic").value(ORDER_CREATED_TOPIC))
+				.andExpect(jsonPath("$.partitions[1].inFlight").value(0));
+
+		send(1);
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS).untilAsserted(() ->
+				mockMvc.perform(get(LISTENER_PATH)).andExpect(jsonPath("$.partitions[1].inFlight").value(1)));
+		await().atMost(5, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(1));
+		mockMvc.perform(get(LISTENER_PATH)).andExpect(jsonPath("$.partitions[1].inFlight").value(0));
+	}
+
+	@Test
+	void testAdmin_PausedPartitionHeldUntilResumed() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+		final TopicPartition partition = new TopicPartition(ORDER_CREATED_TOPIC, 0);
+		final ConcurrentMessageListenerContainer<?, ?> container =
+				(ConcurrentMessageListenerContainer<?, ?>) registry.getListenerContainer(LISTENER_ID);
+
+		mockMvc.perform(post(LISTENER_PATH + "/partitions/0/pause"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.partitions[0].paused").value(true))
+				.andExpect(jsonPath("$.partitions[1].paused").value(false));
+		// the pause is applied by the consumer thread once its current poll returns
+		await().atMost(10, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(() -> container.getContainers().stream().anyMatch(child -> child.isPartitionPaused(partition)));
+		send(0);
+		send(1);
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(1));
+		TimeUnit.MILLISECONDS.sleep(1000);
+		assertThat(testListener.dispatchCompletedCounter.get(), equalTo(1));
+
+		mockMvc.perform(post(LISTENER_PATH + "/partitions/0/resume"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.partitions[0].paused").value(false));
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(2));
+	}
+
+	@Test
+	void testAdmin_ConcurrencyChangedAtRuntime() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+		final ConcurrentMessageListenerContainer<?, ?> container =
+				(ConcurrentMessageListenerContainer<?, ?>) registry.getListenerContainer(LISTENER_ID);
+
+		try {
+			mockMvc.perform(put(LISTENER_PATH + "/concurrency").param("value", "2"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.concurrency").value(2));
+			ContainerTestUtils.waitForAssignment(container, 2);
+			assertThat(container.getContainers().size(), equalTo(2));
+
+			send(0);
+			send(1);
+
+			await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+					.until(testListener.dispatchCompletedCounter::get, equalTo(2));
+		} finally {
+			mockMvc.perform(put(LISTENER_PATH + "/concurrency").param("value", "1"))
+					.andExpect(jsonPath("$.concurrency").value(1));
+		}
+	}
+
+	@Test
+	void testAdmin_InvalidRequestsRejected() throws Exception {
+		mockMvc.perform(put(LISTENER_PATH + "/concurrency").param("value", "0"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/admin/listeners/KafkaIntegrationTest"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(post(LISTENER_PATH + "/partitions/7/pause"))
+				.andExpect(status().isNotFound());
+		assertThat(registry.getListenerContainer(LISTENER_ID).isRunning(), equalTo(true));
+	}
+
+	private void send(final int partition) throws Exception {
+		final OrderCreated orderCreated = TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item");
+		kafkaTemplate.send(ORDER_CREATED_TOPIC, partition, randomUUID().toString(), orderCreated).get();
+	}
+
+}
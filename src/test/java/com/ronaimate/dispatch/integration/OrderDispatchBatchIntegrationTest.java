@@ -0,0 +1,45 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremockBulk;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios against the batch listener, and checks that a batch is
+ * dispatched with the bulk stock lookup.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = "kafka.listener.mode=batch")
+class OrderDispatchBatchIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	@Autowired
+	private KafkaTestListener testListener;
+
+	@Test
+	void testOrderDispatchFlow_BulkLookup() throws Exception {
+		// only a bulk lookup reads the JSON answer: a single-item lookup falling back to the same URL reads it as
+		// unavailable, and the order is not dispatched
+		stubWiremockBulk("/api/stock?item=bulk-item", 200, "{\"bulk-item\":\"true\"}");
+
+		sendMessage(ORDER_CREATED_TOPIC, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "bulk-item"));
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(1));
+		assertThat(testListener.orderDispatchedCounter.get(), equalTo(1));
+		assertThat(testListener.orderCreatedDLTCounter.get(), equalTo(0));
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.ronaimate.dispatch.integration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with transactions enabled on the batch listener.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = { "kafka.transactions.enabled=true", "kafka.listener.mode=batch" })
+class OrderDispatchBatchTransactionalIntegrationTest extends OrderDispatchTransactionalIntegrationTest {
+
+}
@@ -0,0 +1,14 @@
+package com.ronaimate.dispatch.integration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with every dispatch topic in the binary format.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = "kafka.serialization.binary-topics=order.created,order.dispatched,dispatch.tracking")
+class OrderDispatchBinaryIntegrationTest extends OrderDispatchIntegrationTest {
+
+}
@@ -0,0 +1,92 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ProducerFactory;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.handler.CatchUpSwitcher;
+import com.ronaimate.dispatch.handler.OrderCreatedCatchUpHandler;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with the catch-up profile enabled, and checks that a
+ * backlog is dispatched by the catch-up listener, with its own producer, and that the record listener takes over
+ * again once it is gone.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = { "kafka.catch-up.enabled=true", "kafka.catch-up.enter-lag=50", "kafka.catch-up.exit-lag=0",
+				"kafka.catch-up.check-interval=100ms", "kafka.catch-up.min-duration=0s" })
+class OrderDispatchCatchUpIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	private final static String LISTENER_ID = "orderConsumerClient";
+
+	private final static int BACKLOG = 200;
+
+	@Autowired
+	private KafkaTestListener testListener;
+
+	@Autowired
+	private KafkaListenerEndpointRegistry registry;
+
+	@Autowired
+	private CatchUpSwitcher catchUpSwitcher;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private ProducerFactory<String, Object> producerFactory;
+
+	@Test
+	void testOrderDispatchFlow_BacklogDispatchedInCatchUpProfile() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+		assertThat(registry.getListenerContainer(OrderCreatedCatchUpHandler.LISTENER_ID).getContainerProperties()
+				.getKafkaConsumerProperties().getProperty("max.poll.records"), equalTo("1000"));
+
+		// the backlog builds up while nothing consumes order.created, as during an outage
+		registry.getListenerContainer(LISTENER_ID).stop();
+		for (int i = 0; i < BACKLOG; i++) {
+			sendMessage(ORDER_CREATED_TOPIC, randomUUID().toString(),
+					TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"));
+		}
+
+		await().atMost(5, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(() -> switches("catch_up"), greaterThanOrEqualTo(1.0));
+		await().atMost(30, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(BACKLOG));
+		await().atMost(10, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(catchUpSwitcher::profile, equalTo(CatchUpSwitcher.Profile.LOW_LATENCY));
+		assertThat(switches("low_latency"), equalTo(switches("catch_up")));
+		assertThat(registry.getListenerContainer(LISTENER_ID).isRunning(), equalTo(true));
+		assertThat(registry.getListenerContainer(OrderCreatedCatchUpHandler.LISTENER_ID).isRunning(),
+				equalTo(false));
+		assertThat(testListener.orderDispatchedCounter.get(), equalTo(BACKLOG));
+		assertThat(testListener.orderCreatedDLTCounter.get(), equalTo(0));
+		// the catch-up producer settings never reach the producer of the other listeners
+		assertThat(producerFactory.getConfigurationProperties().get(ProducerConfig.COMPRESSION_TYPE_CONFIG),
+				equalTo("none"));
+	}
+
+	private double switches(final String profile) {
+		return meterRegistry.get("dispatch.listener.profile.switches").tag("profile", profile).functionCounter()
+				.count();
+	}
+
+}
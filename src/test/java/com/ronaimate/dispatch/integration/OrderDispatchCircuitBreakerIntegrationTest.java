@@ -0,0 +1,103 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ronaimate.dispatch.client.StockCircuitBreaker;
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Opens the stock service circuit after two failed calls and checks that the consumer is paused instead of retrying
+ * while it is open, and that the order is dispatched rather than dead-lettered once the stock service recovers.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = { "dispatch.stockCircuitBreaker.enabled=true", "dispatch.stockCircuitBreaker.slidingWindowSize=2",
+				"dispatch.stockCircuitBreaker.minimumCalls=2", "dispatch.stockCircuitBreaker.failureRateThreshold=100",
+				"dispatch.stockCircuitBreaker.openDuration=2s" })
+@AutoConfigureWireMock(port = 0)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ActiveProfiles("test")
+@EmbeddedKafka(controlledShutdown = true)
+class OrderDispatchCircuitBreakerIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	private final static String STOCK_QUERY = "/api/stock?item=my-item";
+
+	@Autowired
+	private KafkaTemplate kafkaTemplate;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Autowired
+	private KafkaListenerEndpointRegistry registry;
+
+	@Autowired
+	private OrderDispatchIntegrationTest.KafkaTestListener testListener;
+
+	@Autowired
+	private StockCircuitBreaker circuitBreaker;
+
+	@BeforeEach
+	void setUp() {
+		WiremockUtils.reset();
+
+		registry.getListenerContainers()
+				.forEach(container -> ContainerTestUtils.waitForAssignment(container,
+						Objects.requireNonNull(container.getContainerProperties().getTopics()).length *
+								embeddedKafkaBroker.getPartitionsPerTopic()));
+	}
+
+	@Test
+	void testOrderDispatchFlow_CircuitOpenPausesConsumerUntilRecovery() throws Exception {
+		stubWiremock(STOCK_QUERY, 503, "Service unavailable");
+
+		kafkaTemplate.send(MessageBuilder
+				.withPayload(TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"))
+				.setHeader(KafkaHeaders.KEY, randomUUID().toString())
+				.setHeader(KafkaHeaders.TOPIC, ORDER_CREATED_TOPIC)
+				.build()).get();
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(circuitBreaker::state, equalTo(StockCircuitBreaker.State.OPEN));
+		assertThat(registry.getListenerContainer("orderConsumerClient").isPauseRequested(), equalTo(true));
+		TimeUnit.MILLISECONDS.sleep(1000);
+		verify(exactly(2), getRequestedFor(urlEqualTo(STOCK_QUERY)));
+
+		stubWiremock(STOCK_QUERY, 200, "true");
+
+		await().atMost(10, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(1));
+		assertThat(testListener.orderCreatedDLTCounter.get(), equalTo(0));
+		assertThat(circuitBreaker.state(), equalTo(StockCircuitBreaker.State.CLOSED));
+		assertThat(registry.getListenerContainer("orderConsumerClient").isPauseRequested(), equalTo(false));
+	}
+
+}
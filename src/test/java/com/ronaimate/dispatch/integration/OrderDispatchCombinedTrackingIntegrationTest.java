@@ -0,0 +1,85 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Dispatches an order with {@code dispatch.trackingMode=COMBINED} and checks that a single
+ * {@code DispatchPreparedAndCompleted} is written to {@code dispatch.tracking} instead of {@code DispatchPreparing}
+ * and {@code DispatchCompleted}.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = { "dispatch.trackingMode=COMBINED" })
+@AutoConfigureWireMock(port = 0)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ActiveProfiles("test")
+@EmbeddedKafka(controlledShutdown = true)
+class OrderDispatchCombinedTrackingIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	@Autowired
+	private KafkaTemplate kafkaTemplate;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Autowired
+	private KafkaListenerEndpointRegistry registry;
+
+	@Autowired
+	private OrderDispatchIntegrationTest.KafkaTestListener testListener;
+
+	@BeforeEach
+	void setUp() {
+		WiremockUtils.reset();
+
+		registry.getListenerContainers()
+				.forEach(container -> ContainerTestUtils.waitForAssignment(container,
+						Objects.requireNonNull(container.getContainerProperties().getTopics()).length *
+								embeddedKafkaBroker.getPartitionsPerTopic()));
+	}
+
+	@Test
+	void testOrderDispatchFlow_OneTrackingEvent() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+
+		kafkaTemplate.send(MessageBuilder
+				.withPayload(TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"))
+				.setHeader(KafkaHeaders.KEY, randomUUID().toString())
+				.setHeader(KafkaHeaders.TOPIC, ORDER_CREATED_TOPIC)
+				.build()).get();
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchPreparedAndCompletedCounter::get, equalTo(1));
+		// order.dispatched is consumed independently of dispatch.tracking
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.orderDispatchedCounter::get, equalTo(1));
+		assertThat(testListener.dispatchPreparingCounter.get(), equalTo(0));
+		assertThat(testListener.dispatchCompletedCounter.get(), equalTo(0));
+	}
+
+}
@@ -0,0 +1,57 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.dedup.ProcessedOrderLog;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with deduplication of processed orders backed by a topic,
+ * and checks that an order delivered twice is dispatched once.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = { "dispatch.dedup.enabled=true", "dispatch.dedup.topic=dispatch.processed.orders" })
+class OrderDispatchDedupIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	@Autowired
+	private KafkaTestListener testListener;
+
+	@Autowired
+	private ProcessedOrderLog processedOrderLog;
+
+	@Test
+	void testOrderDispatchFlow_DuplicateDispatchedOnce() throws Exception {
+		assertThat(processedOrderLog.isRestored(), equalTo(true));
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+		final var key = randomUUID().toString();
+		final var orderCreated = TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item");
+
+		sendMessage(ORDER_CREATED_TOPIC, key, orderCreated);
+		sendMessage(ORDER_CREATED_TOPIC, key, orderCreated);
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(1));
+		TimeUnit.MILLISECONDS.sleep(500);
+		assertThat(testListener.orderDispatchedCounter.get(), equalTo(1));
+		assertThat(testListener.dispatchCompletedCounter.get(), equalTo(1));
+		verify(exactly(1), getRequestedFor(urlEqualTo("/api/stock?item=my-item")));
+	}
+
+}
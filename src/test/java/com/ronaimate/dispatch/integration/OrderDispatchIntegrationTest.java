@@ -15,6 +15,7 @@ import org.springframework.kafka.annotation.KafkaHandler;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.context.EmbeddedKafka;
@@ -27,6 +28,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import com.ronaimate.dispatch.config.DispatchConfiguration;
 import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
 import com.ronaimate.dispatch.messages.DispatchPreparing;
 import com.ronaimate.dispatch.messages.OrderCreated;
 import com.ronaimate.dispatch.messages.OrderDispatched;
@@ -81,7 +83,7 @@ class OrderDispatchIntegrationTest {
 	}
 
 	@KafkaListener(groupId = "KafkaIntegrationTest", topics = { DISPATCH_TRACKING_TOPIC, ORDER_DISPATCHED_TOPIC,
-			ORDER_CREATED_DLT_TOPIC })
+			ORDER_CREATED_DLT_TOPIC }, batch = "false")
 	static class KafkaTestListener {
 
 		final AtomicInteger dispatchPreparingCounter = new AtomicInteger(0);
@@ -90,6 +92,8 @@ class OrderDispatchIntegrationTest {
 
 		final AtomicInteger dispatchCompletedCounter = new AtomicInteger(0);
 
+		final AtomicInteger dispatchPreparedAndCompletedCounter = new AtomicInteger(0);
+
 		final AtomicInteger orderCreatedDLTCounter = new AtomicInteger(0);
 
 		@KafkaHandler
@@ -119,6 +123,15 @@ class OrderDispatchIntegrationTest {
 			dispatchCompletedCounter.incrementAndGet();
 		}
 
+		@KafkaHandler
+		void receiveDispatchPreparedAndCompleted(@Header(KafkaHeaders.RECEIVED_KEY) final String key,
+				@Payload final DispatchPreparedAndCompleted payload) {
+			log.debug("Received DispatchPreparedAndCompleted key: {} - payload: {}", key, payload);
+			assertThat(key, notNullValue());
+			assertThat(payload, notNullValue());
+			dispatchPreparedAndCompletedCounter.incrementAndGet();
+		}
+
 		@KafkaHandler
 		void receiveOrderCreatedDLT(@Header(KafkaHeaders.RECEIVED_KEY) final String key,
 				@Payload final OrderCreated payload) {
@@ -136,11 +149,14 @@ class OrderDispatchIntegrationTest {
 		testListener.dispatchPreparingCounter.set(0);
 		testListener.orderDispatchedCounter.set(0);
 		testListener.dispatchCompletedCounter.set(0);
+		testListener.dispatchPreparedAndCompletedCounter.set(0);
 		testListener.orderCreatedDLTCounter.set(0);
 
 		WiremockUtils.reset();
 
-		registry.getListenerContainers()
+		// containers started on demand, such as the catch-up listener, are not assigned anything until then
+		registry.getListenerContainers().stream()
+				.filter(MessageListenerContainer::isAutoStartup)
 				.forEach(container -> ContainerTestUtils.waitForAssignment(container,
 						Objects.requireNonNull(container.getContainerProperties().getTopics()).length *
 								embeddedKafkaBroker.getPartitionsPerTopic()));
@@ -207,7 +223,7 @@ class OrderDispatchIntegrationTest {
 		assertThat(testListener.dispatchCompletedCounter.get(), equalTo(0));
 	}
 
-	private void sendMessage(final String topic, final String key, final Object data) throws Exception {
+	protected void sendMessage(final String topic, final String key, final Object data) throws Exception {
 		kafkaTemplate.send(MessageBuilder
 				.withPayload(data)
 				.setHeader(KafkaHeaders.KEY, key)
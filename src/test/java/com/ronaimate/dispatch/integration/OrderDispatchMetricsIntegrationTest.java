@@ -0,0 +1,61 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesRegex;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with metrics export enabled and checks that the dispatch
+ * and Kafka client metrics are scraped from the Prometheus endpoint.
+ */
+@AutoConfigureObservability
+@AutoConfigureMockMvc
+class OrderDispatchMetricsIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void testOrderDispatchFlow_MetricsScraped() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+
+		sendMessage(ORDER_CREATED_TOPIC, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"));
+
+		await().atMost(5, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS).untilAsserted(() ->
+				mockMvc.perform(get("/actuator/prometheus"))
+						.andExpect(status().isOk())
+						.andExpect(content().string(allOf(
+								containsString("dispatch_stock_lookup_seconds_bucket{lookup=\"single\""),
+								containsString("dispatch_send_seconds_bucket{topic=\"order.dispatched\""),
+								containsString("dispatch_process_seconds_bucket{"),
+								containsString("dispatch_orders_total{outcome=\"available\""),
+								containsString("dispatch_retries_total"),
+								containsString("dispatch_dead_letters_total"),
+								containsString("dispatch_not_retryable_total"),
+								containsString("dispatch_stock_circuit_state{state=\"closed\",} 1.0"),
+								containsString("dispatch_stock_concurrency_limit "),
+								containsString("kafka_consumer_fetch_manager_records_lag_max{"),
+								matchesRegex("(?s).*dispatch_consumer_lag\\{[^}]*"
+										+ "partition=\"0\",topic=\"order.created\",}.*")))));
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios against the parallel listener.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = "kafka.listener.mode=parallel")
+class OrderDispatchParallelIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	private final static String CONSUMER_GROUP = "dispatch.order.created.consumer";
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Test
+	void testOrderDispatchFlow_CommitsAllOffsets() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+
+		for (int i = 0; i < 20; i++) {
+			sendMessage(ORDER_CREATED_TOPIC, randomUUID().toString(),
+					TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"));
+		}
+
+		final Map<TopicPartition, Long> endOffsets = endOffsets();
+		// acknowledgments from the lanes are committed after the consumer's next poll, which can take the whole
+		// poll timeout when no more records arrive
+		await().atMost(15, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(() -> committedOffsets(endOffsets.keySet()), equalTo(endOffsets));
+	}
+
+	private Map<TopicPartition, Long> endOffsets() {
+		final Map<String, Object> props = KafkaTestUtils.consumerProps("endOffsets", "false", embeddedKafkaBroker);
+		try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+				new StringDeserializer()).createConsumer()) {
+			return KafkaTestUtils.getEndOffsets(consumer, ORDER_CREATED_TOPIC);
+		}
+	}
+
+	private Map<TopicPartition, Long> committedOffsets(final Iterable<TopicPartition> partitions) throws Exception {
+		final Map<TopicPartition, Long> committed = new HashMap<>();
+		for (final TopicPartition partition : partitions) {
+			final OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(embeddedKafkaBroker.getBrokersAsString(),
+					CONSUMER_GROUP, partition.topic(), partition.partition());
+			committed.put(partition, offset == null ? 0L : offset.offset());
+		}
+		return committed;
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.handler.OrderCreatedReactiveHandler;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios against the reactive pipeline.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = "kafka.listener.mode=reactive")
+class OrderDispatchReactiveIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	private final static String CONSUMER_GROUP = "dispatch.order.created.consumer";
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Autowired
+	private OrderCreatedReactiveHandler handler;
+
+	@Autowired
+	private KafkaTestListener testListener;
+
+	/**
+	 * The receiver is not a listener container, so the setup of the scenarios does not wait for its assignment.
+	 */
+	@BeforeEach
+	void awaitAssignment() {
+		await().atMost(10, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(handler::assignment, not(empty()));
+	}
+
+	@Test
+	void testOrderDispatchFlow_SameKeyDispatchedAndCommitted() throws Exception {
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+		final String key = randomUUID().toString();
+
+		for (int i = 0; i < 20; i++) {
+			sendMessage(ORDER_CREATED_TOPIC, key, TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"));
+		}
+
+		await().atMost(5, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(20));
+		final Map<TopicPartition, Long> endOffsets = endOffsets();
+		await().atMost(5, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(() -> committedOffsets(endOffsets.keySet()), equalTo(endOffsets));
+	}
+
+	private Map<TopicPartition, Long> endOffsets() {
+		final Map<String, Object> props = KafkaTestUtils.consumerProps("endOffsets", "false", embeddedKafkaBroker);
+		try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+				new StringDeserializer()).createConsumer()) {
+			return KafkaTestUtils.getEndOffsets(consumer, ORDER_CREATED_TOPIC);
+		}
+	}
+
+	private Map<TopicPartition, Long> committedOffsets(final Iterable<TopicPartition> partitions) throws Exception {
+		final Map<TopicPartition, Long> committed = new HashMap<>();
+		for (final TopicPartition partition : partitions) {
+			final OffsetAndMetadata offset = KafkaTestUtils.getCurrentOffset(embeddedKafkaBroker.getBrokersAsString(),
+					CONSUMER_GROUP, partition.topic(), partition.partition());
+			committed.put(partition, offset == null ? 0L : offset.offset());
+		}
+		return committed;
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.ronaimate.dispatch.integration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.repartition.OrderKeyHeader;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with the item-affinity repartitioning stage, so orders are
+ * dispatched from {@code order.created.by-item}.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = { "kafka.repartition.enabled=true", "kafka.repartition.partitions=2" })
+class OrderDispatchRepartitionIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	private final static String REPARTITIONED_TOPIC = "order.created.by-item";
+
+	private final static String ORDER_DISPATCHED_TOPIC = "order.dispatched";
+
+	private final static String DISPATCH_TRACKING_TOPIC = "dispatch.tracking";
+
+	private final static int ORDERS = 5;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Test
+	void testOrderDispatchFlow_RepartitionedByItem_EventsKeyedByOrder() throws Exception {
+		stubWiremock("/api/stock?item=hot-item", 200, "true");
+		final Set<String> orderKeys = new HashSet<>();
+		for (int i = 0; i < ORDERS; i++) {
+			final String orderKey = randomUUID().toString();
+			orderKeys.add(orderKey);
+			sendMessage(ORDER_CREATED_TOPIC, orderKey, TestEventData.buildOrderCreatedEvent(randomUUID(), "hot-item"));
+		}
+
+		final List<ConsumerRecord<String, String>> records = new ArrayList<>();
+		try (Consumer<String, String> consumer = consumer()) {
+			consumer.subscribe(List.of(REPARTITIONED_TOPIC, ORDER_DISPATCHED_TOPIC, DISPATCH_TRACKING_TOPIC));
+			await().atMost(10, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS).until(() -> {
+				consumer.poll(Duration.ofMillis(100)).forEach(records::add);
+				return count(records, ORDER_DISPATCHED_TOPIC, orderKeys) == ORDERS
+						&& count(records, DISPATCH_TRACKING_TOPIC, orderKeys) == 2 * ORDERS;
+			});
+		}
+
+		final List<ConsumerRecord<String, String>> repartitioned = records.stream()
+				.filter(record -> record.topic().equals(REPARTITIONED_TOPIC))
+				.filter(record -> orderKeys.contains(OrderKeyHeader.orderKey(record)))
+				.toList();
+		assertThat(repartitioned.size(), equalTo(ORDERS));
+		// keyed by item, so all orders of the item are dispatched from one partition
+		assertThat(repartitioned.stream().map(ConsumerRecord::key).distinct().toList(), equalTo(List.of("hot-item")));
+		assertThat(repartitioned.stream().map(ConsumerRecord::partition).distinct().count(), equalTo(1L));
+	}
+
+	private static long count(final List<ConsumerRecord<String, String>> records, final String topic,
+			final Set<String> keys) {
+		return records.stream()
+				.filter(record -> record.topic().equals(topic) && keys.contains(record.key()))
+				.count();
+	}
+
+	private Consumer<String, String> consumer() {
+		final Map<String, Object> props = KafkaTestUtils.consumerProps("repartition-" + randomUUID(), "false",
+				embeddedKafkaBroker);
+		return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+				.createConsumer();
+	}
+
+}
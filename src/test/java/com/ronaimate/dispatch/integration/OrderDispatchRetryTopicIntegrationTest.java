@@ -0,0 +1,69 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremock;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with retries from retry topics instead of in-line, with
+ * delays of 200ms, 400ms and 800ms. The topics get the partition count of the embedded broker's topics.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = { "kafka.retry-topics.enabled=true", "kafka.retry-topics.initial-delay=200ms",
+				"kafka.retry-topics.multiplier=2", "kafka.retry-topics.partitions=2" })
+class OrderDispatchRetryTopicIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	@Autowired
+	private KafkaTestListener testListener;
+
+	@Autowired
+	private KafkaListenerEndpointRegistry registry;
+
+	@Test
+	void testRetryTopics_NamedAfterDelay() {
+		assertThat(registry.getListenerContainers().stream()
+						.flatMap(container -> Arrays.stream(
+								Objects.requireNonNull(container.getContainerProperties().getTopics())))
+						.toList(),
+				hasItems("order.created-retry-200ms", "order.created-retry-400ms", "order.created-retry-800ms",
+						"order.created.DLT"));
+	}
+
+	@Test
+	void testOrderDispatchFlow_RetryingOrderDoesNotBlockPartition() throws Exception {
+		stubWiremock("/api/stock?item=failing-item", 503, "Service unavailable");
+		stubWiremock("/api/stock?item=my-item", 200, "true");
+		final var key = randomUUID().toString();
+
+		sendMessage(ORDER_CREATED_TOPIC, key, TestEventData.buildOrderCreatedEvent(randomUUID(), "failing-item"));
+		sendMessage(ORDER_CREATED_TOPIC, key, TestEventData.buildOrderCreatedEvent(randomUUID(), "my-item"));
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.orderDispatchedCounter::get, equalTo(1));
+		assertThat(testListener.orderCreatedDLTCounter.get(), equalTo(0));
+		await().atMost(5, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.orderCreatedDLTCounter::get, equalTo(1));
+		verify(4, getRequestedFor(urlEqualTo("/api/stock?item=failing-item")));
+	}
+
+}
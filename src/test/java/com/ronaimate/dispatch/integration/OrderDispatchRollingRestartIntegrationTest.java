@@ -0,0 +1,204 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Measures, with static membership, how long the partitions of a consumer group go unprocessed while its two
+ * instances, listener containers of the {@code order.created} container factory, are restarted one after the other
+ * under load.
+ */
+@Slf4j
+@SpringBootTest(classes = { DispatchConfiguration.class },
+		properties = { "kafka.membership.group-instance-id=dispatch-it" })
+@AutoConfigureWireMock(port = 0)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@ActiveProfiles("test")
+@EmbeddedKafka(controlledShutdown = true)
+class OrderDispatchRollingRestartIntegrationTest {
+
+	private final static String TOPIC = "rolling.restart";
+
+	private final static String GROUP_ID = "dispatch.rolling.restart";
+
+	private final static int PARTITIONS = 4;
+
+	private final static long SEND_INTERVAL_MILLIS = 20;
+
+	private final static long DOWNTIME_MILLIS = 2000;
+
+	@Autowired
+	private ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory;
+
+	@Autowired
+	private KafkaTemplate<String, Object> kafkaTemplate;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Test
+	void testRollingRestart_OnlyPartitionsOfRestartedInstancePause() throws Exception {
+		embeddedKafkaBroker.addTopics(new NewTopic(TOPIC, PARTITIONS, (short) 1));
+		final Processed processed = new Processed();
+		final Map<String, ConcurrentMessageListenerContainer<String, Object>> instances = new ConcurrentHashMap<>();
+		final Set<String> sent = ConcurrentHashMap.newKeySet();
+		final ScheduledExecutorService producer = Executors.newSingleThreadScheduledExecutor();
+		try {
+			for (final String instanceId : List.of("instance-a", "instance-b")) {
+				instances.put(instanceId, startInstance(instanceId, processed));
+			}
+			awaitAssigned(instances.values());
+
+			final AtomicInteger sequence = new AtomicInteger();
+			producer.scheduleAtFixedRate(() -> {
+				for (int partition = 0; partition < PARTITIONS; partition++) {
+					final String key = partition + "-" + sequence.incrementAndGet();
+					kafkaTemplate.send(TOPIC, partition, key, TestEventData.buildOrderCreatedEvent(randomUUID(), key));
+					sent.add(key);
+				}
+			}, 0, SEND_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+			TimeUnit.SECONDS.sleep(1);
+
+			for (final String instanceId : List.of("instance-a", "instance-b")) {
+				final Collection<TopicPartition> restarted =
+						List.copyOf(instances.get(instanceId).getAssignedPartitions());
+				final long from = System.nanoTime();
+				instances.get(instanceId).stop();
+				TimeUnit.MILLISECONDS.sleep(DOWNTIME_MILLIS);
+				instances.put(instanceId, startInstance(instanceId, processed));
+				awaitAssigned(instances.values());
+				TimeUnit.SECONDS.sleep(1);
+				final long to = System.nanoTime();
+
+				final List<TopicPartition> others = processed.partitions().stream()
+						.filter(partition -> !restarted.contains(partition))
+						.toList();
+				final long restartedPause = processed.longestPauseMillis(restarted, from, to);
+				final long othersPause = processed.longestPauseMillis(others, from, to);
+				log.info("Restart of {}: its partitions {} paused for {} ms, the others {} for {} ms", instanceId,
+						restarted, restartedPause, others, othersPause);
+
+				// the static member gets its partitions back when it returns, so they wait for it
+				assertThat(restartedPause, greaterThanOrEqualTo(DOWNTIME_MILLIS));
+				// and the other instance keeps processing its own through the restart
+				assertThat(othersPause, lessThan(DOWNTIME_MILLIS / 2));
+			}
+
+			producer.shutdown();
+			assertThat(producer.awaitTermination(1, TimeUnit.SECONDS), equalTo(true));
+			await().atMost(10, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+					.until(() -> processed.keys.containsAll(sent));
+			// the stopped consumers committed what they had processed, so nothing was processed twice
+			assertThat(processed.deliveries.get(), equalTo(sent.size()));
+		} finally {
+			producer.shutdownNow();
+			instances.values().forEach(ConcurrentMessageListenerContainer::stop);
+		}
+	}
+
+	private ConcurrentMessageListenerContainer<String, Object> startInstance(final String instanceId,
+			final Processed processed) {
+		final ConcurrentMessageListenerContainer<String, Object> container =
+				kafkaListenerContainerFactory.createContainer(TOPIC);
+		container.getContainerProperties().setGroupId(GROUP_ID);
+		final Properties consumerProperties = new Properties();
+		consumerProperties.setProperty(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, instanceId);
+		container.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
+		container.getContainerProperties().setMessageListener((MessageListener<String, Object>) processed::add);
+		container.setBeanName(instanceId);
+		container.start();
+		return container;
+	}
+
+	/**
+	 * Waits until the partitions are spread evenly over the instances.
+	 */
+	private static void awaitAssigned(final Collection<ConcurrentMessageListenerContainer<String, Object>> instances) {
+		await().atMost(30, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(() -> instances.stream().allMatch(container -> container.getAssignedPartitions() != null
+						&& container.getAssignedPartitions().size() == PARTITIONS / instances.size()));
+	}
+
+	/**
+	 * When the records of each partition were processed.
+	 */
+	private static class Processed {
+
+		final Map<TopicPartition, List<Long>> nanos = new ConcurrentHashMap<>();
+
+		final Set<String> keys = ConcurrentHashMap.newKeySet();
+
+		final AtomicInteger deliveries = new AtomicInteger();
+
+		void add(final ConsumerRecord<String, Object> record) {
+			nanos.computeIfAbsent(new TopicPartition(record.topic(), record.partition()),
+					partition -> new CopyOnWriteArrayList<>()).add(System.nanoTime());
+			keys.add(record.key());
+			deliveries.incrementAndGet();
+		}
+
+		Set<TopicPartition> partitions() {
+			return nanos.keySet();
+		}
+
+		/**
+		 * The longest time between {@code from} and {@code to} in which none of the partitions' records were
+		 * processed, per partition.
+		 */
+		long longestPauseMillis(final Collection<TopicPartition> partitions, final long from, final long to) {
+			long longest = 0;
+			for (final TopicPartition partition : partitions) {
+				long previous = from;
+				for (final long processedAt : new ArrayList<>(nanos.getOrDefault(partition, List.of()))) {
+					if (processedAt > from && processedAt <= to) {
+						longest = Math.max(longest, processedAt - previous);
+						previous = processedAt;
+					}
+				}
+				longest = Math.max(longest, to - previous);
+			}
+			return TimeUnit.NANOSECONDS.toMillis(longest);
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.ronaimate.dispatch.integration;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.ronaimate.dispatch.client.StockAvailabilitySnapshot;
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.exactly;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static java.util.UUID.randomUUID;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with the local stock snapshot enabled, where their items
+ * are unknown to the snapshot and looked up from the stock service, and checks that items in the snapshot are
+ * dispatched without a stock service request.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = { "dispatch.stockSnapshot.enabled=true" })
+class OrderDispatchStockSnapshotIntegrationTest extends OrderDispatchIntegrationTest {
+
+	private final static String ORDER_CREATED_TOPIC = "order.created";
+
+	@Autowired
+	private KafkaTestListener testListener;
+
+	@Autowired
+	private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+	@Autowired
+	private StockAvailabilitySnapshot snapshot;
+
+	@Test
+	void testOrderDispatchFlow_ItemInSnapshot() throws Exception {
+		assertThat(snapshot.isRestored(), equalTo(true));
+		final Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafkaBroker);
+		try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProps, new StringSerializer(),
+				new StringSerializer())) {
+			producer.send(new ProducerRecord<>("stock.availability", "snapshot-item", "true")).get();
+		}
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(() -> snapshot.get("snapshot-item"), equalTo("true"));
+
+		sendMessage(ORDER_CREATED_TOPIC, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "snapshot-item"));
+
+		await().atMost(3, TimeUnit.SECONDS).pollDelay(100, TimeUnit.MILLISECONDS)
+				.until(testListener.dispatchCompletedCounter::get, equalTo(1));
+		assertThat(testListener.orderDispatchedCounter.get(), equalTo(1));
+		assertThat(testListener.orderCreatedDLTCounter.get(), equalTo(0));
+		verify(exactly(0), getRequestedFor(urlPathEqualTo("/api/stock")));
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.ronaimate.dispatch.integration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+
+/**
+ * Runs the {@link OrderDispatchIntegrationTest} scenarios with transactions enabled.
+ */
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = "kafka.transactions.enabled=true")
+@EmbeddedKafka(controlledShutdown = true,
+		brokerProperties = { "transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1" })
+class OrderDispatchTransactionalIntegrationTest extends OrderDispatchIntegrationTest {
+
+	@Autowired
+	private KafkaTemplate<String, Object> transactionalKafkaTemplate;
+
+	@Override
+	protected void sendMessage(final String topic, final String key, final Object data) {
+		transactionalKafkaTemplate.executeInTransaction(operations -> operations.send(topic, key, data));
+	}
+
+}
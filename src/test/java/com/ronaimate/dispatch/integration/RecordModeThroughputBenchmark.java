@@ -0,0 +1,10 @@
+package com.ronaimate.dispatch.integration;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ronaimate.dispatch.config.DispatchConfiguration;
+
+@SpringBootTest(classes = { DispatchConfiguration.class }, properties = "kafka.listener.mode=record")
+class RecordModeThroughputBenchmark extends DispatchThroughputBenchmark {
+
+}
@@ -0,0 +1,113 @@
+package com.ronaimate.dispatch.integration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.ronaimate.dispatch.client.StockBulkSettings;
+import com.ronaimate.dispatch.client.StockCacheSettings;
+import com.ronaimate.dispatch.client.StockServiceClient;
+import com.ronaimate.exception.RetryableException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremockBulk;
+import static com.ronaimate.dispatch.integration.WiremockUtils.stubWiremockBulkPost;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Bulk stock lookups against a WireMock stock service.
+ */
+class StockServiceClientIntegrationTest {
+
+	private static WireMockServer wireMockServer;
+
+	private String endpoint;
+
+	private StockServiceClient client;
+
+	@BeforeAll
+	static void startWireMock() {
+		wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+		wireMockServer.start();
+		WireMock.configureFor("localhost", wireMockServer.port());
+	}
+
+	@AfterAll
+	static void stopWireMock() {
+		wireMockServer.stop();
+	}
+
+	@BeforeEach
+	void setUp() {
+		WiremockUtils.reset();
+		endpoint = "http://localhost:" + wireMockServer.port() + "/api/stock";
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.destroy();
+	}
+
+	@Test
+	void checkAvailabilityBulk_Query() {
+		client = client(StockBulkSettings.query(endpoint));
+		stubWiremockBulk("/api/stock?item=item-a&item=item-b", 200, "{\"item-a\":\"true\",\"item-b\":\"false\"}");
+
+		assertThat(client.checkAvailability(List.of("item-a", "item-b")),
+				equalTo(Map.of("item-a", "true", "item-b", "false")));
+	}
+
+	@Test
+	void checkAvailabilityBulk_Post() {
+		client = client(new StockBulkSettings(StockBulkSettings.RequestShape.POST, endpoint + "/bulk", false, 0,
+				Duration.ZERO, 1));
+		stubWiremockBulkPost("/api/stock/bulk", "[\"item-a\",\"item-b\"]", 200,
+				"{\"item-a\":\"true\",\"item-b\":\"false\"}");
+
+		assertThat(client.checkAvailability(List.of("item-a", "item-b")),
+				equalTo(Map.of("item-a", "true", "item-b", "false")));
+	}
+
+	@Test
+	void checkAvailabilityBulk_ServerError() {
+		client = client(StockBulkSettings.query(endpoint));
+		stubWiremockBulk("/api/stock?item=item-a", 503, "{}");
+
+		assertThrows(RetryableException.class, () -> client.checkAvailability(List.of("item-a")));
+	}
+
+	@Test
+	void checkAvailability_BatchedAcrossConcurrentCallers() throws Exception {
+		client = client(new StockBulkSettings(StockBulkSettings.RequestShape.QUERY, endpoint, true, 2,
+				Duration.ofSeconds(1), 4));
+		stubWiremockBulk("/api/stock?item=item-a&item=item-b", 200, "{\"item-a\":\"true\",\"item-b\":\"false\"}");
+		stubWiremockBulk("/api/stock?item=item-b&item=item-a", 200, "{\"item-a\":\"true\",\"item-b\":\"false\"}");
+
+		final var first = CompletableFuture.supplyAsync(() -> client.checkAvailability("item-a"));
+		final var second = CompletableFuture.supplyAsync(() -> client.checkAvailability("item-b"));
+
+		assertThat(first.get(5, TimeUnit.SECONDS), equalTo("true"));
+		assertThat(second.get(5, TimeUnit.SECONDS), equalTo("false"));
+		WireMock.verify(1, getRequestedFor(urlPathEqualTo("/api/stock")));
+	}
+
+	private StockServiceClient client(final StockBulkSettings bulkSettings) {
+		return new StockServiceClient(new RestTemplate(), endpoint, StockCacheSettings.disabled(), bulkSettings);
+	}
+
+}
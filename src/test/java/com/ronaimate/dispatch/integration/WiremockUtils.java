@@ -3,7 +3,9 @@ package com.ronaimate.dispatch.integration;
 import com.github.tomakehurst.wiremock.client.WireMock;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 
@@ -36,4 +38,25 @@ public class WiremockUtils {
 		}
 	}
 
-}
\ No newline at end of file
+	public static void stubWiremockWithDelay(final String url, final int httpStatusResponse, final String body,
+			final int fixedDelayMillis) {
+		stubFor(get(urlEqualTo(url))
+				.willReturn(aResponse().withStatus(httpStatusResponse).withHeader("Content-Type", "text/plain")
+						.withBody(body).withFixedDelay(fixedDelayMillis)));
+	}
+
+	public static void stubWiremockBulk(final String url, final int httpStatusResponse, final String jsonBody) {
+		stubFor(get(urlEqualTo(url))
+				.willReturn(aResponse().withStatus(httpStatusResponse).withHeader("Content-Type", "application/json")
+						.withBody(jsonBody)));
+	}
+
+	public static void stubWiremockBulkPost(final String url, final String jsonRequestBody,
+			final int httpStatusResponse, final String jsonBody) {
+		stubFor(post(urlEqualTo(url))
+				.withRequestBody(equalToJson(jsonRequestBody, true, false))
+				.willReturn(aResponse().withStatus(httpStatusResponse).withHeader("Content-Type", "application/json")
+						.withBody(jsonBody)));
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.ronaimate.dispatch.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MarkerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+import static com.ronaimate.dispatch.logging.LogMarkers.PER_MESSAGE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class PerMessageSamplingFilterTest {
+
+	private Logger logger;
+
+	private ListAppender<ILoggingEvent> appender;
+
+	private PerMessageSamplingFilter filter;
+
+	@BeforeEach
+	void setUp() {
+		final LoggerContext context = new LoggerContext();
+		filter = new PerMessageSamplingFilter();
+		filter.setContext(context);
+		filter.setSampleRate(10);
+		filter.start();
+		context.addTurboFilter(filter);
+
+		appender = new ListAppender<>();
+		appender.setContext(context);
+		appender.start();
+		logger = context.getLogger(PerMessageSamplingFilterTest.class);
+		logger.setLevel(Level.INFO);
+		logger.addAppender(appender);
+	}
+
+	@Test
+	void decide_PerMessageInfoLogs_OneInSampleRateWritten() {
+		for (int i = 0; i < 100; i++) {
+			logger.info(PER_MESSAGE, "Received message: {}", i);
+		}
+
+		assertThat(appender.list.size(), equalTo(10));
+		assertThat(appender.list.get(1).getFormattedMessage(), equalTo("Received message: 10"));
+	}
+
+	@Test
+	void decide_PerMessageWarningsAndErrors_AllWritten() {
+		for (int i = 0; i < 10; i++) {
+			logger.warn(PER_MESSAGE, "Retryable exception: {}", i);
+			logger.error(PER_MESSAGE, "NotRetryable exception: {}", i);
+		}
+
+		assertThat(appender.list.size(), equalTo(20));
+	}
+
+	@Test
+	void decide_UnmarkedLogs_AllWritten() {
+		for (int i = 0; i < 10; i++) {
+			logger.info("Pausing orderConsumerClient");
+			logger.info(MarkerFactory.getMarker("OTHER"), "Resuming orderConsumerClient");
+		}
+
+		assertThat(appender.list.size(), equalTo(20));
+	}
+
+	@Test
+	void decide_DeniedLog_ArgumentsNotFormatted() {
+		final Object argument = new Object() {
+
+			@Override
+			public String toString() {
+				throw new AssertionError("formatted a sampled out log");
+			}
+		};
+		logger.info(PER_MESSAGE, "Received message: {}", "first");
+
+		logger.info(PER_MESSAGE, "Received message: {}", argument);
+
+		assertThat(appender.list.size(), equalTo(1));
+	}
+
+	@Test
+	void start_SampleRateBelowOne_NotStarted() {
+		final PerMessageSamplingFilter invalid = new PerMessageSamplingFilter();
+		invalid.setContext(new LoggerContext());
+		invalid.setSampleRate(0);
+
+		invalid.start();
+
+		assertThat(invalid.isStarted(), equalTo(false));
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.ronaimate.dispatch.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.MetricConfig;
+import org.apache.kafka.common.utils.Time;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+class ConsumerLagMetricsReporterTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ConsumerLagMetricsReporter reporter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		reporter = new ConsumerLagMetricsReporter();
+		reporter.configure(Map.of(ConsumerLagMetricsReporter.METER_REGISTRY_CONFIG, meterRegistry,
+				CommonClientConfigs.CLIENT_ID_CONFIG, "consumer-1"));
+	}
+
+	@Test
+	void metricChange_PartitionRecordsLag_RegistersGauge() {
+		reporter.init(List.of(metric("records-lag", Map.of("topic", "order.created", "partition", "0"), 42)));
+
+		assertThat(meterRegistry.get("dispatch.consumer.lag")
+				.tags("client.id", "consumer-1", "topic", "order.created", "partition", "0")
+				.gauge().value(), equalTo(42.0));
+	}
+
+	@Test
+	void metricChange_OtherMetrics_Ignored() {
+		reporter.metricChange(metric("records-lag-max", Map.of(), 42));
+		reporter.metricChange(metric("records-lead", Map.of("topic", "order.created", "partition", "0"), 42));
+
+		assertThat(meterRegistry.getMeters(), empty());
+	}
+
+	@Test
+	void metricRemoval_RemovesGauge() {
+		final KafkaMetric metric = metric("records-lag", Map.of("topic", "order.created", "partition", "0"), 42);
+		reporter.metricChange(metric);
+
+		reporter.metricRemoval(metric);
+
+		assertThat(meterRegistry.getMeters(), empty());
+	}
+
+	private static KafkaMetric metric(final String name, final Map<String, String> tags, final double value) {
+		return new KafkaMetric(new Object(), new MetricName(name, "consumer-fetch-manager-metrics", "", tags),
+				(Measurable) (config, now) -> value, new MetricConfig(), Time.SYSTEM);
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.ronaimate.dispatch.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.FixedBackOff;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class RetryCountingBackOffTest {
+
+	@Test
+	void nextBackOff_CountsRetriesUntilStop() {
+		final var meterRegistry = new SimpleMeterRegistry();
+		final var backOff = new RetryCountingBackOff(new FixedBackOff(100L, 2L), new DispatchMetrics(meterRegistry));
+
+		final BackOffExecution execution = backOff.start();
+
+		assertThat(execution.nextBackOff(), equalTo(100L));
+		assertThat(execution.nextBackOff(), equalTo(100L));
+		assertThat(execution.nextBackOff(), equalTo(BackOffExecution.STOP));
+		assertThat(meterRegistry.counter("dispatch.retries").count(), equalTo(2.0));
+	}
+
+}
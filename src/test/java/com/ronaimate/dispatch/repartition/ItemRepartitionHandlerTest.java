@@ -0,0 +1,109 @@
+package com.ronaimate.dispatch.repartition;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import com.ronaimate.dispatch.config.DispatchKafkaProperties;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.exception.NotRetryableException;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedRecord;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ItemRepartitionHandlerTest {
+
+	private ItemRepartitionHandler handler;
+
+	private KafkaTemplate<String, Object> kafkaTemplateMock;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		kafkaTemplateMock = mock(KafkaTemplate.class);
+		final DispatchKafkaProperties properties = new DispatchKafkaProperties();
+		properties.getRepartition().setEnabled(true);
+		handler = new ItemRepartitionHandler(kafkaTemplateMock, properties);
+	}
+
+	@Test
+	void repartitioned_KeyedByItemWithOrderKeyHeader() {
+		final var orderCreated = buildOrderCreatedEvent(randomUUID(), "car");
+		final var record = new ConsumerRecord<>("order.created", 1, 7L, 1234L, TimestampType.CREATE_TIME, 0, 0,
+				"order-key", orderCreated, new RecordHeaders(), Optional.empty());
+
+		final ProducerRecord<String, Object> repartitioned = handler.repartitioned(record);
+
+		assertThat(repartitioned.topic(), equalTo("order.created.by-item"));
+		assertThat(repartitioned.key(), equalTo("car"));
+		assertThat(repartitioned.value(), sameInstance(orderCreated));
+		assertThat(repartitioned.timestamp(), equalTo(1234L));
+		assertThat(OrderKeyHeader.orderKey(repartitioned.key(), repartitioned.headers()), equalTo("order-key"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void listen_SendsEveryRecord() throws Exception {
+		when(kafkaTemplateMock.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+		handler.listen(List.of(buildRecord(0L, "car"), buildRecord(1L, "bike")));
+
+		final ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+		verify(kafkaTemplateMock, times(2)).send(sent.capture());
+		assertThat(sent.getAllValues().stream().map(ProducerRecord::key).toList(), equalTo(List.of("car", "bike")));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void listen_SendFails_FailsAtIndex() {
+		when(kafkaTemplateMock.send(any(ProducerRecord.class)))
+				.thenReturn(CompletableFuture.completedFuture(null))
+				.thenReturn(CompletableFuture.failedFuture(new TimeoutException("timed out")));
+
+		final BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+				() -> handler.listen(List.of(buildRecord(0L, "car"), buildRecord(1L, "bike"))));
+
+		assertThat(exception.getIndex(), equalTo(1));
+		assertThat(exception.getCause(), instanceOf(TimeoutException.class));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void listen_RecordWithoutValue_NotRetryableAtIndex() throws Exception {
+		when(kafkaTemplateMock.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+		final BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class,
+				() -> handler.listen(List.of(buildRecord(0L, "car"), buildOrderCreatedRecord(1L, "key", null))));
+
+		assertThat(exception.getIndex(), equalTo(1));
+		assertThat(exception.getCause(), instanceOf(NotRetryableException.class));
+		verify(kafkaTemplateMock, times(1)).send(any(ProducerRecord.class));
+	}
+
+	private static ConsumerRecord<String, OrderCreated> buildRecord(final long offset, final String item) {
+		return buildOrderCreatedRecord(offset, randomUUID().toString(), buildOrderCreatedEvent(randomUUID(), item));
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.ronaimate.dispatch.repartition;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedEvent;
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedRecord;
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+class OrderKeyHeaderTest {
+
+	@Test
+	void orderKey_NoHeader_RecordKey() {
+		final var record = buildOrderCreatedRecord(0L, "order-key", buildOrderCreatedEvent(randomUUID(), "item"));
+
+		assertThat(OrderKeyHeader.orderKey(record), equalTo("order-key"));
+	}
+
+	@Test
+	void orderKey_Header_HeaderValue() {
+		final var record = buildOrderCreatedRecord(0L, "item", buildOrderCreatedEvent(randomUUID(), "item"));
+		OrderKeyHeader.set(record.headers(), "order-key");
+
+		assertThat(OrderKeyHeader.orderKey(record), equalTo("order-key"));
+		assertThat(OrderKeyHeader.orderKey("item", "order-key".getBytes(StandardCharsets.UTF_8)),
+				equalTo("order-key"));
+	}
+
+	@Test
+	void set_NoOrderKey_NoHeader() {
+		final var headers = new RecordHeaders();
+
+		OrderKeyHeader.set(headers, null);
+
+		assertThat(headers.lastHeader(OrderKeyHeader.NAME), nullValue());
+		assertThat(OrderKeyHeader.orderKey("item", headers), equalTo("item"));
+	}
+
+}
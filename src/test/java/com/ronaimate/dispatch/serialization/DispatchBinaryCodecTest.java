@@ -0,0 +1,102 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.util.Arrays;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparing;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.messages.OrderDispatched;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DispatchBinaryCodecTest {
+
+	@Test
+	void roundTrip_OrderCreated() {
+		final var message = OrderCreated.builder().orderId(randomUUID()).item("my-item").build();
+
+		final byte[] data = DispatchBinaryCodec.encode(message);
+
+		assertThat(data.length, equalTo(3 + 16 + 4 + 7));
+		assertThat(DispatchBinaryCodec.decode(data), equalTo(message));
+	}
+
+	@Test
+	void roundTrip_DispatchPreparing() {
+		final var message = DispatchPreparing.builder().orderId(randomUUID()).build();
+
+		assertThat(DispatchBinaryCodec.decode(DispatchBinaryCodec.encode(message)), equalTo(message));
+	}
+
+	@Test
+	void roundTrip_OrderDispatched() {
+		final var message = OrderDispatched.builder().orderId(randomUUID()).processedById(randomUUID())
+				.note("Dispatched: my-item \u2713").build();
+
+		assertThat(DispatchBinaryCodec.decode(DispatchBinaryCodec.encode(message)), equalTo(message));
+	}
+
+	@Test
+	void roundTrip_DispatchCompleted() {
+		final var message = DispatchCompleted.builder().orderId(randomUUID()).dispatchedDate("2024-01-01").build();
+
+		assertThat(DispatchBinaryCodec.decode(DispatchBinaryCodec.encode(message)), equalTo(message));
+	}
+
+	@Test
+	void roundTrip_DispatchPreparedAndCompleted() {
+		final var orderId = randomUUID();
+		final var message = DispatchPreparedAndCompleted.builder().orderId(orderId).dispatchedDate("2024-01-01")
+				.build();
+
+		final byte[] data = DispatchBinaryCodec.encode(message);
+
+		// one record in place of DispatchPreparing and DispatchCompleted, without repeating the header and orderId
+		assertThat(data.length, equalTo(DispatchBinaryCodec.encode(new DispatchCompleted(orderId, "2024-01-01"))
+				.length));
+		assertThat(DispatchBinaryCodec.decode(data), equalTo(message));
+	}
+
+	@Test
+	void roundTrip_NullFields() {
+		final var message = OrderDispatched.builder().orderId(randomUUID()).build();
+
+		final byte[] data = DispatchBinaryCodec.encode(message);
+
+		assertThat(data.length, equalTo(3 + 16));
+		assertThat(DispatchBinaryCodec.decode(data), equalTo(message));
+	}
+
+	@Test
+	void encode_UnsupportedType() {
+		assertThrows(SerializationException.class, () -> DispatchBinaryCodec.encode("not a message"));
+	}
+
+	@Test
+	void decode_Truncated() {
+		final byte[] data = DispatchBinaryCodec.encode(OrderCreated.builder().orderId(randomUUID()).item("my-item")
+				.build());
+
+		assertThrows(SerializationException.class,
+				() -> DispatchBinaryCodec.decode(Arrays.copyOf(data, data.length - 1)));
+	}
+
+	@Test
+	void decode_UnknownType() {
+		assertThrows(SerializationException.class,
+				() -> DispatchBinaryCodec.decode(new byte[] { DispatchBinaryCodec.MAGIC, 99, 0 }));
+	}
+
+	@Test
+	void decode_Json() {
+		assertThrows(SerializationException.class, () -> DispatchBinaryCodec.decode("{}".getBytes()));
+	}
+
+}
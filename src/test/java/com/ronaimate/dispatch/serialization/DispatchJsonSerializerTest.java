@@ -0,0 +1,120 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparing;
+import com.ronaimate.dispatch.messages.OrderCreated;
+import com.ronaimate.dispatch.messages.OrderDispatched;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DispatchJsonSerializerTest {
+
+	private static final List<Object> MESSAGES = List.of(
+			OrderCreated.builder().orderId(randomUUID()).item("my-item").build(),
+			OrderCreated.builder().orderId(null).item(null).build(),
+			DispatchPreparing.builder().orderId(randomUUID()).build(),
+			OrderDispatched.builder().orderId(randomUUID()).processedById(randomUUID())
+					.note("quote \" backslash \\ newline \n tab \t \u00fcn\u00efc\u00f8d\u00e9 \u20ac").build(),
+			OrderDispatched.builder().orderId(randomUUID()).processedById(null).note(null).build(),
+			DispatchCompleted.builder().orderId(randomUUID()).dispatchedDate("2024-01-01").build(),
+			DispatchPreparedAndCompleted.builder().orderId(randomUUID()).dispatchedDate("2024-01-01").build());
+
+	private DispatchJsonSerializer serializer;
+
+	private DispatchMessageDeserializer deserializer;
+
+	@BeforeEach
+	void setUp() {
+		serializer = new DispatchJsonSerializer();
+		deserializer = new DispatchMessageDeserializer();
+		deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.ronaimate.dispatch.messages"), false);
+	}
+
+	@Test
+	void serialize_WritesSameBytesAndHeaderAsJsonSerializer() {
+		for (final Object message : MESSAGES) {
+			final var headers = new RecordHeaders();
+			final var springHeaders = new RecordHeaders();
+
+			final byte[] data = serializer.serialize("topic", headers, message);
+			final byte[] springData = new JsonSerializer<>().serialize("topic", springHeaders, message);
+
+			assertThat(new String(data, StandardCharsets.UTF_8),
+					equalTo(new String(springData, StandardCharsets.UTF_8)));
+			assertThat(headers.lastHeader(DispatchJsonCodec.TYPE_ID_HEADER).value(),
+					equalTo(springHeaders.lastHeader(DispatchJsonCodec.TYPE_ID_HEADER).value()));
+		}
+	}
+
+	@Test
+	void deserialize_ReadsJsonSerializerOutput() {
+		for (final Object message : MESSAGES) {
+			final var headers = new RecordHeaders();
+			final byte[] data = new JsonSerializer<>().serialize("topic", headers, message);
+
+			assertThat(deserializer.deserialize("topic", headers, data), equalTo(message));
+			assertThat(headers.lastHeader(DispatchJsonCodec.TYPE_ID_HEADER), nullValue());
+		}
+	}
+
+	@Test
+	void deserialize_JsonDeserializerReadsOutput() {
+		for (final Object message : MESSAGES) {
+			final var headers = new RecordHeaders();
+			final byte[] data = serializer.serialize("topic", headers, message);
+			try (JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>()) {
+				jsonDeserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.ronaimate.dispatch.messages"),
+						false);
+
+				assertThat(jsonDeserializer.deserialize("topic", headers, data), equalTo(message));
+			}
+		}
+	}
+
+	@Test
+	void deserialize_FieldsInAnyOrderAndUnknownFields() {
+		final var orderId = randomUUID();
+		final var processedById = randomUUID();
+		final String json = "{\"note\":\"n\",\"extra\":{\"a\":[1,2]},\"processedById\":\"" + processedById
+				+ "\",\"orderId\":\"" + orderId.toString().toUpperCase() + "\"}";
+
+		final Object message = DispatchJsonCodec.decode(
+				OrderDispatched.class.getName().getBytes(StandardCharsets.UTF_8), json.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(message, equalTo(new OrderDispatched(orderId, processedById, "n")));
+	}
+
+	@Test
+	void deserialize_InvalidUuid_Throws() {
+		final byte[] data = "{\"orderId\":\"not-a-uuid\"}".getBytes(StandardCharsets.UTF_8);
+
+		assertThrows(SerializationException.class, () -> DispatchJsonCodec.decode(
+				DispatchPreparing.class.getName().getBytes(StandardCharsets.UTF_8), data));
+	}
+
+	@Test
+	void serialize_OtherValues_DelegatesToJsonSerializer() {
+		final byte[] raw = { 1, 2, 3 };
+
+		assertThat(serializer.serialize("topic", new RecordHeaders(), raw),
+				equalTo(new JsonSerializer<>().serialize("topic", new RecordHeaders(), raw)));
+		assertThat(serializer.serialize("topic", new RecordHeaders(), null), nullValue());
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.ronaimate.dispatch.serialization;
+
+import java.util.Map;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.OrderCreated;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class DispatchMessageDeserializerTest {
+
+	private DispatchMessageDeserializer deserializer;
+
+	@BeforeEach
+	void setUp() {
+		deserializer = new DispatchMessageDeserializer();
+		deserializer.configure(Map.of(JsonDeserializer.TRUSTED_PACKAGES, "com.ronaimate.dispatch.messages"), false);
+	}
+
+	@Test
+	void deserialize_Json() {
+		final var message = OrderCreated.builder().orderId(randomUUID()).item("my-item").build();
+		final var headers = new RecordHeaders();
+		final byte[] data = new JsonSerializer<>().serialize("order.created", headers, message);
+
+		assertThat(deserializer.deserialize("order.created", headers, data), equalTo(message));
+	}
+
+	@Test
+	void deserialize_Binary() {
+		final var message = DispatchCompleted.builder().orderId(randomUUID()).dispatchedDate("2024-01-01").build();
+		final byte[] data = new DispatchBinarySerializer().serialize("dispatch.tracking", message);
+
+		assertThat(deserializer.deserialize("dispatch.tracking", new RecordHeaders(), data), equalTo(message));
+	}
+
+}
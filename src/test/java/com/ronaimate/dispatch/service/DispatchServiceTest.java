@@ -1,26 +1,53 @@
 package com.ronaimate.dispatch.service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.ronaimate.dispatch.client.StockServiceClient;
+import com.ronaimate.dispatch.dedup.ProcessedOrderSettings;
+import com.ronaimate.dispatch.dedup.ProcessedOrders;
 import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
 import com.ronaimate.dispatch.messages.DispatchPreparing;
 import com.ronaimate.dispatch.messages.OrderDispatched;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.repartition.OrderKeyHeader;
 import com.ronaimate.dispatch.util.TestEventData;
+import com.ronaimate.exception.NotRetryableException;
+import com.ronaimate.exception.RetryableException;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static com.ronaimate.dispatch.util.TestEventData.buildOrderCreatedRecord;
 import static java.util.UUID.randomUUID;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -35,11 +62,18 @@ class DispatchServiceTest {
 
 	private StockServiceClient stockServiceClientMock;
 
+	private SimpleMeterRegistry meterRegistry;
+
+	private DispatchMetrics metrics;
+
 	@BeforeEach
 	void setUp() {
 		kafkaProducerMock = mock(KafkaTemplate.class);
 		stockServiceClientMock = mock(StockServiceClient.class);
-		service = new DispatchService(kafkaProducerMock, stockServiceClientMock);
+		meterRegistry = new SimpleMeterRegistry();
+		metrics = new DispatchMetrics(meterRegistry);
+		service = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				ProcessedOrders.disabled(), TrackingMode.SEPARATE, false);
 	}
 
 	@Test
@@ -60,6 +94,9 @@ class DispatchServiceTest {
 		verify(kafkaProducerMock, times(1)).send(eq("order.dispatched"), eq(key), any(OrderDispatched.class));
 		verify(kafkaProducerMock, times(1)).send(eq("dispatch.tracking"), eq(key), any(DispatchCompleted.class));
 		verify(stockServiceClientMock, times(1)).checkAvailability(testEvent.item());
+		assertThat(meterRegistry.counter("dispatch.orders", "outcome", "available").count(), equalTo(1.0));
+		assertThat(meterRegistry.timer("dispatch.stock.lookup", "lookup", "single").count(), equalTo(1L));
+		assertThat(meterRegistry.timer("dispatch.process").count(), equalTo(1L));
 	}
 
 
@@ -73,6 +110,7 @@ class DispatchServiceTest {
 
 		verifyNoInteractions(kafkaProducerMock);
 		verify(stockServiceClientMock, times(1)).checkAvailability(testEvent.item());
+		assertThat(meterRegistry.counter("dispatch.orders", "outcome", "unavailable").count(), equalTo(1.0));
 	}
 
 	@Test
@@ -145,4 +183,355 @@ class DispatchServiceTest {
 		verify(stockServiceClientMock, times(1)).checkAvailability(testEvent.item());
 	}
 
-}
\ No newline at end of file
+	@Test
+	void testProcess_AlreadyProcessed_SkippedWithoutStockLookup() throws Exception {
+		final var dedupService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				processedOrders(), TrackingMode.SEPARATE, false);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn("false");
+
+		dedupService.process(key, testEvent);
+		dedupService.process(key, testEvent);
+
+		verify(stockServiceClientMock, times(1)).checkAvailability(testEvent.item());
+		assertThat(meterRegistry.counter("dispatch.orders", "outcome", "unavailable").count(), equalTo(1.0));
+		assertThat(meterRegistry.counter("dispatch.duplicates").count(), equalTo(1.0));
+	}
+
+	@Test
+	void testProcess_Fails_NotMarkedProcessed() {
+		final var processedOrders = processedOrders();
+		final var dedupService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				processedOrders, TrackingMode.SEPARATE, false);
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		doThrow(new RuntimeException("stock service client failure")).when(stockServiceClientMock)
+				.checkAvailability(testEvent.item());
+
+		assertThrows(RuntimeException.class, () -> dedupService.process(randomUUID().toString(), testEvent));
+
+		assertThat(processedOrders.isProcessed(testEvent.orderId()), equalTo(false));
+	}
+
+	@Test
+	void processBatch_DuplicatesSkippedWithoutStockLookup() throws Exception {
+		final var processedOrders = processedOrders();
+		final var dedupService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				processedOrders, TrackingMode.SEPARATE, false);
+		final var processedBefore = TestEventData.buildOrderCreatedEvent(randomUUID(), "old-item");
+		processedOrders.markProcessed(processedBefore.orderId());
+		final var order = TestEventData.buildOrderCreatedEvent(randomUUID(), "hot-item");
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(List.of("hot-item"))).thenReturn(Map.of("hot-item", "true"));
+
+		dedupService.process(List.of(buildOrderCreatedRecord(0L, "key", processedBefore),
+				buildOrderCreatedRecord(1L, "key", order), buildOrderCreatedRecord(2L, "key", order)));
+
+		verify(stockServiceClientMock, times(1)).checkAvailability(List.of("hot-item"));
+		verify(kafkaProducerMock, times(1)).send(eq("order.dispatched"), eq("key"), any(OrderDispatched.class));
+		assertThat(meterRegistry.counter("dispatch.duplicates").count(), equalTo(2.0));
+		assertThat(processedOrders.isProcessed(order.orderId()), equalTo(true));
+	}
+
+	@Test
+	void processBatchTransactional_RolledBack_DispatchedOnRedelivery() throws Throwable {
+		final var processedOrders = processedOrders();
+		final var dedupService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				processedOrders, TrackingMode.SEPARATE, false);
+		final var first = buildOrderCreatedRecord(0L, "first",
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "item-a"));
+		final var second = buildOrderCreatedRecord(1L, "second",
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "item-b"));
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(anyCollection())).thenReturn(Map.of());
+		when(stockServiceClientMock.checkAvailability("item-a")).thenReturn("true");
+		when(stockServiceClientMock.checkAvailability("item-b"))
+				.thenThrow(new RetryableException("Service failure"))
+				.thenReturn("true");
+
+		// the second order fails, so the transaction of the batch, with the events of the first, is rolled back
+		inTransaction(() -> assertThrows(BatchListenerFailedException.class,
+				() -> dedupService.process(List.of(first, second))), false);
+		assertThat(processedOrders.isProcessed(first.value().orderId()), equalTo(false));
+
+		inTransaction(() -> dedupService.process(List.of(first, second)), true);
+
+		verify(kafkaProducerMock, times(2)).send(eq("order.dispatched"), eq("first"), any(OrderDispatched.class));
+		verify(kafkaProducerMock, times(1)).send(eq("order.dispatched"), eq("second"), any(OrderDispatched.class));
+		assertThat(processedOrders.isProcessed(first.value().orderId()), equalTo(true));
+		assertThat(processedOrders.isProcessed(second.value().orderId()), equalTo(true));
+	}
+
+	@Test
+	void processBatch_Success() throws Exception {
+		final var first = buildOrderCreatedRecord(0L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "hot-item"));
+		final var second = buildOrderCreatedRecord(1L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "hot-item"));
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(List.of("hot-item", "hot-item"))).thenReturn(
+				Map.of("hot-item", "true"));
+
+		service.process(List.of(first, second));
+
+		final var inOrder = inOrder(kafkaProducerMock);
+		for (final var record : List.of(first, second)) {
+			inOrder.verify(kafkaProducerMock).send(eq("dispatch.tracking"), eq(record.key()),
+					any(DispatchPreparing.class));
+			inOrder.verify(kafkaProducerMock).send(eq("order.dispatched"), eq(record.key()), any(OrderDispatched.class));
+			inOrder.verify(kafkaProducerMock).send(eq("dispatch.tracking"), eq(record.key()),
+					any(DispatchCompleted.class));
+		}
+		verify(stockServiceClientMock, times(1)).checkAvailability(List.of("hot-item", "hot-item"));
+		verify(stockServiceClientMock, never()).checkAvailability(anyString());
+	}
+
+	@Test
+	void processBatch_Repartitioned_SentUnderOrderKey() throws Exception {
+		final var record = buildOrderCreatedRecord(0L, "hot-item",
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "hot-item"));
+		record.headers().add(OrderKeyHeader.NAME, "order-key".getBytes(StandardCharsets.UTF_8));
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(List.of("hot-item"))).thenReturn(Map.of("hot-item", "true"));
+
+		service.process(List.of(record));
+
+		verify(kafkaProducerMock, times(3)).send(anyString(), eq("order-key"), any());
+		verify(kafkaProducerMock, never()).send(anyString(), eq("hot-item"), any());
+	}
+
+	@Test
+	void processBatch_BulkLookupFailsFallsBackToSingleLookups() throws Exception {
+		final var first = buildOrderCreatedRecord(0L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "in-stock"));
+		final var second = buildOrderCreatedRecord(1L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "sold-out"));
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(anyCollection())).thenThrow(
+				new RuntimeException("bulk lookup failure"));
+		when(stockServiceClientMock.checkAvailability("in-stock")).thenReturn("true");
+		when(stockServiceClientMock.checkAvailability("sold-out")).thenReturn("false");
+
+		service.process(List.of(first, second));
+
+		verify(kafkaProducerMock, times(3)).send(anyString(), eq(first.key()), any());
+		verify(kafkaProducerMock, never()).send(anyString(), eq(second.key()), any());
+		verify(stockServiceClientMock, times(1)).checkAvailability("in-stock");
+		verify(stockServiceClientMock, times(1)).checkAvailability("sold-out");
+	}
+
+	@Test
+	void processBatch_StockUnavailable() throws Exception {
+		final var record = buildOrderCreatedRecord(0L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString()));
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn("false");
+
+		service.process(List.of(record));
+
+		verifyNoInteractions(kafkaProducerMock);
+		verify(stockServiceClientMock, times(1)).checkAvailability(record.value().item());
+	}
+
+	@Test
+	void processBatch_StockServiceClientThrowsException() {
+		final var first = buildOrderCreatedRecord(0L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "in-stock"));
+		final var second = buildOrderCreatedRecord(1L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "failing"));
+		final var stockFailure = new RuntimeException("stock service client failure");
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability("in-stock")).thenReturn("true");
+		when(stockServiceClientMock.checkAvailability("failing")).thenThrow(stockFailure);
+
+		final var exception = assertThrows(BatchListenerFailedException.class,
+				() -> service.process(List.of(first, second)));
+
+		assertThat(exception.getIndex(), equalTo(1));
+		assertThat(exception.getCause(), sameInstance(stockFailure));
+		verify(kafkaProducerMock, times(3)).send(anyString(), eq(first.key()), any());
+		verifyNoMoreInteractions(kafkaProducerMock);
+	}
+
+	@Test
+	void processBatch_RecordWithoutValue_EarlierRecordsSentAndNotRetryableAtIndex() {
+		final var processedOrders = processedOrders();
+		final var dedupService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				processedOrders, TrackingMode.SEPARATE, false);
+		final var first = buildOrderCreatedRecord(0L, "first",
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "item-a"));
+		final var third = buildOrderCreatedRecord(2L, "third",
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "item-b"));
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(List.of("item-a", "item-b"))).thenReturn(
+				Map.of("item-a", "true", "item-b", "true"));
+
+		// a value the ErrorHandlingDeserializer could not deserialize reaches the listener as null
+		final var exception = assertThrows(BatchListenerFailedException.class,
+				() -> dedupService.process(List.of(first, buildOrderCreatedRecord(1L, "poison", null), third)));
+
+		assertThat(exception.getIndex(), equalTo(1));
+		assertThat(exception.getCause(), instanceOf(NotRetryableException.class));
+		verify(kafkaProducerMock, times(3)).send(anyString(), eq("first"), any());
+		verify(kafkaProducerMock, never()).send(anyString(), eq("third"), any());
+		assertThat(processedOrders.isProcessed(first.value().orderId()), equalTo(true));
+		assertThat(processedOrders.isProcessed(third.value().orderId()), equalTo(false));
+	}
+
+	@Test
+	void processBatch_SendFails() {
+		final var first = buildOrderCreatedRecord(0L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "in-stock"));
+		final var second = buildOrderCreatedRecord(1L, randomUUID().toString(),
+				TestEventData.buildOrderCreatedEvent(randomUUID(), "in-stock"));
+		final var sendFailure = new RuntimeException("order dispatched producer failure");
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(kafkaProducerMock.send(eq("order.dispatched"), eq(second.key()), any(OrderDispatched.class)))
+				.thenReturn(CompletableFuture.failedFuture(sendFailure));
+		when(stockServiceClientMock.checkAvailability("in-stock")).thenReturn("true");
+
+		final var exception = assertThrows(BatchListenerFailedException.class,
+				() -> service.process(List.of(first, second)));
+
+		assertThat(exception.getIndex(), equalTo(1));
+		assertThat(exception.getCause(), sameInstance(sendFailure));
+	}
+
+	@Test
+	void processPipelined_Success() throws Exception {
+		final var pipelinedService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				ProcessedOrders.disabled(), TrackingMode.SEPARATE, true);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		final var pendingSend = new CompletableFuture<>();
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(pendingSend);
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn("true");
+
+		final var processing = CompletableFuture.runAsync(() -> {
+			try {
+				pipelinedService.process(key, testEvent);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		verify(kafkaProducerMock, timeout(1000).times(1)).send(eq("dispatch.tracking"), eq(key),
+				any(DispatchCompleted.class));
+		verify(kafkaProducerMock, times(1)).send(eq("dispatch.tracking"), eq(key), any(DispatchPreparing.class));
+		verify(kafkaProducerMock, times(1)).send(eq("order.dispatched"), eq(key), any(OrderDispatched.class));
+		assertThat(processing.isDone(), equalTo(false));
+
+		pendingSend.complete(null);
+		processing.get(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void processPipelined_SendFails() {
+		final var pipelinedService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				ProcessedOrders.disabled(), TrackingMode.SEPARATE, true);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(kafkaProducerMock.send(eq("order.dispatched"), eq(key), any(OrderDispatched.class))).thenReturn(
+				CompletableFuture.failedFuture(new RuntimeException("order dispatched producer failure")));
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn("true");
+
+		final Exception exception = assertThrows(ExecutionException.class,
+				() -> pipelinedService.process(key, testEvent));
+
+		assertThat(exception.getCause().getMessage(), equalTo("order dispatched producer failure"));
+		verify(kafkaProducerMock, times(3)).send(anyString(), eq(key), any());
+	}
+
+	@Test
+	void processCombinedTracking_SendsOneTrackingEvent() throws Exception {
+		final var combinedService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				ProcessedOrders.disabled(), TrackingMode.COMBINED, false);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn("true");
+
+		combinedService.process(key, testEvent);
+
+		final var inOrder = inOrder(kafkaProducerMock);
+		inOrder.verify(kafkaProducerMock).send(eq("order.dispatched"), eq(key), any(OrderDispatched.class));
+		inOrder.verify(kafkaProducerMock).send(eq("dispatch.tracking"), eq(key),
+				eq(new DispatchPreparedAndCompleted(testEvent.orderId(), LocalDate.now().toString())));
+		verifyNoMoreInteractions(kafkaProducerMock);
+	}
+
+	@Test
+	void processCombinedTrackingPipelined_SendsOneTrackingEvent() throws Exception {
+		final var combinedService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				ProcessedOrders.disabled(), TrackingMode.COMBINED, true);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn("true");
+
+		combinedService.process(key, testEvent);
+
+		verify(kafkaProducerMock, times(1)).send(eq("order.dispatched"), eq(key), any(OrderDispatched.class));
+		verify(kafkaProducerMock, times(1)).send(eq("dispatch.tracking"), eq(key),
+				any(DispatchPreparedAndCompleted.class));
+		verifyNoMoreInteractions(kafkaProducerMock);
+	}
+
+	@Test
+	void processBatchCombinedTracking_SendsOneTrackingEventPerOrder() throws Exception {
+		final var combinedService = new DispatchService(kafkaProducerMock, stockServiceClientMock, metrics,
+				ProcessedOrders.disabled(), TrackingMode.COMBINED, false);
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(
+				CompletableFuture.completedFuture(null));
+		when(stockServiceClientMock.checkAvailability(List.of("item-a", "item-b")))
+				.thenReturn(Map.of("item-a", "true", "item-b", "true"));
+
+		combinedService.process(List.of(
+				buildOrderCreatedRecord(0L, "key", TestEventData.buildOrderCreatedEvent(randomUUID(), "item-a")),
+				buildOrderCreatedRecord(1L, "key", TestEventData.buildOrderCreatedEvent(randomUUID(), "item-b"))));
+
+		verify(kafkaProducerMock, times(2)).send(eq("order.dispatched"), eq("key"), any(OrderDispatched.class));
+		verify(kafkaProducerMock, times(2)).send(eq("dispatch.tracking"), eq("key"),
+				any(DispatchPreparedAndCompleted.class));
+		verifyNoMoreInteractions(kafkaProducerMock);
+	}
+
+	/**
+	 * Runs the work with transaction synchronization active, as a transactional listener container does, and then
+	 * completes the transaction.
+	 */
+	private static void inTransaction(final Executable work, final boolean commit) throws Throwable {
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			work.execute();
+			final List<TransactionSynchronization> synchronizations =
+					TransactionSynchronizationManager.getSynchronizations();
+			if (commit) {
+				synchronizations.forEach(TransactionSynchronization::afterCommit);
+			}
+			synchronizations.forEach(synchronization -> synchronization.afterCompletion(commit
+					? TransactionSynchronization.STATUS_COMMITTED
+					: TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+		}
+	}
+
+	private static ProcessedOrders processedOrders() {
+		return new ProcessedOrders(new ProcessedOrderSettings(true, Duration.ofHours(1), 100, "", Duration.ZERO));
+	}
+
+}
@@ -0,0 +1,160 @@
+package com.ronaimate.dispatch.service;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.reactive.ReactiveKafkaProducerTemplate;
+
+import com.ronaimate.dispatch.client.AsyncStockServiceClient;
+import com.ronaimate.dispatch.dedup.ProcessedOrderSettings;
+import com.ronaimate.dispatch.dedup.ProcessedOrders;
+import com.ronaimate.dispatch.messages.DispatchCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparedAndCompleted;
+import com.ronaimate.dispatch.messages.DispatchPreparing;
+import com.ronaimate.dispatch.messages.OrderDispatched;
+import com.ronaimate.dispatch.metrics.DispatchMetrics;
+import com.ronaimate.dispatch.util.TestEventData;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.SenderResult;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReactiveDispatchServiceTest {
+
+	private ReactiveKafkaProducerTemplate kafkaProducerMock;
+
+	private AsyncStockServiceClient stockServiceClientMock;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private DispatchMetrics metrics;
+
+	private ProcessedOrders processedOrders;
+
+	@BeforeEach
+	void setUp() {
+		kafkaProducerMock = mock(ReactiveKafkaProducerTemplate.class);
+		stockServiceClientMock = mock(AsyncStockServiceClient.class);
+		meterRegistry = new SimpleMeterRegistry();
+		metrics = new DispatchMetrics(meterRegistry);
+		processedOrders = new ProcessedOrders(
+				new ProcessedOrderSettings(true, Duration.ofHours(1), 100, "", Duration.ZERO));
+		when(kafkaProducerMock.send(anyString(), anyString(), any())).thenReturn(Mono.just(mock(SenderResult.class)));
+	}
+
+	@Test
+	void process_Success() {
+		final var service = service(TrackingMode.SEPARATE);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn(CompletableFuture.completedFuture("true"));
+
+		service.process(key, testEvent).block();
+
+		final var inOrder = inOrder(kafkaProducerMock);
+		inOrder.verify(kafkaProducerMock).send(eq("dispatch.tracking"), eq(key), any(DispatchPreparing.class));
+		inOrder.verify(kafkaProducerMock).send(eq("order.dispatched"), eq(key), any(OrderDispatched.class));
+		inOrder.verify(kafkaProducerMock).send(eq("dispatch.tracking"), eq(key), any(DispatchCompleted.class));
+		verify(stockServiceClientMock, times(1)).checkAvailability(testEvent.item());
+		assertThat(processedOrders.isProcessed(testEvent.orderId()), equalTo(true));
+		assertThat(meterRegistry.counter("dispatch.orders", "outcome", "available").count(), equalTo(1.0));
+		assertThat(meterRegistry.timer("dispatch.process").count(), equalTo(1L));
+	}
+
+	@Test
+	void process_CombinedTrackingMode() {
+		final var service = service(TrackingMode.COMBINED);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn(CompletableFuture.completedFuture("true"));
+
+		service.process(key, testEvent).block();
+
+		final var inOrder = inOrder(kafkaProducerMock);
+		inOrder.verify(kafkaProducerMock).send(eq("order.dispatched"), eq(key), any(OrderDispatched.class));
+		inOrder.verify(kafkaProducerMock).send(eq("dispatch.tracking"), eq(key),
+				any(DispatchPreparedAndCompleted.class));
+		verify(kafkaProducerMock, never()).send(anyString(), anyString(), any(DispatchPreparing.class));
+		verify(kafkaProducerMock, never()).send(anyString(), anyString(), any(DispatchCompleted.class));
+	}
+
+	@Test
+	void process_StockUnavailable() {
+		final var service = service(TrackingMode.SEPARATE);
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn(CompletableFuture.completedFuture("false"));
+
+		service.process(randomUUID().toString(), testEvent).block();
+
+		verifyNoInteractions(kafkaProducerMock);
+		assertThat(processedOrders.isProcessed(testEvent.orderId()), equalTo(true));
+		assertThat(meterRegistry.counter("dispatch.orders", "outcome", "unavailable").count(), equalTo(1.0));
+	}
+
+	@Test
+	void process_AlreadyProcessedOrderIsSkipped() {
+		final var service = service(TrackingMode.SEPARATE);
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		processedOrders.markProcessed(testEvent.orderId());
+
+		service.process(randomUUID().toString(), testEvent).block();
+
+		verifyNoInteractions(stockServiceClientMock);
+		verifyNoInteractions(kafkaProducerMock);
+	}
+
+	@Test
+	void process_StockServiceFailureIsNotMarkedProcessed() {
+		final var service = service(TrackingMode.SEPARATE);
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn(
+				CompletableFuture.failedFuture(new RuntimeException("stock service client failure")));
+
+		final Exception exception = assertThrows(RuntimeException.class,
+				() -> service.process(randomUUID().toString(), testEvent).block());
+
+		assertThat(exception.getMessage(), equalTo("stock service client failure"));
+		verifyNoInteractions(kafkaProducerMock);
+		assertThat(processedOrders.isProcessed(testEvent.orderId()), equalTo(false));
+	}
+
+	@Test
+	void process_ProducerFailureIsNotMarkedProcessed() {
+		final var service = service(TrackingMode.SEPARATE);
+		final var key = randomUUID().toString();
+		final var testEvent = TestEventData.buildOrderCreatedEvent(randomUUID(), randomUUID().toString());
+		when(stockServiceClientMock.checkAvailability(anyString())).thenReturn(CompletableFuture.completedFuture("true"));
+		when(kafkaProducerMock.send(eq("order.dispatched"), eq(key), any(OrderDispatched.class))).thenReturn(
+				Mono.error(new RuntimeException("order dispatched producer failure")));
+
+		final Exception exception = assertThrows(RuntimeException.class,
+				() -> service.process(key, testEvent).block());
+
+		assertThat(exception.getMessage(), equalTo("order dispatched producer failure"));
+		assertThat(processedOrders.isProcessed(testEvent.orderId()), equalTo(false));
+	}
+
+	private ReactiveDispatchService service(final TrackingMode trackingMode) {
+		return new ReactiveDispatchService(kafkaProducerMock, stockServiceClientMock, metrics, processedOrders,
+				trackingMode);
+	}
+
+}
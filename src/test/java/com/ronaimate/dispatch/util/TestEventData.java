@@ -2,6 +2,8 @@ package com.ronaimate.dispatch.util;
 
 import java.util.UUID;
 
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
 import com.ronaimate.dispatch.messages.OrderCreated;
 
 public class TestEventData {
@@ -13,4 +15,9 @@ public class TestEventData {
 				.build();
 	}
 
+	public static ConsumerRecord<String, OrderCreated> buildOrderCreatedRecord(final long offset, final String key,
+			final OrderCreated orderCreated) {
+		return new ConsumerRecord<>("order.created", 0, offset, key, orderCreated);
+	}
+
 }